@@ -0,0 +1,86 @@
+package sn.trivial.ticket.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import sn.trivial.ticket.management.SecurityMetersService;
+import sn.trivial.ticket.security.AuthoritiesConstants;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmarks of the JWT creation, validation and parsing done by {@link TokenProvider} on every authenticated request, and of
+ * the resolution of an already cached token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenProviderBenchmark {
+
+    private TokenProvider tokenProvider;
+
+    private TokenProvider cachingTokenProvider;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        tokenProvider = new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+        cachingTokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                new SecurityMetersService(new SimpleMeterRegistry()),
+                new ConcurrentMapCacheManager(TokenProvider.AUTHENTICATIONS_BY_TOKEN_CACHE)
+            );
+
+        authentication =
+            new UsernamePasswordAuthenticationToken(
+                "agent",
+                "agent",
+                List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.AGENT))
+            );
+        token = tokenProvider.createToken(authentication, false);
+        cachingTokenProvider.resolveAuthentication(token);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Optional<Authentication> resolveAuthentication() {
+        return tokenProvider.resolveAuthentication(token);
+    }
+
+    @Benchmark
+    public Optional<Authentication> resolveCachedAuthentication() {
+        return cachingTokenProvider.resolveAuthentication(token);
+    }
+}
@@ -0,0 +1,52 @@
+package sn.trivial.ticket.service;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.service.criteria.TicketCriteria;
+
+/**
+ * Benchmarks of the {@link Specification} built by {@link TicketQueryService#createSpecification(TicketCriteria)}
+ * for the criteria of the ticket list screens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketQueryServiceBenchmark {
+
+    private TicketQueryService ticketQueryService;
+
+    private TicketCriteria emptyCriteria;
+
+    private TicketCriteria queueCriteria;
+
+    @Setup
+    public void setup() {
+        // building a specification does not touch the repository nor the mapper
+        ticketQueryService = new TicketQueryService(null, null, null, null);
+
+        emptyCriteria = new TicketCriteria();
+
+        queueCriteria = new TicketCriteria();
+        queueCriteria.status().setEquals(TicketStatus.BEING_TREATED);
+        queueCriteria.assignedToId().setEquals(2L);
+        queueCriteria.issuedAt().setGreaterThanOrEqual(Instant.now().minusSeconds(86_400));
+        queueCriteria.code().setContains("T-1-");
+    }
+
+    @Benchmark
+    public Specification<Ticket> emptyCriteria() {
+        return ticketQueryService.createSpecification(emptyCriteria);
+    }
+
+    @Benchmark
+    public Specification<Ticket> queueCriteria() {
+        return ticketQueryService.createSpecification(queueCriteria);
+    }
+}
@@ -0,0 +1,173 @@
+package sn.trivial.ticket.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.Client;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.AgentRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.security.AuthoritiesConstants;
+import sn.trivial.ticket.service.AgentService;
+import sn.trivial.ticket.service.IdentityService;
+import sn.trivial.ticket.service.MessageService;
+import sn.trivial.ticket.service.TicketArchiveService;
+import sn.trivial.ticket.service.TicketCountService;
+import sn.trivial.ticket.service.TicketStatusMachine;
+import sn.trivial.ticket.service.UserService;
+import sn.trivial.ticket.service.dto.IdentityDTO;
+import sn.trivial.ticket.service.dto.MessageDTO;
+import sn.trivial.ticket.service.dto.TicketDTO;
+import sn.trivial.ticket.service.mapper.TicketMapperImpl;
+import sn.trivial.ticket.service.mapper.UserMapper;
+import sn.trivial.ticket.web.rest.errors.BadRequestAlertException;
+import sn.trivial.ticket.web.rest.vm.ChangeTicketStatusVM;
+import sn.trivial.ticket.web.rest.vm.MessageContentAndNewTicketStatusVM;
+
+/**
+ * Benchmarks of the status transitions validated by {@link TicketServiceImpl#changeTicketStatusByClient(ChangeTicketStatusVM)}
+ * and {@link TicketServiceImpl#sendMessageByConnectedAgent(MessageContentAndNewTicketStatusVM)}.
+ * <p>
+ * The repositories and the other services are stubbed, so that only the workflow of the service and the mapping are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketWorkflowBenchmark {
+
+    private static final long TREATED_TICKET_ID = 1L;
+
+    private static final long RECEIVED_TICKET_ID = 2L;
+
+    private TicketServiceImpl ticketService;
+
+    private ChangeTicketStatusVM allowedClientTransition;
+
+    private ChangeTicketStatusVM rejectedClientTransition;
+
+    private MessageContentAndNewTicketStatusVM allowedAgentTransition;
+
+    private MessageContentAndNewTicketStatusVM rejectedAgentTransition;
+
+    @Setup
+    public void setup() {
+        // stubs only: recording the invocations of millions of calls would skew the allocation figures
+        TicketRepository ticketRepository = mock(TicketRepository.class, withSettings().stubOnly());
+        IdentityService identityService = mock(IdentityService.class, withSettings().stubOnly());
+        MessageService messageService = mock(MessageService.class, withSettings().stubOnly());
+
+        when(ticketRepository.findById(TREATED_TICKET_ID)).thenReturn(Optional.of(ticket(TREATED_TICKET_ID, TicketStatus.TREATED)));
+        when(ticketRepository.findById(RECEIVED_TICKET_ID)).thenReturn(Optional.of(ticket(RECEIVED_TICKET_ID, TicketStatus.RECEIVED)));
+        when(ticketRepository.findByIdAndAssignedTo_User_Login(anyLong(), anyString()))
+            .thenAnswer(invocation -> Optional.of(ticket(invocation.getArgument(0), TicketStatus.BEING_TREATED)));
+        when(ticketRepository.existsByIdAndIssuedBy_User_Login(anyLong(), anyString())).thenReturn(true);
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(identityService.getCurrentIdentity())
+            .thenReturn(Optional.of(new IdentityDTO(3L, "user", 1L, 2L, Set.of(AuthoritiesConstants.CLIENT, AuthoritiesConstants.AGENT))));
+        when(messageService.save(any(MessageDTO.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ticketService =
+            new TicketServiceImpl(
+                ticketRepository,
+                new TicketMapperImpl(),
+                mock(UserService.class, withSettings().stubOnly()),
+                mock(AgentService.class, withSettings().stubOnly()),
+                messageService,
+                new UserMapper(),
+                identityService,
+                new TicketStatusMachine(new SimpleMeterRegistry(), List.of()),
+                mock(AgentRepository.class, withSettings().stubOnly()),
+                new ApplicationProperties(),
+                event -> {},
+                mock(TicketCountService.class, withSettings().stubOnly()),
+                mock(TicketArchiveService.class, withSettings().stubOnly())
+            );
+
+        // the benchmark threads are not the one running the setup
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "user"));
+
+        allowedClientTransition = changeTicketStatus(TREATED_TICKET_ID, TicketStatus.CLOSED);
+        rejectedClientTransition = changeTicketStatus(RECEIVED_TICKET_ID, TicketStatus.BEING_TREATED);
+        allowedAgentTransition = sendMessage(TicketStatus.PENDING);
+        rejectedAgentTransition = sendMessage(TicketStatus.CLOSED);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public TicketDTO clientAllowedTransition() {
+        return ticketService.changeTicketStatusByClient(allowedClientTransition);
+    }
+
+    @Benchmark
+    public Object clientRejectedTransition() {
+        try {
+            return ticketService.changeTicketStatusByClient(rejectedClientTransition);
+        } catch (BadRequestAlertException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public MessageDTO agentAllowedTransition() {
+        return ticketService.sendMessageByConnectedAgent(allowedAgentTransition);
+    }
+
+    @Benchmark
+    public Object agentRejectedTransition() {
+        try {
+            return ticketService.sendMessageByConnectedAgent(rejectedAgentTransition);
+        } catch (BadRequestAlertException e) {
+            return e;
+        }
+    }
+
+    private static Ticket ticket(long id, TicketStatus status) {
+        return new Ticket()
+            .id(id)
+            .code("T-3-" + id)
+            .status(status)
+            .issueDescription("The printer of the second floor does not print anymore")
+            .issuedAt(Instant.now())
+            .issuedBy(new Client().id(1L))
+            .assignedTo(new Agent().id(2L));
+    }
+
+    private static ChangeTicketStatusVM changeTicketStatus(long ticketId, TicketStatus ticketStatus) {
+        ChangeTicketStatusVM changeTicketStatusVM = new ChangeTicketStatusVM();
+        changeTicketStatusVM.setTicketId(ticketId);
+        changeTicketStatusVM.setTicketStatus(ticketStatus);
+        return changeTicketStatusVM;
+    }
+
+    private static MessageContentAndNewTicketStatusVM sendMessage(TicketStatus newTicketStatus) {
+        MessageContentAndNewTicketStatusVM messageVM = new MessageContentAndNewTicketStatusVM();
+        messageVM.setTicketId(3L);
+        messageVM.setMessageContent("Your printer has been replaced");
+        messageVM.setNewTicketStatus(newTicketStatus);
+        return messageVM;
+    }
+}
@@ -0,0 +1,82 @@
+package sn.trivial.ticket.service.mapper;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.Client;
+import sn.trivial.ticket.domain.Message;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.User;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.service.dto.MessageDTO;
+import sn.trivial.ticket.service.dto.TicketDTO;
+
+/**
+ * Benchmarks of the {@link TicketMapper} and {@link MessageMapper} conversions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private TicketMapper ticketMapper;
+
+    private MessageMapper messageMapper;
+
+    private Ticket ticket;
+
+    private TicketDTO ticketDTO;
+
+    private Message message;
+
+    private MessageDTO messageDTO;
+
+    @Setup
+    public void setup() {
+        ticketMapper = new TicketMapperImpl();
+        messageMapper = new MessageMapperImpl();
+
+        Client client = new Client().id(1L).firstName("john").lastName("doe").email("john.doe@localhost");
+        Agent agent = new Agent().id(2L).firstName("jane").lastName("doe").email("jane.doe@localhost");
+        ticket =
+            new Ticket()
+                .id(3L)
+                .code("T-1-0d5b7c9e-8a5f-4c37-9b3c-6a1f0f1d2e3a")
+                .status(TicketStatus.BEING_TREATED)
+                .issueDescription("The printer of the second floor does not print anymore")
+                .issuedAt(Instant.now())
+                .issuedBy(client)
+                .assignedTo(agent);
+        ticketDTO = ticketMapper.toDto(ticket);
+
+        User user = new User();
+        user.setId(4L);
+        user.setLogin("john");
+        message = new Message().id(5L).content("Did you try to turn it off and on again?").sentAt(Instant.now()).ticket(ticket).sentBy(user);
+        messageDTO = messageMapper.toDto(message);
+    }
+
+    @Benchmark
+    public TicketDTO ticketToDto() {
+        return ticketMapper.toDto(ticket);
+    }
+
+    @Benchmark
+    public Ticket ticketToEntity() {
+        return ticketMapper.toEntity(ticketDTO);
+    }
+
+    @Benchmark
+    public MessageDTO messageToDto() {
+        return messageMapper.toDto(message);
+    }
+
+    @Benchmark
+    public Message messageToEntity() {
+        return messageMapper.toEntity(messageDTO);
+    }
+}
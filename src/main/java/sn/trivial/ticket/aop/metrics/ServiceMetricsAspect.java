@@ -0,0 +1,90 @@
+package sn.trivial.ticket.aop.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import sn.trivial.ticket.management.SqlStatementStats;
+
+/**
+ * Aspect timing the methods of the services, and recording the SQL statements each call executes, nested calls included.
+ * <p>
+ * The meters are tagged by service class and method, so that the costliest methods are found from the production metrics.
+ */
+@Aspect
+public class ServiceMetricsAspect {
+
+    public static final String SERVICE_METHOD_METER_NAME = "service.method";
+    public static final String SERVICE_METHOD_METER_DESCRIPTION = "Time spent in the methods of the services.";
+
+    public static final String SQL_STATEMENTS_METER_NAME = "service.method.sql.statements";
+    public static final String SQL_STATEMENTS_METER_DESCRIPTION = "SQL statements executed per call of the methods of the services.";
+
+    public static final String SQL_TIME_METER_NAME = "service.method.sql.time";
+    public static final String SQL_TIME_METER_DESCRIPTION = "Time spent executing the SQL statements of the methods of the services.";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Pointcut that matches all the services of the application.
+     */
+    @Pointcut("within(@org.springframework.stereotype.Service *) && within(sn.trivial.ticket.service..*)")
+    public void servicePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that times a service method and records its SQL statements.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable throws {@link Throwable} thrown by the method.
+     */
+    @Around("servicePointcut()")
+    public Object recordService(ProceedingJoinPoint joinPoint) throws Throwable {
+        SqlStatementStats sqlStart = SqlStatementStats.current();
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - start;
+            SqlStatementStats sql = SqlStatementStats.current().since(sqlStart);
+            Signature signature = joinPoint.getSignature();
+            Tags tags = Tags.of("class", signature.getDeclaringType().getSimpleName(), "method", signature.getName());
+            Timer
+                .builder(SERVICE_METHOD_METER_NAME)
+                .description(SERVICE_METHOD_METER_DESCRIPTION)
+                .tags(tags)
+                .tag("exception", exception)
+                .register(meterRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+            DistributionSummary
+                .builder(SQL_STATEMENTS_METER_NAME)
+                .description(SQL_STATEMENTS_METER_DESCRIPTION)
+                .baseUnit("statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(sql.getStatements());
+            Timer
+                .builder(SQL_TIME_METER_NAME)
+                .description(SQL_TIME_METER_DESCRIPTION)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(sql.getDuration());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package sn.trivial.ticket.config;
 
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +12,504 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Discussion discussion = new Discussion();
+
+    private final Cache cache = new Cache();
+
+    private final Dispatcher dispatcher = new Dispatcher();
+
+    private final Events events = new Events();
+
+    private final Mail mail = new Mail();
+
+    private final Counters counters = new Counters();
+
+    private final Sla sla = new Sla();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Export export = new Export();
+
+    private final Archive archive = new Archive();
+
+    private final Metrics metrics = new Metrics();
+
     // jhipster-needle-application-properties-property
+
+    public Discussion getDiscussion() {
+        return discussion;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    public Events getEvents() {
+        return events;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public Counters getCounters() {
+        return counters;
+    }
+
+    public Sla getSla() {
+        return sla;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Archive getArchive() {
+        return archive;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    /**
+     * Paging of the ticket discussions.
+     */
+    public static class Discussion {
+
+        private int defaultPageSize = 50;
+
+        private int maxPageSize = 200;
+
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+    }
+
+    /**
+     * Sizing of the Hibernate second-level cache regions of the tickets, clients, agents and users, of the identity cache of the
+     * connected users and of the authentication cache of their tokens.
+     * Unset values fall back to {@code jhipster.cache.ehcache}.
+     */
+    public static class Cache {
+
+        private final Region ticket = new Region();
+
+        private final Region client = new Region();
+
+        private final Region agent = new Region();
+
+        private final Region user = new Region();
+
+        private final Region identity = new Region();
+
+        private final Region token = new Region();
+
+        public Region getTicket() {
+            return ticket;
+        }
+
+        public Region getClient() {
+            return client;
+        }
+
+        public Region getAgent() {
+            return agent;
+        }
+
+        public Region getUser() {
+            return user;
+        }
+
+        public Region getIdentity() {
+            return identity;
+        }
+
+        public Region getToken() {
+            return token;
+        }
+
+        public static class Region {
+
+            private Long timeToLiveSeconds;
+
+            private Long maxEntries;
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    /**
+     * Automatic assignment of the received tickets to the agents.
+     */
+    public static class Dispatcher {
+
+        /**
+         * How the agent of a received ticket is chosen.
+         */
+        public enum Policy {
+            /** the agent with the fewest open tickets */
+            LEAST_LOADED,
+            /** each agent in turn */
+            ROUND_ROBIN,
+            /** the agent with the fewest open tickets relative to its weight */
+            WEIGHTED,
+        }
+
+        private boolean enabled = false;
+
+        private Policy policy = Policy.LEAST_LOADED;
+
+        private int batchSize = 50;
+
+        private long fixedDelayMs = 2000;
+
+        private Integer maxOpenTicketsPerAgent;
+
+        private Map<String, Integer> weights = new HashMap<>();
+
+        private int maxClaimSize = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Policy getPolicy() {
+            return policy;
+        }
+
+        public void setPolicy(Policy policy) {
+            this.policy = policy;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFixedDelayMs() {
+            return fixedDelayMs;
+        }
+
+        public void setFixedDelayMs(long fixedDelayMs) {
+            this.fixedDelayMs = fixedDelayMs;
+        }
+
+        public Integer getMaxOpenTicketsPerAgent() {
+            return maxOpenTicketsPerAgent;
+        }
+
+        public void setMaxOpenTicketsPerAgent(Integer maxOpenTicketsPerAgent) {
+            this.maxOpenTicketsPerAgent = maxOpenTicketsPerAgent;
+        }
+
+        public Map<String, Integer> getWeights() {
+            return weights;
+        }
+
+        public void setWeights(Map<String, Integer> weights) {
+            this.weights = weights;
+        }
+
+        public int getMaxClaimSize() {
+            return maxClaimSize;
+        }
+
+        public void setMaxClaimSize(int maxClaimSize) {
+            this.maxClaimSize = maxClaimSize;
+        }
+    }
+
+    /**
+     * Server-sent events stream of the ticket changes.
+     */
+    public static class Events {
+
+        private long timeoutMs = 1800000;
+
+        private int bufferSize = 64;
+
+        private long heartbeatMs = 25000;
+
+        private int senderThreads = 2;
+
+        private long streamTicketValiditySeconds = 30;
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public long getHeartbeatMs() {
+            return heartbeatMs;
+        }
+
+        public void setHeartbeatMs(long heartbeatMs) {
+            this.heartbeatMs = heartbeatMs;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+
+        public long getStreamTicketValiditySeconds() {
+            return streamTicketValiditySeconds;
+        }
+
+        public void setStreamTicketValiditySeconds(long streamTicketValiditySeconds) {
+            this.streamTicketValiditySeconds = streamTicketValiditySeconds;
+        }
+    }
+
+    /**
+     * Delivery of the emails of the mail outbox.
+     */
+    public static class Mail {
+
+        private boolean enabled = true;
+
+        private int batchSize = 50;
+
+        private long fixedDelayMs = 5000;
+
+        private int maxAttempts = 8;
+
+        private long initialBackoffSeconds = 30;
+
+        private long maxBackoffSeconds = 3600;
+
+        private long leaseSeconds = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFixedDelayMs() {
+            return fixedDelayMs;
+        }
+
+        public void setFixedDelayMs(long fixedDelayMs) {
+            this.fixedDelayMs = fixedDelayMs;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffSeconds() {
+            return initialBackoffSeconds;
+        }
+
+        public void setInitialBackoffSeconds(long initialBackoffSeconds) {
+            this.initialBackoffSeconds = initialBackoffSeconds;
+        }
+
+        public long getMaxBackoffSeconds() {
+            return maxBackoffSeconds;
+        }
+
+        public void setMaxBackoffSeconds(long maxBackoffSeconds) {
+            this.maxBackoffSeconds = maxBackoffSeconds;
+        }
+
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+    }
+
+    /**
+     * Reconciliation of the ticket counters, maintained incrementally on every change of a ticket.
+     */
+    public static class Counters {
+
+        private long reconcileDelayMs = 3600000;
+
+        public long getReconcileDelayMs() {
+            return reconcileDelayMs;
+        }
+
+        public void setReconcileDelayMs(long reconcileDelayMs) {
+            this.reconcileDelayMs = reconcileDelayMs;
+        }
+    }
+
+    /**
+     * Hourly rollup of the ticket status transitions, backing the SLA percentiles.
+     */
+    public static class Sla {
+
+        private long rollupDelayMs = 300000;
+
+        public long getRollupDelayMs() {
+            return rollupDelayMs;
+        }
+
+        public void setRollupDelayMs(long rollupDelayMs) {
+            this.rollupDelayMs = rollupDelayMs;
+        }
+    }
+
+    /**
+     * Bulk operations of the admins on the tickets.
+     */
+    public static class Bulk {
+
+        private int chunkSize = 500;
+
+        private int maxTickets = 10000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxTickets() {
+            return maxTickets;
+        }
+
+        public void setMaxTickets(int maxTickets) {
+            this.maxTickets = maxTickets;
+        }
+    }
+
+    /**
+     * Streaming exports of the tickets and of their discussions.
+     */
+    public static class Export {
+
+        private int fetchSize = 1000;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    /**
+     * Archiving of the closed tickets and of their discussions, out of the working tables.
+     */
+    public static class Archive {
+
+        private int closedForDays = 180;
+
+        private int batchSize = 500;
+
+        public int getClosedForDays() {
+            return closedForDays;
+        }
+
+        public void setClosedForDays(int closedForDays) {
+            this.closedForDays = closedForDays;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Instrumentation of the services and of the REST endpoints.
+     */
+    public static class Metrics {
+
+        private boolean serverTiming = false;
+
+        public boolean isServerTiming() {
+            return serverTiming;
+        }
+
+        public void setServerTiming(boolean serverTiming) {
+            this.serverTiming = serverTiming;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
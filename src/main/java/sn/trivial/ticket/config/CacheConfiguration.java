@@ -1,15 +1,24 @@
 package sn.trivial.ticket.config;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
 import org.ehcache.config.builders.*;
+import org.ehcache.event.EventType;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.*;
+import sn.trivial.ticket.management.SecurityMetersService;
+import sn.trivial.ticket.security.jwt.TokenProvider;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
@@ -19,18 +28,26 @@ public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache entityCaches;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final SecurityMetersService securityMetersService;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService
+    ) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.entityCaches = applicationProperties.getCache();
+        this.securityMetersService = securityMetersService;
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+        jcacheConfiguration = jcacheConfiguration(ehcache.getMaxEntries(), ehcache.getTimeToLiveSeconds());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
     }
 
     @Bean
@@ -38,16 +55,113 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, sn.trivial.ticket.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, sn.trivial.ticket.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, sn.trivial.ticket.domain.User.class.getName(), entityCaches.getUser());
+            createCache(cm, sn.trivial.ticket.domain.Authority.class.getName());
+            createCache(cm, sn.trivial.ticket.domain.User.class.getName() + ".authorities", entityCaches.getUser());
+            createCache(cm, sn.trivial.ticket.service.IdentityService.IDENTITIES_BY_LOGIN_CACHE, entityCaches.getIdentity());
+            createCache(cm, sn.trivial.ticket.domain.Ticket.class.getName(), entityCaches.getTicket());
+            createCache(cm, sn.trivial.ticket.domain.Client.class.getName(), entityCaches.getClient());
+            createCache(cm, sn.trivial.ticket.domain.Agent.class.getName(), entityCaches.getAgent());
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            // the update timestamps must outlive the cached query results, or stale results would be considered up to date
+            createCache(
+                cm,
+                RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
+                        .withExpiry(ExpiryPolicyBuilder.noExpiration())
+                        .build()
+                )
+            );
+            createCache(cm, TokenProvider.AUTHENTICATIONS_BY_TOKEN_CACHE, tokenCacheConfiguration(entityCaches.getToken()));
             // jhipster-needle-ehcache-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration);
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, ApplicationProperties.Cache.Region region) {
+        long maxEntries = region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries();
+        long timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
+        createCache(cm, cacheName, jcacheConfiguration(maxEntries, timeToLiveSeconds));
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
+        }
+    }
+
+    private static javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(long maxEntries, long timeToLiveSeconds) {
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)))
+                .build()
+        );
+    }
+
+    /**
+     * The authentications resolved from the tokens expire with their token, and at the latest after the time to live of the
+     * region. Their evictions, when the cache is full, are tracked by the {@link SecurityMetersService}.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> tokenCacheConfiguration(ApplicationProperties.Cache.Region region) {
+        long maxEntries = region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries();
+        Duration timeToLive = Duration.ofSeconds(
+            region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds()
+        );
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(new TokenExpiryPolicy(timeToLive))
+                .withService(
+                    CacheEventListenerConfigurationBuilder
+                        .newEventListenerConfiguration(event -> securityMetersService.trackTokenCacheEviction(), EventType.EVICTED)
+                        .unordered()
+                        .asynchronous()
+                )
+                .build()
+        );
+    }
+
+    private static final class TokenExpiryPolicy implements ExpiryPolicy<Object, Object> {
+
+        private final Duration timeToLive;
+
+        private TokenExpiryPolicy(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        @Override
+        public Duration getExpiryForCreation(Object key, Object value) {
+            if (!(value instanceof TokenProvider.CachedAuthentication)) {
+                return timeToLive;
+            }
+            Duration untilExpiration = Duration.between(Instant.now(), ((TokenProvider.CachedAuthentication) value).getExpiresAt());
+            if (untilExpiration.isNegative()) {
+                return Duration.ZERO;
+            }
+            return untilExpiration.compareTo(timeToLive) < 0 ? untilExpiration : timeToLive;
+        }
+
+        @Override
+        public Duration getExpiryForAccess(Object key, Supplier<?> value) {
+            return null;
+        }
+
+        @Override
+        public Duration getExpiryForUpdate(Object key, Supplier<?> oldValue, Object newValue) {
+            return getExpiryForCreation(key, newValue);
         }
     }
 
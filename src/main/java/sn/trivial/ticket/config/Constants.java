@@ -11,5 +11,11 @@ public final class Constants {
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
 
+    // Login of the agent the received tickets are assigned to until they are dispatched
+    public static final String NO_AGENT_LOGIN = "no_agent";
+
+    // Spring profile running the requests, the async tasks and the scheduled tasks on virtual threads (Java 21+)
+    public static final String SPRING_PROFILE_VIRTUAL_THREADS = "virtual-threads";
+
     private Constants() {}
 }
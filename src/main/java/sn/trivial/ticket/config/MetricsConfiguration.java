@@ -0,0 +1,41 @@
+package sn.trivial.ticket.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import sn.trivial.ticket.aop.metrics.ServiceMetricsAspect;
+import sn.trivial.ticket.management.RequestMetricsInterceptor;
+import sn.trivial.ticket.management.SqlStatementRecorder;
+
+/**
+ * Instrumentation of the services and of the REST endpoints with the SQL statements they execute, exported with the other
+ * meters under {@code /management/prometheus}, in all profiles.
+ */
+@Configuration
+@EnableAspectJAutoProxy
+public class MetricsConfiguration implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfiguration(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public static SqlStatementRecorder sqlStatementRecorder() {
+        return new SqlStatementRecorder();
+    }
+
+    @Bean
+    public ServiceMetricsAspect serviceMetricsAspect() {
+        return new ServiceMetricsAspect(meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry)).addPathPatterns("/api/**");
+    }
+}
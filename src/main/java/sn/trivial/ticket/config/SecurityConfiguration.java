@@ -27,16 +27,20 @@ public class SecurityConfiguration {
 
     private final TokenProvider tokenProvider;
 
+    private final StreamTicketProvider streamTicketProvider;
+
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
     public SecurityConfiguration(
         TokenProvider tokenProvider,
+        StreamTicketProvider streamTicketProvider,
         CorsFilter corsFilter,
         JHipsterProperties jHipsterProperties,
         SecurityProblemSupport problemSupport
     ) {
         this.tokenProvider = tokenProvider;
+        this.streamTicketProvider = streamTicketProvider;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
         this.jHipsterProperties = jHipsterProperties;
@@ -91,18 +95,24 @@ public class SecurityConfiguration {
             .regexMatchers("/api/tickets/\\d+/send-message/clients").hasAuthority(AuthoritiesConstants.CLIENT)
             .antMatchers("/api/tickets/unassigned").hasAuthority(AuthoritiesConstants.AGENT)
             .regexMatchers("/api/tickets/\\d+/self-assign").hasAuthority(AuthoritiesConstants.AGENT)
+            .antMatchers("/api/tickets/claim-next").hasAuthority(AuthoritiesConstants.AGENT)
             .antMatchers("/api/tickets/assigned").hasAuthority(AuthoritiesConstants.AGENT)
             .regexMatchers("/api/tickets/\\d+/assigned").hasAuthority(AuthoritiesConstants.AGENT)
             .regexMatchers("/api/tickets/\\d+/send-message/agents").hasAuthority(AuthoritiesConstants.AGENT)
             .regexMatchers("/api/tickets/\\d+/admin/assign-agent/\\d+").hasAuthority(AuthoritiesConstants.ADMIN)
-            .regexMatchers("/api/tickets/assigned/agents/\\d+").hasAuthority(AuthoritiesConstants.ADMIN)
-            .regexMatchers("/api/tickets/assigned/agents/\\d+/count").hasAuthority(AuthoritiesConstants.ADMIN)
-            .regexMatchers("/api/tickets/assigned/any-agent").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/api/tickets/assigned/agents/*").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/api/tickets/assigned/agents/*/count").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/api/tickets/assigned/any-agent").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/api/tickets/issued/clients/*/count").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/api/tickets/count/by-status").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/api/tickets/sla").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/api/tickets/admin/bulk/**").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/api/tickets/export/**").hasAuthority(AuthoritiesConstants.ADMIN)
             .regexMatchers("/api/tickets/status/\\w+").hasAuthority(AuthoritiesConstants.ADMIN)
 
-            .regexMatchers("/api/messages/tickets/\\d+/clients").hasAuthority(AuthoritiesConstants.CLIENT)
-            .regexMatchers("/api/messages/tickets/\\d+/agents").hasAuthority(AuthoritiesConstants.AGENT)
-            .regexMatchers("/api/messages/tickets/\\d+/admin").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/api/messages/tickets/*/clients").hasAuthority(AuthoritiesConstants.CLIENT)
+            .antMatchers("/api/messages/tickets/*/agents").hasAuthority(AuthoritiesConstants.AGENT)
+            .antMatchers("/api/messages/tickets/*/admin").hasAuthority(AuthoritiesConstants.ADMIN)
 
             .antMatchers("/api/clients/register").permitAll()
 
@@ -126,6 +136,6 @@ public class SecurityConfiguration {
     }
 
     private JWTConfigurer securityConfigurerAdapter() {
-        return new JWTConfigurer(tokenProvider);
+        return new JWTConfigurer(tokenProvider, streamTicketProvider);
     }
 }
@@ -0,0 +1,66 @@
+package sn.trivial.ticket.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of Java 21+, while the application is still built for Java 11: the thread builders are looked up
+ * by reflection, once.
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = lookup("java.lang.Thread", "ofVirtual");
+
+    private static final Method NAME = lookup("java.lang.Thread$Builder", "name", String.class, long.class);
+
+    private static final Method FACTORY = lookup("java.lang.Thread$Builder", "factory");
+
+    private VirtualThreads() {}
+
+    /**
+     * @return true if the running JVM supports virtual threads.
+     */
+    public static boolean isAvailable() {
+        return OF_VIRTUAL != null && NAME != null && FACTORY != null;
+    }
+
+    /**
+     * Create a factory of virtual threads.
+     *
+     * @param prefix the prefix of the names of the threads, followed by a counter.
+     * @return the factory.
+     * @throws IllegalStateException if the running JVM does not support virtual threads.
+     */
+    public static ThreadFactory threadFactory(String prefix) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running " + Runtime.version());
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Create an executor running every task in a new virtual thread.
+     *
+     * @param prefix the prefix of the names of the threads, followed by a counter.
+     * @return the executor.
+     * @throws IllegalStateException if the running JVM does not support virtual threads.
+     */
+    public static Executor executor(String prefix) {
+        ThreadFactory threadFactory = threadFactory(prefix);
+        return task -> threadFactory.newThread(task).start();
+    }
+
+    private static Method lookup(String className, String methodName, Class<?>... parameterTypes) {
+        try {
+            return Class.forName(className).getMethod(methodName, parameterTypes);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
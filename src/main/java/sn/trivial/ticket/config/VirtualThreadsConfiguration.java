@@ -0,0 +1,67 @@
+package sn.trivial.ticket.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+
+/**
+ * Run the requests and the scheduled tasks on virtual threads, when the {@value Constants#SPRING_PROFILE_VIRTUAL_THREADS}
+ * profile is active; {@link AsyncConfiguration} does the same for the async tasks.
+ * <p>
+ * The database concurrency is still bounded by the connection pool: the requests beyond its size wait for a connection
+ * instead of a request thread. Blocking inside a {@code synchronized} block pins the carrier thread of a virtual thread;
+ * run with {@code -Djdk.tracePinnedThreads=short} to log the pinned stacks.
+ */
+@Configuration
+@Profile(Constants.SPRING_PROFILE_VIRTUAL_THREADS)
+public class VirtualThreadsConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    public VirtualThreadsConfiguration() {
+        if (!VirtualThreads.isAvailable()) {
+            throw new IllegalStateException(
+                "The " + Constants.SPRING_PROFILE_VIRTUAL_THREADS + " profile needs Java 21 or later, running " + Runtime.version()
+            );
+        }
+        if (System.getProperty("jdk.tracePinnedThreads") == null) {
+            log.info("Running on virtual threads, start with -Djdk.tracePinnedThreads=short to trace the pinned threads");
+        }
+    }
+
+    /**
+     * Dispatch the servlet requests, and their async continuations, to virtual threads instead of the Undertow worker pool.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> virtualThreadsUndertowCustomizer() {
+        Executor executor = VirtualThreads.executor("request-");
+        return factory ->
+            factory.addDeploymentInfoCustomizers(deploymentInfo -> {
+                deploymentInfo.setExecutor(executor);
+                deploymentInfo.setAsyncExecutor(executor);
+            });
+    }
+
+    /**
+     * Run the scheduled tasks on virtual threads; replaces the scheduler of Spring Boot.
+     */
+    @Bean
+    public TaskScheduler taskScheduler(TaskSchedulingProperties taskSchedulingProperties) {
+        log.debug("Creating virtual threads Task Scheduler");
+        return new ConcurrentTaskScheduler(
+            Executors.newScheduledThreadPool(
+                taskSchedulingProperties.getPool().getSize(),
+                VirtualThreads.threadFactory(taskSchedulingProperties.getThreadNamePrefix())
+            )
+        );
+    }
+}
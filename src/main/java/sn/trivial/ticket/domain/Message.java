@@ -32,11 +32,11 @@ public class Message implements Serializable {
     @Column(name = "sent_at", nullable = false)
     private Instant sentAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "issuedBy", "assignedTo" }, allowSetters = true)
     private Ticket ticket;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User sentBy;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
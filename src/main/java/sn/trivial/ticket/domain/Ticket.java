@@ -5,13 +5,29 @@ import java.io.Serializable;
 import java.time.Instant;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLockType;
+import org.hibernate.annotations.OptimisticLocking;
 import sn.trivial.ticket.domain.enumeration.TicketStatus;
 
 /**
  * A Ticket.
+ * <p>
+ * Updates are checked against the previous values of the changed columns, so that two concurrent status changes or
+ * assignments of the same ticket cannot both succeed.
+ * <p>
+ * The client and the agent are loaded lazily: most uses of a ticket only need their ids, which the proxies hold.
+ * <p>
+ * Cached for a short time, so that the workflow steps on a ticket do not reload it: a copy left stale by a change on another
+ * node fails its own update on the check of the changed columns. The archive evicts the tickets it moves.
  */
 @Entity
 @Table(name = "ticket")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
+@OptimisticLocking(type = OptimisticLockType.DIRTY)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Ticket implements Serializable {
 
@@ -40,11 +56,11 @@ public class Ticket implements Serializable {
     @Column(name = "issued_at", nullable = false)
     private Instant issuedAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "user" }, allowSetters = true)
     private Client issuedBy;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "user" }, allowSetters = true)
     private Agent assignedTo;
 
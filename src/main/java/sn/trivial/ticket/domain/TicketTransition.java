@@ -0,0 +1,278 @@
+package sn.trivial.ticket.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+
+/**
+ * A status transition of a ticket, appended to the transition log by every change of status.
+ * <p>
+ * The log keeps plain ids rather than associations: it is never read through the tickets, and outlives them.
+ */
+@Entity
+@Table(name = "ticket_transition")
+public class TicketTransition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", nullable = false)
+    private TicketStatus fromStatus;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false)
+    private TicketStatus toStatus;
+
+    @NotNull
+    @Size(max = 20)
+    @Column(name = "actor_role", length = 20, nullable = false)
+    private String actorRole;
+
+    @Size(max = 50)
+    @Column(name = "actor_login", length = 50)
+    private String actorLogin;
+
+    /**
+     * The agent the ticket was assigned to after the transition.
+     */
+    @Column(name = "agent_id")
+    private Long agentId;
+
+    @NotNull
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    /**
+     * Time spent by the ticket in its previous status, since its previous transition or since it was issued.
+     */
+    @NotNull
+    @Column(name = "duration_ms", nullable = false)
+    private Long durationMs;
+
+    /**
+     * Time elapsed since the ticket was issued.
+     */
+    @NotNull
+    @Column(name = "since_issued_ms", nullable = false)
+    private Long sinceIssuedMs;
+
+    /**
+     * Whether an agent has acted on the ticket, by this transition or an earlier one.
+     */
+    @NotNull
+    @Column(name = "responded", nullable = false)
+    private Boolean responded;
+
+    /**
+     * Whether this transition is the first one triggered by an agent.
+     */
+    @NotNull
+    @Column(name = "first_response", nullable = false)
+    private Boolean firstResponse;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public TicketTransition id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTicketId() {
+        return this.ticketId;
+    }
+
+    public TicketTransition ticketId(Long ticketId) {
+        this.setTicketId(ticketId);
+        return this;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public TicketStatus getFromStatus() {
+        return this.fromStatus;
+    }
+
+    public TicketTransition fromStatus(TicketStatus fromStatus) {
+        this.setFromStatus(fromStatus);
+        return this;
+    }
+
+    public void setFromStatus(TicketStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public TicketStatus getToStatus() {
+        return this.toStatus;
+    }
+
+    public TicketTransition toStatus(TicketStatus toStatus) {
+        this.setToStatus(toStatus);
+        return this;
+    }
+
+    public void setToStatus(TicketStatus toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public String getActorRole() {
+        return this.actorRole;
+    }
+
+    public TicketTransition actorRole(String actorRole) {
+        this.setActorRole(actorRole);
+        return this;
+    }
+
+    public void setActorRole(String actorRole) {
+        this.actorRole = actorRole;
+    }
+
+    public String getActorLogin() {
+        return this.actorLogin;
+    }
+
+    public TicketTransition actorLogin(String actorLogin) {
+        this.setActorLogin(actorLogin);
+        return this;
+    }
+
+    public void setActorLogin(String actorLogin) {
+        this.actorLogin = actorLogin;
+    }
+
+    public Long getAgentId() {
+        return this.agentId;
+    }
+
+    public TicketTransition agentId(Long agentId) {
+        this.setAgentId(agentId);
+        return this;
+    }
+
+    public void setAgentId(Long agentId) {
+        this.agentId = agentId;
+    }
+
+    public Instant getOccurredAt() {
+        return this.occurredAt;
+    }
+
+    public TicketTransition occurredAt(Instant occurredAt) {
+        this.setOccurredAt(occurredAt);
+        return this;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getDurationMs() {
+        return this.durationMs;
+    }
+
+    public TicketTransition durationMs(Long durationMs) {
+        this.setDurationMs(durationMs);
+        return this;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public Long getSinceIssuedMs() {
+        return this.sinceIssuedMs;
+    }
+
+    public TicketTransition sinceIssuedMs(Long sinceIssuedMs) {
+        this.setSinceIssuedMs(sinceIssuedMs);
+        return this;
+    }
+
+    public void setSinceIssuedMs(Long sinceIssuedMs) {
+        this.sinceIssuedMs = sinceIssuedMs;
+    }
+
+    public Boolean getResponded() {
+        return this.responded;
+    }
+
+    public TicketTransition responded(Boolean responded) {
+        this.setResponded(responded);
+        return this;
+    }
+
+    public void setResponded(Boolean responded) {
+        this.responded = responded;
+    }
+
+    public Boolean getFirstResponse() {
+        return this.firstResponse;
+    }
+
+    public TicketTransition firstResponse(Boolean firstResponse) {
+        this.setFirstResponse(firstResponse);
+        return this;
+    }
+
+    public void setFirstResponse(Boolean firstResponse) {
+        this.firstResponse = firstResponse;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TicketTransition)) {
+            return false;
+        }
+        return id != null && id.equals(((TicketTransition) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TicketTransition{" +
+            "id=" + getId() +
+            ", ticketId=" + getTicketId() +
+            ", fromStatus='" + getFromStatus() + "'" +
+            ", toStatus='" + getToStatus() + "'" +
+            ", actorRole='" + getActorRole() + "'" +
+            ", actorLogin='" + getActorLogin() + "'" +
+            ", agentId=" + getAgentId() +
+            ", occurredAt='" + getOccurredAt() + "'" +
+            ", durationMs=" + getDurationMs() +
+            ", sinceIssuedMs=" + getSinceIssuedMs() +
+            ", responded='" + getResponded() + "'" +
+            ", firstResponse='" + getFirstResponse() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,10 @@
+package sn.trivial.ticket.domain.enumeration;
+
+/**
+ * The scopes of the ticket counters: all the tickets, the tickets assigned to an agent, or the tickets issued by a client.
+ */
+public enum TicketCountScope {
+    ALL,
+    AGENT,
+    CLIENT,
+}
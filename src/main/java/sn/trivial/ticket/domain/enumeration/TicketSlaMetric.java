@@ -0,0 +1,15 @@
+package sn.trivial.ticket.domain.enumeration;
+
+/**
+ * The durations measured by the SLA of the tickets: the time to the first response of an agent, the time to close, and the
+ * time spent in each status a ticket leaves.
+ */
+public enum TicketSlaMetric {
+    FIRST_RESPONSE,
+    TIME_TO_CLOSE,
+    TIME_IN_RECEIVED,
+    TIME_IN_BEING_TREATED,
+    TIME_IN_PENDING,
+    TIME_IN_DO_NOT_TREAT,
+    TIME_IN_TREATED,
+}
@@ -0,0 +1,89 @@
+package sn.trivial.ticket.management;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the SQL statements executed while handling each request, tagged like the {@code http.server.requests} timers, so
+ * that the endpoints issuing the most statements, or spending the most time in the database, stand out.
+ * <p>
+ * The statements of the security filters, run before the handler, are not counted.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    public static final String SQL_STATEMENTS_METER_NAME = "http.server.requests.sql.statements";
+    public static final String SQL_STATEMENTS_METER_DESCRIPTION = "SQL statements executed per request, by endpoint.";
+
+    public static final String SQL_TIME_METER_NAME = "http.server.requests.sql.time";
+    public static final String SQL_TIME_METER_DESCRIPTION = "Time spent executing the SQL statements of a request, by endpoint.";
+
+    private static final String START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".start";
+
+    private static final String SQL_START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".sqlStart";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        request.setAttribute(SQL_START_ATTRIBUTE, SqlStatementStats.current());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementStats sql = sqlSinceStart(request);
+        if (sql == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of(
+            "method",
+            request.getMethod(),
+            "uri",
+            pattern == null ? "UNKNOWN" : pattern.toString(),
+            "status",
+            String.valueOf(response.getStatus())
+        );
+        DistributionSummary
+            .builder(SQL_STATEMENTS_METER_NAME)
+            .description(SQL_STATEMENTS_METER_DESCRIPTION)
+            .baseUnit("statements")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(sql.getStatements());
+        Timer
+            .builder(SQL_TIME_METER_NAME)
+            .description(SQL_TIME_METER_DESCRIPTION)
+            .tags(tags)
+            .register(meterRegistry)
+            .record(sql.getDuration());
+    }
+
+    /**
+     * @return the statements executed since the handling of the request started, {@code null} if it was not intercepted.
+     */
+    static SqlStatementStats sqlSinceStart(HttpServletRequest request) {
+        Object start = request.getAttribute(SQL_START_ATTRIBUTE);
+        return start instanceof SqlStatementStats ? SqlStatementStats.current().since((SqlStatementStats) start) : null;
+    }
+
+    /**
+     * @return the time elapsed since the handling of the request started, {@code null} if it was not intercepted.
+     */
+    static Duration timeSinceStart(HttpServletRequest request) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        return start instanceof Long ? Duration.ofNanos(System.nanoTime() - (Long) start) : null;
+    }
+}
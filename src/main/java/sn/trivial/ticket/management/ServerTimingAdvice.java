@@ -0,0 +1,63 @@
+package sn.trivial.ticket.management;
+
+import java.time.Duration;
+import java.util.Locale;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds a {@code Server-Timing} header to the responses of the REST endpoints, with the SQL statements executed and the time
+ * spent handling the request so far, shown by the network panel of the browsers.
+ * <p>
+ * The header is written with the body, and is missing from the responses without body and from the streamed exports.
+ * It is enabled by {@code application.metrics.server-timing}, as it discloses the database load of each endpoint.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "application.metrics", name = "server-timing", havingValue = "true")
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+        Object body,
+        MethodParameter returnType,
+        MediaType selectedContentType,
+        Class<? extends HttpMessageConverter<?>> selectedConverterType,
+        ServerHttpRequest request,
+        ServerHttpResponse response
+    ) {
+        if (request instanceof ServletServerHttpRequest) {
+            HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+            SqlStatementStats sql = RequestMetricsInterceptor.sqlSinceStart(servletRequest);
+            Duration time = RequestMetricsInterceptor.timeSinceStart(servletRequest);
+            if (sql != null && time != null) {
+                response.getHeaders().add(SERVER_TIMING_HEADER, serverTiming(sql, time));
+            }
+        }
+        return body;
+    }
+
+    static String serverTiming(SqlStatementStats sql, Duration time) {
+        return String.format(
+            Locale.ROOT,
+            "db;dur=%.3f;desc=\"SQL statements: %d\", app;dur=%.3f",
+            sql.getDuration().toNanos() / 1e6,
+            sql.getStatements(),
+            time.toNanos() / 1e6
+        );
+    }
+}
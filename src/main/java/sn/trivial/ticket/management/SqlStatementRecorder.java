@@ -0,0 +1,124 @@
+package sn.trivial.ticket.management;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps the data sources of the application, so that every SQL statement executed through them, by Hibernate as well as by
+ * the JDBC repositories, is counted and timed in the {@link SqlStatementStats} of the executing thread.
+ * <p>
+ * Only the {@code execute} calls are timed: the time spent fetching the rows of a result set is the caller's.
+ */
+public class SqlStatementRecorder implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return wrap((DataSource) bean);
+        }
+        return bean;
+    }
+
+    /**
+     * @param dataSource the data source to record the statements of.
+     * @return a data source recording the statements of the connections it hands out.
+     */
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, new DataSourceHandler(dataSource));
+    }
+
+    private static <T> T proxy(Class<T> type, RecordingHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlStatementRecorder.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private abstract static class RecordingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        RecordingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // the proxies are used as keys by the transaction synchronization, their identity is theirs
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return invoke(method, args);
+            }
+        }
+
+        abstract Object invoke(Method method, Object[] args) throws Throwable;
+
+        Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class DataSourceHandler extends RecordingHandler {
+
+        DataSourceHandler(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(method, args);
+            if ("getConnection".equals(method.getName())) {
+                return proxy(Connection.class, new ConnectionHandler(result));
+            }
+            return result;
+        }
+    }
+
+    private static class ConnectionHandler extends RecordingHandler {
+
+        ConnectionHandler(Object connection) {
+            super(connection);
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // Statement, PreparedStatement or CallableStatement, as created
+                return proxy(method.getReturnType(), new StatementHandler(result));
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler extends RecordingHandler {
+
+        StatementHandler(Object statement) {
+            super(statement);
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(method, args);
+            } finally {
+                SqlStatementStats.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
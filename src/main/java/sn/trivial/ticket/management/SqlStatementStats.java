@@ -0,0 +1,59 @@
+package sn.trivial.ticket.management;
+
+import java.time.Duration;
+
+/**
+ * The number of SQL statements executed by a thread, and the time spent in the JDBC driver executing them, as recorded by
+ * {@link SqlStatementRecorder}.
+ * <p>
+ * The counters of a thread only grow: a unit of work, a service method or a request, takes a snapshot when it starts and
+ * measures its own statements with {@link #since(SqlStatementStats)} when it ends, nested units included.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final long statements;
+
+    private final long nanos;
+
+    private SqlStatementStats(long statements, long nanos) {
+        this.statements = statements;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return a snapshot of the counters of the current thread.
+     */
+    public static SqlStatementStats current() {
+        long[] counters = COUNTERS.get();
+        return new SqlStatementStats(counters[0], counters[1]);
+    }
+
+    static void record(long nanos) {
+        long[] counters = COUNTERS.get();
+        counters[0]++;
+        counters[1] += nanos;
+    }
+
+    /**
+     * @param start a previous snapshot of the same thread.
+     * @return the statements executed since that snapshot.
+     */
+    public SqlStatementStats since(SqlStatementStats start) {
+        return new SqlStatementStats(statements - start.statements, nanos - start.nanos);
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public Duration getDuration() {
+        return Duration.ofNanos(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "SqlStatementStats{statements=" + statements + ", nanos=" + nanos + "}";
+    }
+}
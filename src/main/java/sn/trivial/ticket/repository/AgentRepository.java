@@ -1,14 +1,18 @@
 package sn.trivial.ticket.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
 import sn.trivial.ticket.service.dto.AgentDTO;
+import sn.trivial.ticket.service.dto.AgentLoadDTO;
 
 /**
  * Spring Data JPA repository for the Agent entity.
@@ -39,5 +43,31 @@ public interface AgentRepository extends JpaRepository<Agent, Long>, JpaSpecific
     @Query("select agent from Agent agent left join fetch agent.user where agent.id =:id")
     Optional<Agent> findOneWithToOneRelationships(@Param("id") Long id);
 
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<Agent> findByUser_Login(String login);
+
+    @Query("select agent.id from Agent agent where agent.user.login = :login")
+    Optional<Long> findIdByUser_Login(@Param("login") String login);
+
+    @Query("select agent.user.login from Agent agent where agent.id = :id")
+    Optional<String> findUserLoginById(@Param("id") Long id);
+
+    /**
+     * Count the tickets with the given statuses of each activated agent.
+     *
+     * @param ticketStatuses the statuses of the counted tickets.
+     * @param excludedLogin the login of an agent to leave out.
+     * @return the loads of the agents, by agent id.
+     */
+    @Query(
+        "select new sn.trivial.ticket.service.dto.AgentLoadDTO(agent.id, agentUser.login, count(ticket.id)) " +
+        "from Agent agent join agent.user agentUser " +
+        "left join Ticket ticket on ticket.assignedTo = agent and ticket.status in :statuses " +
+        "where agentUser.activated = true and agentUser.login <> :excludedLogin " +
+        "group by agent.id, agentUser.login order by agent.id"
+    )
+    List<AgentLoadDTO> findAgentLoads(
+        @Param("statuses") Collection<TicketStatus> ticketStatuses,
+        @Param("excludedLogin") String excludedLogin
+    );
 }
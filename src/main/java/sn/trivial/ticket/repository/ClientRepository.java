@@ -2,6 +2,7 @@ package sn.trivial.ticket.repository;
 
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -38,5 +39,12 @@ public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecif
     @Query("select client from Client client left join fetch client.user where client.id =:id")
     Optional<Client> findOneWithToOneRelationships(@Param("id") Long id);
 
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
     Optional<Client> findByUser_Login(String login);
+
+    @Query("select client.id from Client client where client.user.login = :login")
+    Optional<Long> findIdByUser_Login(@Param("login") String login);
+
+    @Query("select client.user.login from Client client where client.id = :id")
+    Optional<String> findUserLoginById(@Param("id") Long id);
 }
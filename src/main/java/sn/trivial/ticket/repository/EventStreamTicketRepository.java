@@ -0,0 +1,118 @@
+package sn.trivial.ticket.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC repository of the {@code event_stream_ticket} table, holding the tickets opening the event streams until they are used
+ * or expire.
+ * <p>
+ * Only the digests of the tickets are stored: the table is no use to whoever reads it.
+ */
+@Repository
+public class EventStreamTicketRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public EventStreamTicketRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Save a ticket.
+     *
+     * @param digest the digest of the ticket.
+     * @param login the login of the user the ticket was issued to.
+     * @param authorities the authorities of the user, comma-separated.
+     * @param expiresAt the date the ticket expires.
+     */
+    public void save(String digest, String login, String authorities, Instant expiresAt) {
+        jdbcTemplate.update(
+            "insert into event_stream_ticket (digest, login, authorities, expires_at) values (:digest, :login, :authorities, :expiresAt)",
+            new MapSqlParameterSource()
+                .addValue("digest", digest)
+                .addValue("login", login)
+                .addValue("authorities", authorities)
+                .addValue("expiresAt", toTimestamp(expiresAt))
+        );
+    }
+
+    /**
+     * Delete a ticket, so that it is used once, whatever the node and however many requests present it concurrently.
+     *
+     * @param digest the digest of the ticket.
+     * @param now the current date.
+     * @return the user the ticket was issued to, empty if the ticket is unknown, already used or expired.
+     */
+    public Optional<Holder> consume(String digest, Instant now) {
+        return jdbcTemplate
+            .query(
+                "delete from event_stream_ticket where digest = :digest returning login, authorities, expires_at",
+                new MapSqlParameterSource("digest", digest),
+                (rs, rowNum) ->
+                    new Holder(
+                        rs.getString("login"),
+                        rs.getString("authorities"),
+                        rs.getObject("expires_at", LocalDateTime.class).toInstant(ZoneOffset.UTC)
+                    )
+            )
+            .stream()
+            .filter(holder -> holder.getExpiresAt().isAfter(now))
+            .findFirst();
+    }
+
+    /**
+     * Delete the expired tickets, never used.
+     *
+     * @param now the current date.
+     * @return the number of deleted tickets.
+     */
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update(
+            "delete from event_stream_ticket where expires_at <= :now",
+            new MapSqlParameterSource("now", toTimestamp(now))
+        );
+    }
+
+    private static LocalDateTime toTimestamp(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    /**
+     * The user a ticket was issued to.
+     */
+    public static final class Holder {
+
+        private final String login;
+
+        private final String authorities;
+
+        private final Instant expiresAt;
+
+        public Holder(String login, String authorities, Instant expiresAt) {
+            this.login = login;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        /**
+         * @return the authorities of the user, comma-separated.
+         */
+        public String getAuthorities() {
+            return authorities;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
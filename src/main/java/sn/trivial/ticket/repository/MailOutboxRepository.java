@@ -0,0 +1,27 @@
+package sn.trivial.ticket.repository;
+
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import sn.trivial.ticket.domain.MailOutbox;
+
+/**
+ * Spring Data JPA repository for the MailOutbox entity.
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+    /**
+     * Lock the emails due for delivery, oldest attempt first, skipping the emails already locked by another transaction
+     * ({@code FOR UPDATE SKIP LOCKED}), so that concurrent senders never get the same emails.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query("select mail from MailOutbox mail where mail.nextAttemptAt <= :now order by mail.nextAttemptAt, mail.id")
+    List<MailOutbox> findDueForUpdateSkipLocked(@Param("now") Instant now, Pageable pageable);
+}
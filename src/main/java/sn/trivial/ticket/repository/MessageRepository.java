@@ -1,7 +1,11 @@
 package sn.trivial.ticket.repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sn.trivial.ticket.domain.Message;
 
@@ -13,4 +17,31 @@ import sn.trivial.ticket.domain.Message;
 public interface MessageRepository extends JpaRepository<Message, Long>, JpaSpecificationExecutor<Message> {
     @Query("select message from Message message where message.sentBy.login = ?#{principal.username}")
     List<Message> findBySentByIsCurrentUser();
+
+    @Query("select message.sentAt from Message message where message.id = :id and message.ticket.id = :ticketId")
+    Optional<Instant> findSentAtByIdAndTicketId(@Param("id") Long id, @Param("ticketId") Long ticketId);
+
+    List<Message> findByTicket_IdOrderBySentAtDescIdDesc(Long ticketId, Pageable pageable);
+
+    @Query(
+        "select message from Message message where message.ticket.id = :ticketId and message.sentAt >= :sentAt" +
+        " and (message.sentAt > :sentAt or message.id > :id) order by message.sentAt asc, message.id asc"
+    )
+    List<Message> findDiscussionAfter(
+        @Param("ticketId") Long ticketId,
+        @Param("sentAt") Instant sentAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @Query(
+        "select message from Message message where message.ticket.id = :ticketId and message.sentAt <= :sentAt" +
+        " and (message.sentAt < :sentAt or message.id < :id) order by message.sentAt desc, message.id desc"
+    )
+    List<Message> findDiscussionBefore(
+        @Param("ticketId") Long ticketId,
+        @Param("sentAt") Instant sentAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
 }
@@ -0,0 +1,120 @@
+package sn.trivial.ticket.repository;
+
+import java.util.List;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import sn.trivial.ticket.service.dto.SearchHitDTO;
+
+/**
+ * JDBC repository of the full-text search over the descriptions of the tickets and the contents of the messages, backed by
+ * their {@code search_vector} columns and GIN indexes.
+ * <p>
+ * The hits are ranked by {@code ts_rank_cd}, and only the hits of the requested page get their highlighted fragments, which
+ * is the costly part of the search.
+ */
+@Repository
+public class SearchRepository {
+
+    /**
+     * The tickets and messages a user may find, as conditions on the ticket {@code t} of a hit.
+     */
+    public enum Visibility {
+        ALL("true", "true"),
+        CLIENT("t.issued_by_id = :ownerId", "t.issued_by_id = :ownerId"),
+        // the agents also see the descriptions of the unassigned tickets, which they can claim
+        AGENT("(t.assigned_to_id = :ownerId or t.status = 'RECEIVED')", "t.assigned_to_id = :ownerId");
+
+        private final String ticketCondition;
+
+        private final String messageCondition;
+
+        Visibility(String ticketCondition, String messageCondition) {
+            this.ticketCondition = ticketCondition;
+            this.messageCondition = messageCondition;
+        }
+    }
+
+    private static final String SEARCH_CTE = "with search as (select websearch_to_tsquery('simple', :text) as query) ";
+
+    private static final String TICKET_HITS_SQL =
+        "select 'TICKET' as type, t.id as ticket_id, null::bigint as message_id, ts_rank_cd(t.search_vector, search.query) as rank " +
+        "from ticket t, search where t.search_vector @@ search.query and %s";
+
+    private static final String MESSAGE_HITS_SQL =
+        "select 'MESSAGE', t.id, m.id, ts_rank_cd(m.search_vector, search.query) " +
+        "from message m join ticket t on t.id = m.ticket_id, search where m.search_vector @@ search.query and %s";
+
+    // the text is escaped before being highlighted, so that the fragments can be rendered as HTML
+    private static final String HIGHLIGHT_SQL =
+        "ts_headline('simple', replace(replace(replace(case when hit.message_id is null then t.issue_description else m.content end, " +
+        "'&', '&amp;'), '<', '&lt;'), '>', '&gt;'), search.query, " +
+        "'StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=15, MaxFragments=3, FragmentDelimiter=\" ... \"')";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SearchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Find a page of the tickets and messages matching a text, best ranked first.
+     *
+     * @param text the searched text, in the web search syntax: words, {@code "quoted phrases"}, {@code or} and {@code -excluded}.
+     * @param visibility the tickets and messages the user may find.
+     * @param ownerId the id of the client or agent, ignored for {@link Visibility#ALL}.
+     * @param offset the number of hits to skip.
+     * @param limit the maximum number of hits to return.
+     * @return the hits, with their highlighted fragments.
+     */
+    public List<SearchHitDTO> search(String text, Visibility visibility, Long ownerId, long offset, int limit) {
+        return jdbcTemplate.query(
+            SEARCH_CTE +
+            "select hit.type, hit.ticket_id, hit.message_id, hit.rank, " +
+            HIGHLIGHT_SQL +
+            " as highlight from (" +
+            hitsSql(visibility) +
+            " order by rank desc, ticket_id desc, message_id desc nulls first limit :limit offset :offset" +
+            ") hit join ticket t on t.id = hit.ticket_id left join message m on m.id = hit.message_id cross join search " +
+            "order by hit.rank desc, hit.ticket_id desc, hit.message_id desc nulls first",
+            parameters(text, ownerId).addValue("limit", limit).addValue("offset", offset),
+            (rs, rowNum) ->
+                new SearchHitDTO(
+                    SearchHitDTO.Type.valueOf(rs.getString("type")),
+                    rs.getLong("ticket_id"),
+                    rs.getObject("message_id", Long.class),
+                    rs.getDouble("rank"),
+                    rs.getString("highlight")
+                )
+        );
+    }
+
+    /**
+     * Count the tickets and messages matching a text.
+     *
+     * @param text the searched text, in the web search syntax.
+     * @param visibility the tickets and messages the user may find.
+     * @param ownerId the id of the client or agent, ignored for {@link Visibility#ALL}.
+     * @return the number of hits.
+     */
+    public long count(String text, Visibility visibility, Long ownerId) {
+        Long count = jdbcTemplate.queryForObject(
+            SEARCH_CTE + "select count(*) from (" + hitsSql(visibility) + ") hit",
+            parameters(text, ownerId),
+            Long.class
+        );
+        return count == null ? 0 : count;
+    }
+
+    private static String hitsSql(Visibility visibility) {
+        return (
+            String.format(TICKET_HITS_SQL, visibility.ticketCondition) +
+            " union all " +
+            String.format(MESSAGE_HITS_SQL, visibility.messageCondition)
+        );
+    }
+
+    private static MapSqlParameterSource parameters(String text, Long ownerId) {
+        return new MapSqlParameterSource().addValue("text", text).addValue("ownerId", ownerId);
+    }
+}
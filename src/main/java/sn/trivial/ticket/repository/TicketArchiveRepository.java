@@ -0,0 +1,259 @@
+package sn.trivial.ticket.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.Client;
+import sn.trivial.ticket.domain.Message;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.User;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+
+/**
+ * JDBC repository of the {@code ticket_archive} and {@code message_archive} tables, holding the closed tickets and their
+ * messages moved out of the working tables.
+ * <p>
+ * Both tables are partitioned by the month the ticket was issued: the lookups of a discussion give the issue date of its
+ * ticket, so that only the partition of that month is scanned. The archived rows are read as detached entities, with id-only
+ * associations, as the mappers return them.
+ */
+@Repository
+public class TicketArchiveRepository {
+
+    private static final String ARCHIVABLE_TICKETS_SQL =
+        "select t.id from ticket t where t.status = 'CLOSED' and t.issued_at < :before " +
+        "and not exists (select 1 from ticket_transition tt where tt.ticket_id = t.id and tt.occurred_at >= :before) " +
+        "and not exists (select 1 from message m where m.ticket_id = t.id and m.sent_at >= :before) " +
+        "order by t.id limit :limit for update of t skip locked";
+
+    private static final String ARCHIVE_MESSAGES_SQL =
+        "with moved as (delete from message m using ticket t where m.ticket_id = t.id and t.id in (:ids) " +
+        "returning m.id, m.content, m.sent_at, m.ticket_id, t.issued_at, m.sent_by_id) " +
+        "insert into message_archive (id, content, sent_at, ticket_id, ticket_issued_at, sent_by_id) select * from moved";
+
+    private static final String ARCHIVE_TICKETS_SQL =
+        "with moved as (delete from ticket where id in (:ids) " +
+        "returning id, code, status, issue_description, issued_at, issued_by_id, assigned_to_id) " +
+        "insert into ticket_archive (id, code, status, issue_description, issued_at, issued_by_id, assigned_to_id, archived_at) " +
+        "select moved.*, :archivedAt from moved";
+
+    private static final String MESSAGE_COLUMNS = "select id, content, sent_at, ticket_id, sent_by_id from message_archive ";
+
+    private static final RowMapper<Ticket> TICKET_ROW_MAPPER = (rs, rowNum) -> {
+        Ticket ticket = new Ticket()
+            .id(rs.getLong("id"))
+            .code(rs.getString("code"))
+            .status(TicketStatus.valueOf(rs.getString("status")))
+            .issueDescription(rs.getString("issue_description"))
+            .issuedAt(getInstant(rs, "issued_at"));
+        Long issuedById = rs.getObject("issued_by_id", Long.class);
+        if (issuedById != null) {
+            ticket.setIssuedBy(new Client().id(issuedById));
+        }
+        Long assignedToId = rs.getObject("assigned_to_id", Long.class);
+        if (assignedToId != null) {
+            ticket.setAssignedTo(new Agent().id(assignedToId));
+        }
+        return ticket;
+    };
+
+    private static final RowMapper<Message> MESSAGE_ROW_MAPPER = (rs, rowNum) -> {
+        Message message = new Message()
+            .id(rs.getLong("id"))
+            .content(rs.getString("content"))
+            .sentAt(getInstant(rs, "sent_at"))
+            .ticket(new Ticket().id(rs.getLong("ticket_id")));
+        Long sentById = rs.getObject("sent_by_id", Long.class);
+        if (sentById != null) {
+            User sentBy = new User();
+            sentBy.setId(sentById);
+            message.setSentBy(sentBy);
+        }
+        return message;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public TicketArchiveRepository(NamedParameterJdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Find and lock the closed tickets issued before a date and left untouched since, skipping the tickets locked by others.
+     *
+     * @param before the date before which the tickets were issued, closed and last discussed.
+     * @param limit the maximum number of tickets to return.
+     * @return the ids of the tickets, in ascending order.
+     */
+    public List<Long> findArchivableTicketIds(Instant before, int limit) {
+        return jdbcTemplate.queryForList(
+            ARCHIVABLE_TICKETS_SQL,
+            new MapSqlParameterSource().addValue("before", toTimestamp(before)).addValue("limit", limit),
+            Long.class
+        );
+    }
+
+    /**
+     * Move tickets and their messages from the working tables to the archive, in the current transaction, and evict the tickets
+     * from the second-level cache once it commits.
+     *
+     * @param ticketIds the ids of the tickets, locked by {@link #findArchivableTicketIds(Instant, int)}.
+     * @param archivedAt the date of the archiving.
+     * @return the number of archived tickets.
+     */
+    public int archive(Collection<Long> ticketIds, Instant archivedAt) {
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("ids", ticketIds)
+            .addValue("archivedAt", toTimestamp(archivedAt));
+        // the messages first, as they reference their tickets
+        jdbcTemplate.update(ARCHIVE_MESSAGES_SQL, parameters);
+        int archived = jdbcTemplate.update(ARCHIVE_TICKETS_SQL, parameters);
+        evictAfterCommit(ticketIds);
+        return archived;
+    }
+
+    /**
+     * The tickets are deleted around the persistence context: their cached copies would outlive them. They are evicted after
+     * the commit, as a read of another transaction could otherwise cache them again meanwhile.
+     */
+    private void evictAfterCommit(Collection<Long> ticketIds) {
+        Cache cache = entityManagerFactory.getCache();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ticketIds.forEach(id -> cache.evict(Ticket.class, id));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ticketIds.forEach(id -> cache.evict(Ticket.class, id));
+                }
+            }
+        );
+    }
+
+    /**
+     * Find an archived ticket.
+     *
+     * @param id the id of the ticket.
+     * @return the ticket, with its id-only client and agent.
+     */
+    public Optional<Ticket> findTicketById(Long id) {
+        return jdbcTemplate
+            .query(
+                "select id, code, status, issue_description, issued_at, issued_by_id, assigned_to_id from ticket_archive where id = :id",
+                new MapSqlParameterSource("id", id),
+                TICKET_ROW_MAPPER
+            )
+            .stream()
+            .findFirst();
+    }
+
+    /**
+     * Find an archived message.
+     *
+     * @param id the id of the message.
+     * @return the message, with its id-only ticket and sender.
+     */
+    public Optional<Message> findMessageById(Long id) {
+        return jdbcTemplate
+            .query(MESSAGE_COLUMNS + "where id = :id", new MapSqlParameterSource("id", id), MESSAGE_ROW_MAPPER)
+            .stream()
+            .findFirst();
+    }
+
+    /**
+     * Find the date a message of the discussion of an archived ticket was sent.
+     *
+     * @param ticket the archived ticket.
+     * @param messageId the id of the message.
+     * @return the date, empty if the message is not part of the discussion.
+     */
+    public Optional<Instant> findMessageSentAt(Ticket ticket, Long messageId) {
+        return jdbcTemplate
+            .query(
+                "select sent_at from message_archive where ticket_issued_at = :issuedAt and ticket_id = :ticketId and id = :id",
+                discussion(ticket).addValue("id", messageId),
+                (rs, rowNum) -> getInstant(rs, "sent_at")
+            )
+            .stream()
+            .findFirst();
+    }
+
+    /**
+     * Find the latest messages of the discussion of an archived ticket, sent before a cursor if any.
+     *
+     * @param ticket the archived ticket.
+     * @param sentAt the date the cursor message was sent, {@code null} for the latest messages.
+     * @param messageId the id of the cursor message, ignored without {@code sentAt}.
+     * @param limit the maximum number of messages to return.
+     * @return the messages, the latest first.
+     */
+    public List<Message> findDiscussionBefore(Ticket ticket, Instant sentAt, Long messageId, int limit) {
+        MapSqlParameterSource parameters = discussion(ticket).addValue("limit", limit);
+        String cursor = "";
+        if (sentAt != null) {
+            parameters.addValue("sentAt", toTimestamp(sentAt)).addValue("id", messageId);
+            cursor = "and (sent_at, id) < (:sentAt, :id) ";
+        }
+        return jdbcTemplate.query(
+            MESSAGE_COLUMNS +
+            "where ticket_issued_at = :issuedAt and ticket_id = :ticketId " +
+            cursor +
+            "order by sent_at desc, id desc limit :limit",
+            parameters,
+            MESSAGE_ROW_MAPPER
+        );
+    }
+
+    /**
+     * Find the messages of the discussion of an archived ticket sent after a cursor.
+     *
+     * @param ticket the archived ticket.
+     * @param sentAt the date the cursor message was sent.
+     * @param messageId the id of the cursor message.
+     * @param limit the maximum number of messages to return.
+     * @return the messages, in chronological order.
+     */
+    public List<Message> findDiscussionAfter(Ticket ticket, Instant sentAt, Long messageId, int limit) {
+        return jdbcTemplate.query(
+            MESSAGE_COLUMNS +
+            "where ticket_issued_at = :issuedAt and ticket_id = :ticketId and (sent_at, id) > (:sentAt, :id) " +
+            "order by sent_at, id limit :limit",
+            discussion(ticket).addValue("sentAt", toTimestamp(sentAt)).addValue("id", messageId).addValue("limit", limit),
+            MESSAGE_ROW_MAPPER
+        );
+    }
+
+    private static MapSqlParameterSource discussion(Ticket ticket) {
+        return new MapSqlParameterSource().addValue("ticketId", ticket.getId()).addValue("issuedAt", toTimestamp(ticket.getIssuedAt()));
+    }
+
+    private static LocalDateTime toTimestamp(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant getInstant(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, LocalDateTime.class).toInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,266 @@
+package sn.trivial.ticket.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import sn.trivial.ticket.domain.enumeration.TicketCountScope;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+
+/**
+ * JDBC repository of the {@code ticket_count} summary table, holding the number of tickets per status for all the tickets, per
+ * agent and per client.
+ * <p>
+ * The counters are not an entity: they are only changed by increments computed from the changes of the tickets, and by the
+ * reconciliation recounting the tickets.
+ */
+@Repository
+public class TicketCountRepository {
+
+    /**
+     * The owner of the counters of the {@link TicketCountScope#ALL} scope.
+     */
+    public static final long NO_OWNER = 0L;
+
+    private static final String INCREMENT_SQL =
+        "insert into ticket_count (scope, owner_id, status, count) values (?, ?, ?, ?) " +
+        "on conflict (scope, owner_id, status) do update set count = ticket_count.count + excluded.count";
+
+    // the archived tickets are not counted, as the pages of tickets do not list them
+    private static final String COUNTS_SQL =
+        "select 'ALL' as scope, 0 as owner_id, status, count(*) as count from t group by status " +
+        "union all " +
+        "select 'AGENT', assigned_to_id, status, count(*) from t where assigned_to_id is not null group by assigned_to_id, status " +
+        "union all " +
+        "select 'CLIENT', issued_by_id, status, count(*) from t where issued_by_id is not null group by issued_by_id, status";
+
+    private static final String COUNT_TICKETS_SQL = "with t as (select status, assigned_to_id, issued_by_id from ticket) " + COUNTS_SQL;
+
+    private static final String COUNT_TICKETS_BY_ID_SQL =
+        "with t as (select status, assigned_to_id, issued_by_id from ticket where id in (:ids)) " + COUNTS_SQL;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TicketCountRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Sum the counters of an owner over some statuses.
+     *
+     * @param scope the scope of the counters.
+     * @param ownerId the id of the agent or client, {@link #NO_OWNER} for the {@link TicketCountScope#ALL} scope.
+     * @param statuses the statuses to sum, not empty.
+     * @return the sum of the counters.
+     */
+    public long sum(TicketCountScope scope, long ownerId, Collection<TicketStatus> statuses) {
+        Long sum = jdbcTemplate.queryForObject(
+            "select coalesce(sum(count), 0) from ticket_count where scope = :scope and owner_id = :ownerId and status in (:statuses)",
+            new MapSqlParameterSource()
+                .addValue("scope", scope.name())
+                .addValue("ownerId", ownerId)
+                .addValue("statuses", statuses.stream().map(TicketStatus::name).collect(Collectors.toList())),
+            Long.class
+        );
+        return sum == null ? 0 : sum;
+    }
+
+    /**
+     * Get the counters of an owner.
+     *
+     * @param scope the scope of the counters.
+     * @param ownerId the id of the agent or client, {@link #NO_OWNER} for the {@link TicketCountScope#ALL} scope.
+     * @return the counters by status, without the statuses never counted.
+     */
+    public Map<TicketStatus, Long> findByOwner(TicketCountScope scope, long ownerId) {
+        Map<TicketStatus, Long> counts = new EnumMap<>(TicketStatus.class);
+        jdbcTemplate.query(
+            "select status, count from ticket_count where scope = :scope and owner_id = :ownerId",
+            new MapSqlParameterSource().addValue("scope", scope.name()).addValue("ownerId", ownerId),
+            rs -> {
+                counts.put(TicketStatus.valueOf(rs.getString("status")), rs.getLong("count"));
+            }
+        );
+        return counts;
+    }
+
+    /**
+     * Add increments to the counters, on the connection of the transaction which changed the tickets.
+     * <p>
+     * The counters are updated in the order of their keys, so that concurrent transactions lock them in the same order.
+     *
+     * @param connection the connection of the transaction.
+     * @param increments the increments by counter.
+     * @throws SQLException if the counters cannot be updated.
+     */
+    public void increment(Connection connection, Map<Key, Long> increments) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INCREMENT_SQL)) {
+            for (Map.Entry<Key, Long> increment : new TreeMap<>(increments).entrySet()) {
+                statement.setString(1, increment.getKey().getScope().name());
+                statement.setLong(2, increment.getKey().getOwnerId());
+                statement.setString(3, increment.getKey().getStatus().name());
+                statement.setLong(4, increment.getValue());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Add increments to the counters, on the connection of the current transaction.
+     *
+     * @param increments the increments by counter.
+     */
+    public void increment(Map<Key, Long> increments) {
+        jdbcTemplate
+            .getJdbcTemplate()
+            .execute(
+                (ConnectionCallback<Void>) connection -> {
+                    increment(connection, increments);
+                    return null;
+                }
+            );
+    }
+
+    /**
+     * @return all the counters.
+     */
+    public Map<Key, Long> findAll() {
+        return query("select scope, owner_id, status, count from ticket_count", new MapSqlParameterSource());
+    }
+
+    /**
+     * Count the tickets, the way the counters count them.
+     *
+     * @return the counts by counter, without the counters which would be zero.
+     */
+    public Map<Key, Long> countTickets() {
+        return query(COUNT_TICKETS_SQL, new MapSqlParameterSource());
+    }
+
+    /**
+     * Count some tickets, the way the counters count them.
+     *
+     * @param ticketIds the ids of the tickets, not empty.
+     * @return the counts by counter, without the counters which would be zero.
+     */
+    public Map<Key, Long> countTickets(Collection<Long> ticketIds) {
+        return query(COUNT_TICKETS_BY_ID_SQL, new MapSqlParameterSource("ids", ticketIds));
+    }
+
+    /**
+     * Delete some counters, unless they were incremented since they dropped to zero.
+     *
+     * @param keys the counters to delete.
+     */
+    public void deleteZeros(Collection<Key> keys) {
+        jdbcTemplate.batchUpdate(
+            "delete from ticket_count where scope = :scope and owner_id = :ownerId and status = :status and count = 0",
+            keys
+                .stream()
+                .sorted()
+                .map(key ->
+                    new MapSqlParameterSource()
+                        .addValue("scope", key.getScope().name())
+                        .addValue("ownerId", key.getOwnerId())
+                        .addValue("status", key.getStatus().name())
+                )
+                .toArray(MapSqlParameterSource[]::new)
+        );
+    }
+
+    private Map<Key, Long> query(String sql, MapSqlParameterSource parameters) {
+        Map<Key, Long> counts = new HashMap<>();
+        jdbcTemplate.query(
+            sql,
+            parameters,
+            rs -> {
+                Key key = new Key(
+                    TicketCountScope.valueOf(rs.getString("scope")),
+                    rs.getLong("owner_id"),
+                    TicketStatus.valueOf(rs.getString("status"))
+                );
+                counts.put(key, rs.getLong("count"));
+            }
+        );
+        return counts;
+    }
+
+    /**
+     * The key of a counter: its scope, owner and status.
+     */
+    public static final class Key implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator
+            .comparing(Key::getScope)
+            .thenComparingLong(Key::getOwnerId)
+            .thenComparing(Key::getStatus);
+
+        private final TicketCountScope scope;
+
+        private final long ownerId;
+
+        private final TicketStatus status;
+
+        public Key(TicketCountScope scope, long ownerId, TicketStatus status) {
+            this.scope = scope;
+            this.ownerId = ownerId;
+            this.status = status;
+        }
+
+        public TicketCountScope getScope() {
+            return scope;
+        }
+
+        public long getOwnerId() {
+            return ownerId;
+        }
+
+        public TicketStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return ownerId == key.ownerId && scope == key.scope && status == key.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, ownerId, status);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Key{" +
+                "scope=" + scope +
+                ", ownerId=" + ownerId +
+                ", status=" + status +
+                "}";
+        }
+    }
+}
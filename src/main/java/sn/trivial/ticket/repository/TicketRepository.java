@@ -1,10 +1,19 @@
 package sn.trivial.ticket.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sn.trivial.ticket.domain.Ticket;
 import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.service.dto.TicketSummaryDTO;
 
 /**
  * Spring Data JPA repository for the Ticket entity.
@@ -12,7 +21,83 @@ import sn.trivial.ticket.domain.enumeration.TicketStatus;
 @SuppressWarnings("unused")
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket> {
+    /**
+     * The select clause of the summaries of the tickets, reading neither their clients nor their agents.
+     */
+    String SELECT_SUMMARIES =
+        "select new sn.trivial.ticket.service.dto.TicketSummaryDTO(ticket.id, ticket.code, ticket.status, ticket.issuedAt, " +
+        "substring(ticket.issueDescription, 1, " +
+        TicketSummaryDTO.DESCRIPTION_LENGTH +
+        ")) from Ticket ticket ";
+
     List<Ticket> findByIssuedBy_Id(Long clientId);
 
+    @Query(SELECT_SUMMARIES + "where ticket.issuedBy.id = :clientId")
+    List<TicketSummaryDTO> findSummariesByIssuedById(@Param("clientId") Long clientId);
+
     List<Ticket> findAllByStatus(TicketStatus ticketStatus);
+
+    Page<Ticket> findAllByStatus(TicketStatus ticketStatus, Pageable pageable);
+
+    @Query(
+        value = SELECT_SUMMARIES + "where ticket.status = :status",
+        countQuery = "select count(ticket) from Ticket ticket where ticket.status = :status"
+    )
+    Page<TicketSummaryDTO> findSummariesByStatus(@Param("status") TicketStatus ticketStatus, Pageable pageable);
+
+    @Query("select ticket.id from Ticket ticket where ticket.status = :status order by ticket.issuedAt, ticket.id")
+    List<Long> findIdsByStatusOldestFirst(@Param("status") TicketStatus ticketStatus, Pageable pageable);
+
+    /**
+     * Lock the oldest tickets with a status, skipping the tickets already locked by another transaction
+     * ({@code FOR UPDATE SKIP LOCKED}), so that concurrent claims never wait for each other nor get the same tickets.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query("select ticket from Ticket ticket where ticket.status = :status order by ticket.issuedAt, ticket.id")
+    List<Ticket> findOldestByStatusForUpdateSkipLocked(@Param("status") TicketStatus ticketStatus, Pageable pageable);
+
+    /**
+     * Lock the tickets with the given ids ({@code FOR UPDATE}), in the order of their ids so that two transactions locking
+     * overlapping tickets cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select ticket from Ticket ticket where ticket.id in :ids order by ticket.id")
+    List<Ticket> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    Page<Ticket> findAllByStatusIn(Collection<TicketStatus> ticketStatuses, Pageable pageable);
+
+    @Query(
+        value = SELECT_SUMMARIES + "where ticket.status in :statuses",
+        countQuery = "select count(ticket) from Ticket ticket where ticket.status in :statuses"
+    )
+    Page<TicketSummaryDTO> findSummariesByStatusIn(@Param("statuses") Collection<TicketStatus> ticketStatuses, Pageable pageable);
+
+    Page<Ticket> findAllByAssignedTo_IdAndStatusIn(Long agentId, Collection<TicketStatus> ticketStatuses, Pageable pageable);
+
+    @Query(
+        value = SELECT_SUMMARIES + "where ticket.assignedTo.id = :agentId and ticket.status in :statuses",
+        countQuery = "select count(ticket) from Ticket ticket where ticket.assignedTo.id = :agentId and ticket.status in :statuses"
+    )
+    Page<TicketSummaryDTO> findSummariesByAssignedToIdAndStatusIn(
+        @Param("agentId") Long agentId,
+        @Param("statuses") Collection<TicketStatus> ticketStatuses,
+        Pageable pageable
+    );
+
+    Page<Ticket> findAllByAssignedTo_User_LoginAndStatusIn(String login, Collection<TicketStatus> ticketStatuses, Pageable pageable);
+
+    Optional<Ticket> findByIdAndAssignedTo_User_Login(Long id, String login);
+
+    Optional<Ticket> findByIdAndIssuedBy_User_Login(Long id, String login);
+
+    boolean existsByIdAndIssuedBy_Id(Long id, Long clientId);
+
+    boolean existsByIdAndIssuedBy_User_Id(Long id, Long userId);
+
+    boolean existsByIdAndIssuedBy_User_Login(Long id, String login);
+
+    boolean existsByIdAndAssignedTo_User_Id(Long id, Long userId);
+
+    boolean existsByIdAndAssignedTo_User_Login(Long id, String login);
 }
@@ -0,0 +1,170 @@
+package sn.trivial.ticket.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import sn.trivial.ticket.domain.enumeration.TicketSlaMetric;
+
+/**
+ * JDBC repository of the {@code ticket_sla_rollup} table, the hourly histograms of the SLA durations rolled up from the
+ * {@link sn.trivial.ticket.domain.TicketTransition} log.
+ * <p>
+ * A duration is counted in the bucket {@code floor(log(ms) / log(1.1))}: each bucket is 10% wider than the previous one, so
+ * that a percentile read from the histogram is within 10% of the exact one, whatever the number of transitions.
+ */
+@Repository
+public class TicketSlaRollupRepository {
+
+    /**
+     * The growth of the width of the duration buckets, also written in the rollup query.
+     */
+    public static final double BUCKET_GROWTH = 1.1;
+
+    /**
+     * The agent of the durations of the tickets not assigned to any agent.
+     */
+    public static final long NO_AGENT = 0L;
+
+    private static final String ROLLUP_SQL =
+        "insert into ticket_sla_rollup (hour_start, agent_id, metric, duration_bucket, count) " +
+        "select date_trunc('hour', occurred_at), coalesce(agent_id, 0), metric, " +
+        "floor(ln(greatest(duration, 1)) / ln(1.1)), count(*) " +
+        "from (" +
+        "select occurred_at, agent_id, 'TIME_IN_' || from_status as metric, duration_ms as duration " +
+        "from ticket_transition where occurred_at >= :from " +
+        "union all " +
+        "select occurred_at, agent_id, 'FIRST_RESPONSE', since_issued_ms " +
+        "from ticket_transition where occurred_at >= :from and first_response " +
+        "union all " +
+        "select occurred_at, agent_id, 'TIME_TO_CLOSE', since_issued_ms " +
+        "from ticket_transition where occurred_at >= :from and to_status = 'CLOSED'" +
+        ") durations " +
+        "group by 1, 2, 3, 4 " +
+        "on conflict (hour_start, agent_id, metric, duration_bucket) do update set count = excluded.count";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TicketSlaRollupRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the start of the last hour rolled up, if any.
+     */
+    public Optional<Instant> findLastHourStart() {
+        return Optional
+            .ofNullable(
+                jdbcTemplate.getJdbcTemplate().queryForObject("select max(hour_start) from ticket_sla_rollup", LocalDateTime.class)
+            )
+            .map(hourStart -> hourStart.toInstant(ZoneOffset.UTC));
+    }
+
+    /**
+     * @return the time of the first transition of the log, if any.
+     */
+    public Optional<Instant> findFirstTransitionAt() {
+        return Optional
+            .ofNullable(
+                jdbcTemplate.getJdbcTemplate().queryForObject("select min(occurred_at) from ticket_transition", LocalDateTime.class)
+            )
+            .map(occurredAt -> occurredAt.toInstant(ZoneOffset.UTC));
+    }
+
+    /**
+     * Roll up the transitions of whole hours into the histograms, replacing the histograms of these hours.
+     *
+     * @param from the start of the first hour to roll up.
+     * @return the number of histogram buckets written.
+     */
+    public int rollup(Instant from) {
+        return jdbcTemplate.update(ROLLUP_SQL, new MapSqlParameterSource("from", LocalDateTime.ofInstant(from, ZoneOffset.UTC)));
+    }
+
+    /**
+     * Sum the hourly histograms by day.
+     *
+     * @param from the first day, in UTC.
+     * @param to the last day, in UTC.
+     * @param agentId the id of the agent, all the agents when {@code null}.
+     * @return the daily histograms, by day, agent and metric.
+     */
+    public List<DailyBucket> findDaily(LocalDate from, LocalDate to, Long agentId) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("from", from.atStartOfDay())
+            .addValue("to", to.plusDays(1).atStartOfDay())
+            .addValue("agentId", agentId);
+        return jdbcTemplate.query(
+            "select cast(hour_start as date) as day, agent_id, metric, duration_bucket, sum(count) as count " +
+            "from ticket_sla_rollup where hour_start >= :from and hour_start < :to " +
+            (agentId == null ? "" : "and agent_id = :agentId ") +
+            "group by 1, 2, 3, 4 order by 1, 2, 3, 4",
+            parameters,
+            (rs, rowNum) ->
+                new DailyBucket(
+                    rs.getObject("day", LocalDate.class),
+                    rs.getLong("agent_id"),
+                    TicketSlaMetric.valueOf(rs.getString("metric")),
+                    rs.getInt("duration_bucket"),
+                    rs.getLong("count")
+                )
+        );
+    }
+
+    /**
+     * @param bucket a duration bucket.
+     * @return the longest duration counted in the bucket, in milliseconds.
+     */
+    public static long upperBoundMs(int bucket) {
+        return (long) Math.ceil(Math.pow(BUCKET_GROWTH, bucket + 1));
+    }
+
+    /**
+     * The number of durations of a day, agent and metric falling in a bucket.
+     */
+    public static final class DailyBucket {
+
+        private final LocalDate day;
+
+        private final long agentId;
+
+        private final TicketSlaMetric metric;
+
+        private final int durationBucket;
+
+        private final long count;
+
+        public DailyBucket(LocalDate day, long agentId, TicketSlaMetric metric, int durationBucket, long count) {
+            this.day = day;
+            this.agentId = agentId;
+            this.metric = metric;
+            this.durationBucket = durationBucket;
+            this.count = count;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public long getAgentId() {
+            return agentId;
+        }
+
+        public TicketSlaMetric getMetric() {
+            return metric;
+        }
+
+        public int getDurationBucket() {
+            return durationBucket;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package sn.trivial.ticket.repository;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+import sn.trivial.ticket.domain.TicketTransition;
+
+/**
+ * Spring Data JPA repository for the TicketTransition entity.
+ */
+@Repository
+public interface TicketTransitionRepository extends JpaRepository<TicketTransition, Long> {
+    Optional<TicketTransition> findFirstByTicketIdOrderByOccurredAtDescIdDesc(Long ticketId);
+}
@@ -9,13 +9,16 @@ public class JWTConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilt
 
     private final TokenProvider tokenProvider;
 
-    public JWTConfigurer(TokenProvider tokenProvider) {
+    private final StreamTicketProvider streamTicketProvider;
+
+    public JWTConfigurer(TokenProvider tokenProvider, StreamTicketProvider streamTicketProvider) {
         this.tokenProvider = tokenProvider;
+        this.streamTicketProvider = streamTicketProvider;
     }
 
     @Override
     public void configure(HttpSecurity http) {
-        JWTFilter customFilter = new JWTFilter(tokenProvider);
+        JWTFilter customFilter = new JWTFilter(tokenProvider, streamTicketProvider);
         http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
     }
 }
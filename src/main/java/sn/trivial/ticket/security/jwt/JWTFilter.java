@@ -6,7 +6,7 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.GenericFilterBean;
@@ -19,10 +19,21 @@ public class JWTFilter extends GenericFilterBean {
 
     public static final String AUTHORIZATION_HEADER = "Authorization";
 
+    public static final String STREAM_TICKET_PARAMETER = "ticket";
+
+    /**
+     * The server-sent events stream, the only request authenticated by a single-use stream ticket given as a parameter, since
+     * browsers cannot set the headers of an {@code EventSource}.
+     */
+    public static final String EVENT_STREAM_URI = "/api/tickets/events";
+
     private final TokenProvider tokenProvider;
 
-    public JWTFilter(TokenProvider tokenProvider) {
+    private final StreamTicketProvider streamTicketProvider;
+
+    public JWTFilter(TokenProvider tokenProvider, StreamTicketProvider streamTicketProvider) {
         this.tokenProvider = tokenProvider;
+        this.streamTicketProvider = streamTicketProvider;
     }
 
     @Override
@@ -30,9 +41,13 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            this.tokenProvider.resolveAuthentication(jwt).ifPresent(SecurityContextHolder.getContext()::setAuthentication);
+        } else if (isEventStream(httpServletRequest)) {
+            String ticket = httpServletRequest.getParameter(STREAM_TICKET_PARAMETER);
+            if (StringUtils.hasText(ticket)) {
+                this.streamTicketProvider.resolveAuthentication(ticket).ifPresent(SecurityContextHolder.getContext()::setAuthentication);
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
@@ -44,4 +59,8 @@ public class JWTFilter extends GenericFilterBean {
         }
         return null;
     }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) && EVENT_STREAM_URI.equals(request.getRequestURI());
+    }
 }
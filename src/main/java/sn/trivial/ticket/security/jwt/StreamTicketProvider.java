@@ -0,0 +1,109 @@
+package sn.trivial.ticket.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.stereotype.Component;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.repository.EventStreamTicketRepository;
+
+/**
+ * Creates the tickets opening the event streams, and resolves the authentication of the tickets presented by the streams.
+ * <p>
+ * Browsers cannot set the headers of an {@code EventSource}, so its credentials go in the query string, where access logs,
+ * proxies and browser histories keep them. The JWT token is never put there: an authenticated user exchanges it for a random
+ * ticket, valid for {@code application.events.stream-ticket-validity-seconds} and for a single stream.
+ */
+@Component
+public class StreamTicketProvider {
+
+    private static final int TICKET_BYTES = 32;
+
+    private final Logger log = LoggerFactory.getLogger(StreamTicketProvider.class);
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final EventStreamTicketRepository eventStreamTicketRepository;
+
+    private final ApplicationProperties.Events properties;
+
+    public StreamTicketProvider(EventStreamTicketRepository eventStreamTicketRepository, ApplicationProperties applicationProperties) {
+        this.eventStreamTicketRepository = eventStreamTicketRepository;
+        this.properties = applicationProperties.getEvents();
+    }
+
+    /**
+     * Create a ticket opening a stream for an authenticated user.
+     *
+     * @param authentication the authentication of the user.
+     * @return the ticket.
+     */
+    public String createTicket(Authentication authentication) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        secureRandom.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
+        eventStreamTicketRepository.save(
+            digest(ticket),
+            authentication.getName(),
+            authorities,
+            Instant.now().plusSeconds(properties.getStreamTicketValiditySeconds())
+        );
+        return ticket;
+    }
+
+    /**
+     * Resolve the authentication of a ticket, using it up.
+     *
+     * @param ticket the ticket.
+     * @return the authentication, or empty if the ticket is unknown, already used or expired.
+     */
+    public Optional<Authentication> resolveAuthentication(String ticket) {
+        return eventStreamTicketRepository
+            .consume(digest(ticket), Instant.now())
+            .map(holder -> {
+                List<GrantedAuthority> authorities = Arrays
+                    .stream(holder.getAuthorities().split(","))
+                    .filter(authority -> !authority.trim().isEmpty())
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+                User principal = new User(holder.getLogin(), "", authorities);
+                return new UsernamePasswordAuthenticationToken(principal, "", authorities);
+            });
+    }
+
+    /**
+     * Delete the tickets which expired unused.
+     * <p>
+     * This is scheduled to get fired every 10 minutes.
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void deleteExpiredTickets() {
+        int deleted = eventStreamTicketRepository.deleteExpired(Instant.now());
+        log.debug("Deleted {} expired event stream tickets", deleted);
+    }
+
+    private static String digest(String ticket) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(ticket.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
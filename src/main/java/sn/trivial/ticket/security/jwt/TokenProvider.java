@@ -4,12 +4,20 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -20,9 +28,18 @@ import org.springframework.util.ObjectUtils;
 import sn.trivial.ticket.management.SecurityMetersService;
 import tech.jhipster.config.JHipsterProperties;
 
+/**
+ * Creates the JWT tokens of the authenticated users and resolves the authentication of the tokens they present.
+ * <p>
+ * The authentications resolved from the tokens are cached, keyed by a digest of the token, until the token expires or for at
+ * most {@code application.cache.token.time-to-live-seconds}: a token presented again only costs a hash and a lookup, instead of
+ * its parsing and the verification of its signature.
+ */
 @Component
 public class TokenProvider {
 
+    public static final String AUTHENTICATIONS_BY_TOKEN_CACHE = "authenticationsByToken";
+
     private final Logger log = LoggerFactory.getLogger(TokenProvider.class);
 
     private static final String AUTHORITIES_KEY = "auth";
@@ -39,7 +56,14 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
+    private final Cache authenticationCache;
+
     public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+        this(jHipsterProperties, securityMetersService, new NoOpCacheManager());
+    }
+
+    @Autowired
+    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService, CacheManager cacheManager) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -60,6 +84,7 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.authenticationCache = Objects.requireNonNull(cacheManager.getCache(AUTHENTICATIONS_BY_TOKEN_CACHE));
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -82,25 +107,41 @@ public class TokenProvider {
             .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
+    /**
+     * Resolve the authentication of a token, parsing and verifying the token only if its authentication is not cached yet.
+     *
+     * @param token the token.
+     * @return the authentication, or empty if the token is invalid or expired.
+     */
+    public Optional<Authentication> resolveAuthentication(String token) {
+        String digest = digest(token);
+        CachedAuthentication cached = authenticationCache.get(digest, CachedAuthentication.class);
+        if (cached != null && cached.getExpiresAt().isAfter(Instant.now())) {
+            securityMetersService.trackTokenCacheHit();
+            return Optional.of(cached.getAuthentication());
+        }
+        securityMetersService.trackTokenCacheMiss();
+        return parseClaims(token)
+            .map(claims -> {
+                Authentication authentication = toAuthentication(claims, token);
+                if (claims.getExpiration() != null) {
+                    authenticationCache.put(digest, new CachedAuthentication(authentication, claims.getExpiration().toInstant()));
+                }
+                return authentication;
+            });
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    public Authentication getAuthentication(String token) {
+        return toAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+        return parseClaims(authToken).isPresent();
+    }
 
-            return true;
+    private Optional<Claims> parseClaims(String authToken) {
+        try {
+            return Optional.of(jwtParser.parseClaimsJws(authToken).getBody());
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +162,53 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
+    }
+
+    private static Authentication toAuthentication(Claims claims, String token) {
+        Collection<? extends GrantedAuthority> authorities = Arrays
+            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
+    private static String digest(String token) {
+        try {
+            // MessageDigest instances are not thread-safe, and getting one is cheap next to parsing the token
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * An authentication resolved from a token, cached until the token expires.
+     */
+    public static final class CachedAuthentication implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Authentication authentication;
+
+        private final Instant expiresAt;
+
+        CachedAuthentication(Authentication authentication, Instant expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+
+        public Authentication getAuthentication() {
+            return authentication;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
     }
 }
@@ -0,0 +1,119 @@
+package sn.trivial.ticket.service;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.trivial.ticket.domain.Authority;
+import sn.trivial.ticket.repository.AgentRepository;
+import sn.trivial.ticket.repository.ClientRepository;
+import sn.trivial.ticket.repository.UserRepository;
+import sn.trivial.ticket.security.SecurityUtils;
+import sn.trivial.ticket.service.dto.IdentityDTO;
+
+/**
+ * Service resolving the identity of a user (user id, client id, agent id and authorities) from its login.
+ * <p>
+ * Identities are cached by login in {@link #IDENTITIES_BY_LOGIN_CACHE}. The cache is evicted by {@link UserService}
+ * whenever a user changes, and by the client and agent services whenever a client or an agent is saved or deleted.
+ */
+@Service
+@Transactional(readOnly = true)
+public class IdentityService {
+
+    public static final String IDENTITIES_BY_LOGIN_CACHE = "identitiesByLogin";
+
+    private final Logger log = LoggerFactory.getLogger(IdentityService.class);
+
+    private final UserRepository userRepository;
+
+    private final ClientRepository clientRepository;
+
+    private final AgentRepository agentRepository;
+
+    private final CacheManager cacheManager;
+
+    public IdentityService(
+        UserRepository userRepository,
+        ClientRepository clientRepository,
+        AgentRepository agentRepository,
+        CacheManager cacheManager
+    ) {
+        this.userRepository = userRepository;
+        this.clientRepository = clientRepository;
+        this.agentRepository = agentRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Get the identity of a user.
+     *
+     * @param login the login of the user.
+     * @return the identity of the user, or empty if there is no user with this login.
+     */
+    public Optional<IdentityDTO> findByLogin(String login) {
+        return Optional.ofNullable(identityCache().get(login, () -> loadIdentity(login)));
+    }
+
+    /**
+     * Get the identity of the connected user.
+     *
+     * @return the identity of the connected user, or empty if nobody is connected.
+     */
+    public Optional<IdentityDTO> getCurrentIdentity() {
+        return SecurityUtils.getCurrentUserLogin().flatMap(this::findByLogin);
+    }
+
+    /**
+     * Evict the identity of a user from the cache.
+     * <p>
+     * When called within a transaction, the identity is evicted again once the transaction is committed, so that an identity
+     * loaded concurrently from the not yet committed state does not stay in the cache.
+     *
+     * @param login the login of the user.
+     */
+    public void evict(String login) {
+        if (login == null) {
+            return;
+        }
+        log.debug("Request to evict the identity of user : {}", login);
+        identityCache().evict(login);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        identityCache().evict(login);
+                    }
+                }
+            );
+        }
+    }
+
+    private IdentityDTO loadIdentity(String login) {
+        log.debug("Request to load the identity of user : {}", login);
+        return userRepository
+            .findOneWithAuthoritiesByLogin(login)
+            .map(user ->
+                new IdentityDTO(
+                    user.getId(),
+                    user.getLogin(),
+                    clientRepository.findIdByUser_Login(login).orElse(null),
+                    agentRepository.findIdByUser_Login(login).orElse(null),
+                    user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet())
+                )
+            )
+            .orElse(null);
+    }
+
+    private Cache identityCache() {
+        return Objects.requireNonNull(cacheManager.getCache(IDENTITIES_BY_LOGIN_CACHE));
+    }
+}
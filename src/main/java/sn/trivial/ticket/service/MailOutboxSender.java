@@ -0,0 +1,177 @@
+package sn.trivial.ticket.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.domain.MailOutbox;
+import sn.trivial.ticket.repository.MailOutboxRepository;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service delivering the emails queued in the mail outbox by {@link MailService}.
+ * <p>
+ * Each run takes a batch of due emails in a short transaction, leasing them for {@code application.mail.lease-seconds} so that
+ * no other sender takes them meanwhile, then sends the whole batch over a single SMTP connection, outside of any transaction.
+ * Delivered emails are deleted; failed ones are attempted again after an exponential backoff, until
+ * {@code application.mail.max-attempts} is reached. An email is sent at least once: if the sender stops before reporting
+ * back, the email is sent again once its lease expires.
+ */
+@Service
+public class MailOutboxSender {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxSender.class);
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.Mail properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public MailOutboxSender(
+        MailOutboxRepository mailOutboxRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.properties = applicationProperties.getMail();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.fixed-delay-ms:5000}")
+    public void scheduledDeliver() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // keep going while the batches are full, a burst being drained at the pace of the SMTP server
+        while (deliver() == properties.getBatchSize()) {
+            log.debug("Mail outbox batch full, delivering the next one");
+        }
+    }
+
+    /**
+     * Deliver a batch of the due emails.
+     *
+     * @return the number of emails attempted.
+     */
+    public int deliver() {
+        Instant now = Instant.now();
+        List<MailOutbox> batch = transactionTemplate.execute(status -> lease(now));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, MailOutbox> mailsByMessage = new IdentityHashMap<>();
+        Map<Long, String> errors = new HashMap<>();
+        for (MailOutbox mail : batch) {
+            try {
+                mailsByMessage.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                errors.put(mail.getId(), e.getMessage());
+            }
+        }
+        if (!mailsByMessage.isEmpty()) {
+            try {
+                javaMailSender.send(mailsByMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    mailsByMessage.values().forEach(mail -> errors.put(mail.getId(), e.getMessage()));
+                }
+                e
+                    .getFailedMessages()
+                    .forEach((message, cause) -> {
+                        MailOutbox mail = mailsByMessage.get(message);
+                        if (mail != null) {
+                            errors.put(mail.getId(), cause.getMessage());
+                        }
+                    });
+            } catch (MailException e) {
+                mailsByMessage.values().forEach(mail -> errors.put(mail.getId(), e.getMessage()));
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        batch.stream().map(MailOutbox::getId).filter(id -> !errors.containsKey(id)).forEach(sentIds::add);
+        transactionTemplate.executeWithoutResult(status -> report(sentIds, errors));
+        log.debug("Delivered {} of {} emails of the mail outbox", sentIds.size(), batch.size());
+        return batch.size();
+    }
+
+    private List<MailOutbox> lease(Instant now) {
+        List<MailOutbox> batch = mailOutboxRepository.findDueForUpdateSkipLocked(now, PageRequest.of(0, properties.getBatchSize()));
+        Instant leaseEnd = now.plusSeconds(properties.getLeaseSeconds());
+        for (MailOutbox mail : batch) {
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setNextAttemptAt(leaseEnd);
+        }
+        return batch;
+    }
+
+    private void report(List<Long> sentIds, Map<Long, String> errors) {
+        if (!sentIds.isEmpty()) {
+            mailOutboxRepository.deleteAllByIdInBatch(sentIds);
+        }
+        if (errors.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (MailOutbox mail : mailOutboxRepository.findAllById(errors.keySet())) {
+            String error = String.valueOf(errors.get(mail.getId()));
+            mail.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (mail.getAttempts() >= properties.getMaxAttempts()) {
+                log.warn("Email to '{}' given up after {} attempts: {}", mail.getRecipient(), mail.getAttempts(), error);
+                mail.setNextAttemptAt(null);
+            } else {
+                log.debug("Email to '{}' could not be sent, attempt {}: {}", mail.getRecipient(), mail.getAttempts(), error);
+                mail.setNextAttemptAt(now.plus(backoff(mail.getAttempts())));
+            }
+        }
+    }
+
+    /**
+     * @param attempts the number of attempts made so far.
+     * @return the delay before the next attempt, doubling with every attempt.
+     */
+    Duration backoff(int attempts) {
+        long seconds = properties.getInitialBackoffSeconds() << Math.min(attempts - 1, 30);
+        return Duration.ofSeconds(Math.min(seconds, properties.getMaxBackoffSeconds()));
+    }
+
+    private MimeMessage toMimeMessage(MailOutbox mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.getMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getRecipient());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.getHtml());
+        return mimeMessage;
+    }
+}
@@ -1,16 +1,19 @@
 package sn.trivial.ticket.service;
 
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import javax.persistence.criteria.JoinType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.config.ApplicationProperties;
 import sn.trivial.ticket.domain.*; // for static metamodels
 import sn.trivial.ticket.domain.Message;
 import sn.trivial.ticket.repository.MessageRepository;
@@ -20,7 +23,6 @@ import sn.trivial.ticket.service.dto.TicketDTO;
 import sn.trivial.ticket.service.mapper.MessageMapper;
 import sn.trivial.ticket.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.service.QueryService;
-import tech.jhipster.service.filter.LongFilter;
 
 /**
  * Service for executing complex queries for {@link Message} entities in the database.
@@ -40,10 +42,22 @@ public class MessageQueryService extends QueryService<Message> {
 
     private final TicketService ticketService;
 
-    public MessageQueryService(MessageRepository messageRepository, MessageMapper messageMapper, TicketService ticketService) {
+    private final ApplicationProperties applicationProperties;
+
+    private final TicketArchiveService ticketArchiveService;
+
+    public MessageQueryService(
+        MessageRepository messageRepository,
+        MessageMapper messageMapper,
+        TicketService ticketService,
+        ApplicationProperties applicationProperties,
+        TicketArchiveService ticketArchiveService
+    ) {
         this.messageRepository = messageRepository;
         this.messageMapper = messageMapper;
         this.ticketService = ticketService;
+        this.applicationProperties = applicationProperties;
+        this.ticketArchiveService = ticketArchiveService;
     }
 
     /**
@@ -120,58 +134,51 @@ public class MessageQueryService extends QueryService<Message> {
     /* CUSTOM */
 
     /**
-     * Return a {@link Page} of {@link MessageDTO} which matches the ticket Id from the database.
+     * Return a page of the discussion of a ticket issued by the connected client, in chronological order.
      * @param ticketId the id of the ticket.
+     * @param before if set, only the messages sent before this message are returned.
+     * @param after if set, only the messages sent after this message are returned.
+     * @param size the maximum number of messages to return, defaults to {@code application.discussion.default-page-size}.
      * @return the matching entities.
      */
-    @Transactional(readOnly = true)
-    public List<MessageDTO> findByCriteriaAndTicketIdForClient(Long ticketId) {
-        log.debug("find by ticket Id: {}", ticketId);
-        MessageCriteria criteria = new MessageCriteria();
-        LongFilter ticketIdFilter = new LongFilter();
-        ticketIdFilter.setEquals(ticketId);
-        criteria.setTicketId(ticketIdFilter);
-
-        final Specification<Message> specification = createSpecification(criteria);
+    public List<MessageDTO> findByCriteriaAndTicketIdForClient(Long ticketId, Long before, Long after, Integer size) {
+        log.debug("find by ticket Id: {}, before: {}, after: {}, size: {}", ticketId, before, after, size);
 
         if (!ticketService.isIssuedByConnectedUser(ticketId)) {
             throw new BadRequestAlertException("You are not the owner of this ticket", "message", "notOwner");
         }
 
-        return messageRepository.findAll(specification).stream().map(messageMapper::toDto).collect(Collectors.toList());
+        return findDiscussion(ticketId, before, after, size);
     }
 
     /**
-     * Return a {@link Page} of {@link MessageDTO} which matches the ticket Id from the database.
+     * Return a page of the discussion of a ticket assigned to the connected agent, in chronological order.
      * @param ticketId the id of the ticket.
+     * @param before if set, only the messages sent before this message are returned.
+     * @param after if set, only the messages sent after this message are returned.
+     * @param size the maximum number of messages to return, defaults to {@code application.discussion.default-page-size}.
      * @return the matching entities.
      */
-    public List<MessageDTO> findByCriteriaAndTicketIdForAgent(Long ticketId) {
-        log.debug("find by ticket Id: {}", ticketId);
-        MessageCriteria criteria = new MessageCriteria();
-        LongFilter ticketIdFilter = new LongFilter();
-        ticketIdFilter.setEquals(ticketId);
-        criteria.setTicketId(ticketIdFilter);
-
-        final Specification<Message> specification = createSpecification(criteria);
+    public List<MessageDTO> findByCriteriaAndTicketIdForAgent(Long ticketId, Long before, Long after, Integer size) {
+        log.debug("find by ticket Id: {}, before: {}, after: {}, size: {}", ticketId, before, after, size);
 
-        Optional<TicketDTO> optionalTicketDTO = ticketService.findOne(ticketId);
-
-        if (optionalTicketDTO.isEmpty() || !ticketService.isAssignedToConnectedUser(optionalTicketDTO.get().getId())) {
+        if (!ticketService.isAssignedToConnectedUser(ticketId)) {
             throw new BadRequestAlertException("You are not allowed to access this ticket", "message", "notAllowed");
         }
 
-        return messageRepository.findAll(specification).stream().map(messageMapper::toDto).collect(Collectors.toList());
+        return findDiscussion(ticketId, before, after, size);
     }
 
-    public List<MessageDTO> findByCriteriaAndTicketId(Long ticketId) {
-        log.debug("find by ticket Id: {}", ticketId);
-        MessageCriteria criteria = new MessageCriteria();
-        LongFilter ticketIdFilter = new LongFilter();
-        ticketIdFilter.setEquals(ticketId);
-        criteria.setTicketId(ticketIdFilter);
-
-        final Specification<Message> specification = createSpecification(criteria);
+    /**
+     * Return a page of the discussion of a ticket, in chronological order.
+     * @param ticketId the id of the ticket.
+     * @param before if set, only the messages sent before this message are returned.
+     * @param after if set, only the messages sent after this message are returned.
+     * @param size the maximum number of messages to return, defaults to {@code application.discussion.default-page-size}.
+     * @return the matching entities.
+     */
+    public List<MessageDTO> findByCriteriaAndTicketId(Long ticketId, Long before, Long after, Integer size) {
+        log.debug("find by ticket Id: {}, before: {}, after: {}, size: {}", ticketId, before, after, size);
 
         Optional<TicketDTO> optionalTicketDTO = ticketService.findOne(ticketId);
 
@@ -179,6 +186,51 @@ public class MessageQueryService extends QueryService<Message> {
             throw new BadRequestAlertException("Ticket not found", "message", "notAllowed");
         }
 
-        return messageRepository.findAll(specification).stream().map(messageMapper::toDto).collect(Collectors.toList());
+        return findDiscussion(ticketId, before, after, size);
+    }
+
+    /**
+     * Keyset pagination over the discussion of a ticket, on {@code (sentAt, id)}.
+     * Without cursor, the latest messages are returned.
+     * The discussions of the archived tickets are only looked up once not found in the messages in progress.
+     */
+    private List<MessageDTO> findDiscussion(Long ticketId, Long before, Long after, Integer size) {
+        if (before != null && after != null) {
+            throw new BadRequestAlertException("Only one of before and after can be set", "message", "invalidcursor");
+        }
+
+        ApplicationProperties.Discussion discussion = applicationProperties.getDiscussion();
+        int pageSize = size == null ? discussion.getDefaultPageSize() : Math.max(1, Math.min(size, discussion.getMaxPageSize()));
+        Pageable page = PageRequest.of(0, pageSize);
+
+        Long cursor = after != null ? after : before;
+        Optional<Instant> cursorSentAt = cursor == null ? Optional.empty() : messageRepository.findSentAtByIdAndTicketId(cursor, ticketId);
+        if (cursor != null && cursorSentAt.isEmpty()) {
+            return ticketArchiveService
+                .findDiscussion(ticketId, before, after, pageSize)
+                .orElseThrow(() -> cursorNotFound(ticketId, cursor));
+        }
+
+        if (after != null) {
+            return messageMapper.toDto(messageRepository.findDiscussionAfter(ticketId, cursorSentAt.get(), after, page));
+        }
+
+        List<Message> messages = before == null
+            ? messageRepository.findByTicket_IdOrderBySentAtDescIdDesc(ticketId, page)
+            : messageRepository.findDiscussionBefore(ticketId, cursorSentAt.get(), before, page);
+        if (messages.isEmpty() && before == null) {
+            return ticketArchiveService.findDiscussion(ticketId, null, null, pageSize).orElse(Collections.emptyList());
+        }
+        List<MessageDTO> result = messageMapper.toDto(messages);
+        Collections.reverse(result);
+        return result;
+    }
+
+    private BadRequestAlertException cursorNotFound(Long ticketId, Long messageId) {
+        return new BadRequestAlertException(
+            String.format("Message %d not found in the discussion of the ticket %d", messageId, ticketId),
+            "message",
+            "cursornotfound"
+        );
     }
 }
@@ -0,0 +1,66 @@
+package sn.trivial.ticket.service;
+
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.repository.SearchRepository;
+import sn.trivial.ticket.repository.SearchRepository.Visibility;
+import sn.trivial.ticket.security.AuthoritiesConstants;
+import sn.trivial.ticket.security.SecurityUtils;
+import sn.trivial.ticket.service.dto.IdentityDTO;
+import sn.trivial.ticket.service.dto.SearchHitDTO;
+
+/**
+ * Service for the full-text search over the tickets and their messages, restricted to what the connected user may see: the
+ * admins find everything, the clients the tickets they issued, the agents the tickets assigned to them and the descriptions
+ * of the unassigned tickets.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SearchService {
+
+    private final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    private final SearchRepository searchRepository;
+
+    private final IdentityService identityService;
+
+    public SearchService(SearchRepository searchRepository, IdentityService identityService) {
+        this.searchRepository = searchRepository;
+        this.identityService = identityService;
+    }
+
+    /**
+     * Search the tickets and messages visible to the connected user.
+     *
+     * @param text the searched text, in the web search syntax: words, {@code "quoted phrases"}, {@code or} and {@code -excluded}.
+     * @param pageable the pagination information, the hits being sorted by rank.
+     * @return the page of hits.
+     */
+    public Page<SearchHitDTO> search(String text, Pageable pageable) {
+        log.debug("Request to search : {}", text);
+        if (SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN)) {
+            return search(text, Visibility.ALL, null, pageable);
+        }
+        Optional<IdentityDTO> identity = identityService.getCurrentIdentity();
+        if (identity.filter(IdentityDTO::isAgent).isPresent()) {
+            return search(text, Visibility.AGENT, identity.get().getAgentId(), pageable);
+        }
+        if (identity.filter(IdentityDTO::isClient).isPresent()) {
+            return search(text, Visibility.CLIENT, identity.get().getClientId(), pageable);
+        }
+        return Page.empty(pageable);
+    }
+
+    private Page<SearchHitDTO> search(String text, Visibility visibility, Long ownerId, Pageable pageable) {
+        List<SearchHitDTO> hits = searchRepository.search(text, visibility, ownerId, pageable.getOffset(), pageable.getPageSize());
+        // the hits are only counted when the page does not tell their total
+        return PageableExecutionUtils.getPage(hits, pageable, () -> searchRepository.count(text, visibility, ownerId));
+    }
+}
@@ -0,0 +1,187 @@
+package sn.trivial.ticket.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.repository.TicketArchiveRepository;
+import sn.trivial.ticket.repository.TicketCountRepository;
+import sn.trivial.ticket.repository.TicketCountRepository.Key;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.service.dto.MessageDTO;
+import sn.trivial.ticket.service.dto.TicketDTO;
+import sn.trivial.ticket.service.mapper.MessageMapper;
+import sn.trivial.ticket.service.mapper.TicketMapper;
+import sn.trivial.ticket.web.rest.errors.BadRequestAlertException;
+
+/**
+ * Service moving the closed tickets left untouched for {@code application.archive.closed-for-days} days, and their messages,
+ * to the archive tables, and reading them back for the read endpoints falling back to the archive.
+ * <p>
+ * The archived tickets keep their ids, statuses and owners, so that they are still found by id by their clients and agents.
+ * They leave the ticket counters, as they leave the pages of tickets whose totals are read from the counters.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TicketArchiveService {
+
+    private final Logger log = LoggerFactory.getLogger(TicketArchiveService.class);
+
+    private final TicketArchiveRepository ticketArchiveRepository;
+
+    private final TicketRepository ticketRepository;
+
+    private final TicketCountRepository ticketCountRepository;
+
+    private final TicketMapper ticketMapper;
+
+    private final MessageMapper messageMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    public TicketArchiveService(
+        TicketArchiveRepository ticketArchiveRepository,
+        TicketRepository ticketRepository,
+        TicketCountRepository ticketCountRepository,
+        TicketMapper ticketMapper,
+        MessageMapper messageMapper,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.ticketArchiveRepository = ticketArchiveRepository;
+        this.ticketRepository = ticketRepository;
+        this.ticketCountRepository = ticketCountRepository;
+        this.ticketMapper = ticketMapper;
+        this.messageMapper = messageMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Archive the closed tickets left untouched for {@code application.archive.closed-for-days} days.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:30 (am).
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void archiveClosedTickets() {
+        archive(Instant.now().minus(applicationProperties.getArchive().getClosedForDays(), ChronoUnit.DAYS));
+    }
+
+    /**
+     * Move the closed tickets issued before a date, and neither changed nor discussed since, with their messages to the archive.
+     * <p>
+     * The tickets are moved by batches of {@code application.archive.batch-size}, each in its own transaction, so that the
+     * locks on the working tables are held shortly whatever the number of tickets to archive.
+     *
+     * @param before the date since which the archived tickets are untouched.
+     * @return the number of archived tickets.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long archive(Instant before) {
+        int batchSize = applicationProperties.getArchive().getBatchSize();
+        long archived = 0;
+        List<Long> ticketIds;
+        do {
+            Instant archivedAt = Instant.now();
+            ticketIds =
+                transactionTemplate.execute(status -> {
+                    List<Long> ids = ticketArchiveRepository.findArchivableTicketIds(before, batchSize);
+                    if (ids.isEmpty()) {
+                        return ids;
+                    }
+                    // moved by JDBC, unseen by the tracker: the counters are decremented here, in the same transaction
+                    Map<Key, Long> counts = ticketCountRepository.countTickets(ids);
+                    counts.replaceAll((key, count) -> -count);
+                    ticketCountRepository.increment(counts);
+                    ticketArchiveRepository.archive(ids, archivedAt);
+                    return ids;
+                });
+            if (ticketIds == null || ticketIds.isEmpty()) {
+                break;
+            }
+            archived += ticketIds.size();
+            log.debug("Archived {} closed Tickets", ticketIds.size());
+        } while (ticketIds.size() == batchSize);
+        if (archived > 0) {
+            log.info("Archived {} closed Tickets untouched since {}", archived, before);
+        }
+        return archived;
+    }
+
+    /**
+     * Get an archived ticket.
+     *
+     * @param id the id of the ticket.
+     * @return the ticket, empty if it is not archived.
+     */
+    public Optional<TicketDTO> findOne(Long id) {
+        log.debug("Request to get archived Ticket : {}", id);
+        return ticketArchiveRepository.findTicketById(id).map(ticketMapper::toDto);
+    }
+
+    /**
+     * Get an archived message.
+     *
+     * @param id the id of the message.
+     * @return the message, empty if it is not archived.
+     */
+    public Optional<MessageDTO> findMessage(Long id) {
+        log.debug("Request to get archived Message : {}", id);
+        return ticketArchiveRepository.findMessageById(id).map(messageMapper::toDto);
+    }
+
+    /**
+     * Keyset pagination over the discussion of an archived ticket, on {@code (sentAt, id)}, as for the tickets in progress.
+     * Without cursor, the latest messages are returned.
+     *
+     * @param ticketId the id of the ticket.
+     * @param before if set, only the messages sent before this message are returned.
+     * @param after if set, only the messages sent after this message are returned.
+     * @param size the number of messages to return.
+     * @return the messages in chronological order, empty if the ticket is not archived.
+     */
+    public Optional<List<MessageDTO>> findDiscussion(Long ticketId, Long before, Long after, int size) {
+        // the tickets in progress are the common case, and are only looked up in the archive once they are gone
+        if (ticketRepository.existsById(ticketId)) {
+            return Optional.empty();
+        }
+        return ticketArchiveRepository
+            .findTicketById(ticketId)
+            .map(ticket -> {
+                if (after != null) {
+                    Instant sentAt = findCursorSentAt(ticket, after);
+                    return messageMapper.toDto(ticketArchiveRepository.findDiscussionAfter(ticket, sentAt, after, size));
+                }
+                Instant sentAt = before == null ? null : findCursorSentAt(ticket, before);
+                List<MessageDTO> result = messageMapper.toDto(ticketArchiveRepository.findDiscussionBefore(ticket, sentAt, before, size));
+                Collections.reverse(result);
+                return result;
+            });
+    }
+
+    private Instant findCursorSentAt(Ticket ticket, Long messageId) {
+        return ticketArchiveRepository
+            .findMessageSentAt(ticket, messageId)
+            .orElseThrow(() ->
+                new BadRequestAlertException(
+                    String.format("Message %d not found in the discussion of the ticket %d", messageId, ticket.getId()),
+                    "message",
+                    "cursornotfound"
+                )
+            );
+    }
+}
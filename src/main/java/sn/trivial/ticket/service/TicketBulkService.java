@@ -0,0 +1,265 @@
+package sn.trivial.ticket.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.Ticket_;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.AgentRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.service.TicketStatusMachine.Role;
+import sn.trivial.ticket.service.criteria.TicketCriteria;
+import sn.trivial.ticket.service.dto.TicketBulkResultDTO;
+import sn.trivial.ticket.service.dto.TicketBulkResultDTO.Outcome;
+import sn.trivial.ticket.service.dto.TicketEventDTO;
+import sn.trivial.ticket.web.rest.errors.BadRequestAlertException;
+import sn.trivial.ticket.web.rest.vm.TicketSelectionVM;
+
+/**
+ * Service applying the bulk operations of the admins on the tickets: assignment, change of status and close.
+ * <p>
+ * The selected tickets are processed by chunks of {@code application.bulk.chunk-size}, each in its own transaction which locks
+ * its tickets in the order of their ids, checks every change against the {@link TicketStatusMachine} rules of the admins, and
+ * flushes the changes as batched {@code UPDATE}s. A ticket whose change is not allowed is reported and left as is, without
+ * failing the others.
+ */
+@Service
+public class TicketBulkService {
+
+    private static final String ENTITY_NAME = "ticket";
+
+    private final Logger log = LoggerFactory.getLogger(TicketBulkService.class);
+
+    private final TicketRepository ticketRepository;
+
+    private final AgentRepository agentRepository;
+
+    private final TicketQueryService ticketQueryService;
+
+    private final TicketStatusMachine ticketStatusMachine;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationProperties.Bulk properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public TicketBulkService(
+        TicketRepository ticketRepository,
+        AgentRepository agentRepository,
+        TicketQueryService ticketQueryService,
+        TicketStatusMachine ticketStatusMachine,
+        EntityManager entityManager,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.agentRepository = agentRepository;
+        this.ticketQueryService = ticketQueryService;
+        this.ticketStatusMachine = ticketStatusMachine;
+        this.entityManager = entityManager;
+        this.properties = applicationProperties.getBulk();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Assign the selected tickets to an agent: the received tickets start being treated, the open ones keep their status.
+     *
+     * @param selection the ids of the tickets, or the criteria they match.
+     * @param agentId the id of the agent.
+     * @return the report of the operation.
+     */
+    public TicketBulkResultDTO assignToAgent(TicketSelectionVM selection, Long agentId) {
+        log.debug("Request to assign the Tickets of {} to Agent : {}", selection, agentId);
+        if (!agentRepository.existsById(agentId)) throw new BadRequestAlertException(
+            String.format("Cannot assign Tickets to non-existant Agent: %d", agentId),
+            "agent",
+            "agentnotfound"
+        );
+
+        return apply(
+            selection,
+            ticket -> {
+                if (ticket.getStatus() == TicketStatus.CLOSED) {
+                    return "ticketclosed";
+                }
+                TicketStatus status = ticket.getStatus() == TicketStatus.RECEIVED ? TicketStatus.BEING_TREATED : ticket.getStatus();
+                if (status != ticket.getStatus() && !ticketStatusMachine.canTransition(Role.ADMIN, ticket.getStatus(), status)) {
+                    return "transitionnotallowed";
+                }
+                if (ticket.getAssignedTo() == null || !agentId.equals(ticket.getAssignedTo().getId())) {
+                    ticket.setAssignedTo(agentRepository.getReferenceById(agentId));
+                }
+                ticket.setStatus(status);
+                return null;
+            }
+        );
+    }
+
+    /**
+     * Change the status of the selected tickets.
+     *
+     * @param selection the ids of the tickets, or the criteria they match.
+     * @param status the new status of the tickets.
+     * @return the report of the operation.
+     */
+    public TicketBulkResultDTO changeStatus(TicketSelectionVM selection, TicketStatus status) {
+        log.debug("Request to change the status of the Tickets of {} to {}", selection, status);
+        return apply(
+            selection,
+            ticket -> {
+                if (ticket.getStatus() == status) {
+                    return null;
+                }
+                if (!ticketStatusMachine.canTransition(Role.ADMIN, ticket.getStatus(), status)) {
+                    return "transitionnotallowed";
+                }
+                if (ticket.getStatus() == TicketStatus.RECEIVED && status == TicketStatus.BEING_TREATED) {
+                    // a received ticket starts being treated once assigned to an agent
+                    return "agentrequired";
+                }
+                ticket.setStatus(status);
+                return null;
+            }
+        );
+    }
+
+    /**
+     * Close the selected tickets.
+     *
+     * @param selection the ids of the tickets, or the criteria they match.
+     * @return the report of the operation.
+     */
+    public TicketBulkResultDTO close(TicketSelectionVM selection) {
+        return changeStatus(selection, TicketStatus.CLOSED);
+    }
+
+    private TicketBulkResultDTO apply(TicketSelectionVM selection, Function<Ticket, String> update) {
+        List<Long> ticketIds = select(selection);
+        TicketBulkResultDTO result = new TicketBulkResultDTO();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        for (int start = 0; start < ticketIds.size(); start += chunkSize) {
+            List<Long> chunk = ticketIds.subList(start, Math.min(start + chunkSize, ticketIds.size()));
+            transactionTemplate.executeWithoutResult(status -> applyChunk(chunk, update, result));
+        }
+        log.debug("Applied a bulk operation on {} Tickets: {}", ticketIds.size(), result);
+        return result;
+    }
+
+    /**
+     * Apply an update to a chunk of tickets, in the transaction of the chunk.
+     *
+     * @param ticketIds the ids of the tickets, in ascending order.
+     * @param update the update of a locked ticket, returning the error key when the update is not allowed, null otherwise.
+     * @param result the report, completed with the outcome of every ticket.
+     */
+    private void applyChunk(List<Long> ticketIds, Function<Ticket, String> update, TicketBulkResultDTO result) {
+        Map<Long, Ticket> tickets = ticketRepository
+            .findAllByIdInForUpdate(ticketIds)
+            .stream()
+            .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+        List<Ticket> updated = new ArrayList<>();
+        List<TicketStatus> previousStatuses = new ArrayList<>();
+        for (Long ticketId : ticketIds) {
+            Ticket ticket = tickets.get(ticketId);
+            if (ticket == null) {
+                result.add(ticketId, Outcome.NOT_FOUND, "ticketnotfound");
+                continue;
+            }
+            TicketStatus previousStatus = ticket.getStatus();
+            Agent previousAgent = ticket.getAssignedTo();
+            String rejection = update.apply(ticket);
+            if (rejection != null) {
+                result.add(ticketId, Outcome.REJECTED, rejection);
+            } else if (ticket.getStatus() == previousStatus && ticket.getAssignedTo() == previousAgent) {
+                result.add(ticketId, Outcome.UNCHANGED, null);
+            } else {
+                result.add(ticketId, Outcome.UPDATED, null);
+                updated.add(ticket);
+                previousStatuses.add(previousStatus);
+            }
+        }
+        // the updates of the chunk, sorted by id, are sent in JDBC batches of hibernate.jdbc.batch_size
+        ticketRepository.flush();
+
+        for (int i = 0; i < updated.size(); i++) {
+            Ticket ticket = updated.get(i);
+            TicketStatus previousStatus = previousStatuses.get(i);
+            if (ticket.getStatus() != previousStatus) {
+                ticketStatusMachine.onTransition(ticket.getId(), Role.ADMIN, previousStatus, ticket.getStatus());
+            }
+            applicationEventPublisher.publishEvent(
+                new TicketEventDTO(
+                    ticket.getStatus() == previousStatus || previousStatus == TicketStatus.RECEIVED
+                        ? TicketEventDTO.Type.ASSIGNED
+                        : TicketEventDTO.Type.STATUS_CHANGED,
+                    ticket.getId(),
+                    ticket.getStatus(),
+                    null,
+                    ticket.getIssuedBy() == null ? null : ticket.getIssuedBy().getId(),
+                    ticket.getAssignedTo() == null ? null : ticket.getAssignedTo().getId()
+                )
+            );
+        }
+    }
+
+    /**
+     * @return the ids of the selected tickets, in ascending order.
+     */
+    private List<Long> select(TicketSelectionVM selection) {
+        if (selection == null || (selection.getTicketIds() == null) == (selection.getCriteria() == null)) {
+            throw new BadRequestAlertException(
+                "Either the ids or the criteria of the tickets are expected",
+                ENTITY_NAME,
+                "invalidselection"
+            );
+        }
+        List<Long> ticketIds = selection.getTicketIds() != null
+            ? new ArrayList<>(new TreeSet<>(selection.getTicketIds().stream().filter(Objects::nonNull).collect(Collectors.toList())))
+            : findIdsByCriteria(selection.getCriteria(), properties.getMaxTickets() + 1);
+        if (ticketIds.size() > properties.getMaxTickets()) {
+            throw new BadRequestAlertException(
+                String.format("More than %d tickets selected", properties.getMaxTickets()),
+                ENTITY_NAME,
+                "toomanytickets"
+            );
+        }
+        return ticketIds;
+    }
+
+    private List<Long> findIdsByCriteria(TicketCriteria criteria, int maxResults) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Ticket> root = query.from(Ticket.class);
+        Predicate predicate = ticketQueryService.createSpecification(criteria).toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get(Ticket_.id)).orderBy(builder.asc(root.get(Ticket_.id)));
+        return entityManager.createQuery(query).setMaxResults(maxResults).getResultList();
+    }
+}
@@ -0,0 +1,198 @@
+package sn.trivial.ticket.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.trivial.ticket.domain.enumeration.TicketCountScope;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.TicketCountRepository;
+import sn.trivial.ticket.repository.TicketCountRepository.Key;
+
+/**
+ * Service counting the tickets from the {@code ticket_count} counters, kept up to date by {@link TicketCountTracker}: a count
+ * reads a few rows of the counters, whatever the number of tickets.
+ * <p>
+ * The counters are recounted from the tickets every {@code application.counters.reconcile-delay-ms}, correcting the drift left
+ * by the changes made around the persistence context.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TicketCountService {
+
+    public static final String CORRECTIONS_METER_NAME = "ticket.counters.corrections";
+
+    private final Logger log = LoggerFactory.getLogger(TicketCountService.class);
+
+    private final TicketCountRepository ticketCountRepository;
+
+    private final TicketCountTracker ticketCountTracker;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate snapshotTemplate;
+
+    private final Counter corrections;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TicketCountService(
+        TicketCountRepository ticketCountRepository,
+        TicketCountTracker ticketCountTracker,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.ticketCountRepository = ticketCountRepository;
+        this.ticketCountTracker = ticketCountTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+        this.corrections =
+            Counter
+                .builder(CORRECTIONS_METER_NAME)
+                .description("Indicates the count of the ticket counters corrected by the reconciliation.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count all the tickets having some statuses.
+     *
+     * @param statuses the statuses.
+     * @return the number of tickets.
+     */
+    public long count(Collection<TicketStatus> statuses) {
+        return sum(TicketCountScope.ALL, TicketCountRepository.NO_OWNER, statuses);
+    }
+
+    /**
+     * Count the tickets assigned to an agent having some statuses.
+     *
+     * @param agentId the id of the agent.
+     * @param statuses the statuses.
+     * @return the number of tickets.
+     */
+    public long countAssignedToAgent(Long agentId, Collection<TicketStatus> statuses) {
+        return sum(TicketCountScope.AGENT, agentId, statuses);
+    }
+
+    /**
+     * Count the tickets issued by a client having some statuses.
+     *
+     * @param clientId the id of the client.
+     * @param statuses the statuses.
+     * @return the number of tickets.
+     */
+    public long countIssuedByClient(Long clientId, Collection<TicketStatus> statuses) {
+        return sum(TicketCountScope.CLIENT, clientId, statuses);
+    }
+
+    /**
+     * Count all the tickets by status.
+     *
+     * @return the number of tickets of every status.
+     */
+    public Map<TicketStatus, Long> countByStatus() {
+        SessionImplementor session = flushedSession();
+        long ownerId = TicketCountRepository.NO_OWNER;
+        Map<TicketStatus, Long> counts = ticketCountRepository.findByOwner(TicketCountScope.ALL, ownerId);
+        Map<TicketStatus, Long> countByStatus = new EnumMap<>(TicketStatus.class);
+        for (TicketStatus status : TicketStatus.values()) {
+            long pending = ticketCountTracker.pendingCount(session, TicketCountScope.ALL, ownerId, EnumSet.of(status));
+            countByStatus.put(status, counts.getOrDefault(status, 0L) + pending);
+        }
+        return countByStatus;
+    }
+
+    private long sum(TicketCountScope scope, Long ownerId, Collection<TicketStatus> statuses) {
+        if (ownerId == null || statuses.isEmpty()) {
+            return 0;
+        }
+        SessionImplementor session = flushedSession();
+        return ticketCountRepository.sum(scope, ownerId, statuses) + ticketCountTracker.pendingCount(session, scope, ownerId, statuses);
+    }
+
+    /**
+     * @return the session of the current transaction, its changes flushed as a query would.
+     */
+    private SessionImplementor flushedSession() {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        if (session.getHibernateFlushMode() != FlushMode.MANUAL) {
+            session.flush();
+        }
+        return session;
+    }
+
+    @Scheduled(fixedDelayString = "${application.counters.reconcile-delay-ms:3600000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Recount the tickets and correct the counters which drifted.
+     * <p>
+     * The tickets and the counters are read from the same snapshot, without locking them: the tracked changes committed since
+     * add their increments to the counters, so the drift found in the snapshot is still the drift to correct, and is added to
+     * the counters as increments in a short transaction of its own.
+     *
+     * @return the number of counters corrected.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int reconcile() {
+        Map<Key, Long> increments = new HashMap<>();
+        Set<Key> emptied = new HashSet<>();
+        snapshotTemplate.executeWithoutResult(status -> {
+            Map<Key, Long> stored = ticketCountRepository.findAll();
+            Map<Key, Long> actual = ticketCountRepository.countTickets();
+            actual.forEach((key, count) -> {
+                long drift = count - stored.getOrDefault(key, 0L);
+                if (drift != 0) {
+                    increments.put(key, drift);
+                }
+            });
+            // the counters of the owners and statuses without tickets any more, dropped to zero then deleted
+            stored.forEach((key, count) -> {
+                if (!actual.containsKey(key)) {
+                    emptied.add(key);
+                    if (count != 0) {
+                        increments.put(key, -count);
+                    }
+                }
+            });
+        });
+        if (!increments.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> ticketCountRepository.increment(increments));
+        }
+        if (!emptied.isEmpty()) {
+            // in a transaction of its own, so that the counters are still locked in the order of their keys
+            transactionTemplate.executeWithoutResult(status -> ticketCountRepository.deleteZeros(emptied));
+        }
+        int count = increments.size();
+        if (count > 0) {
+            log.warn("Corrected {} ticket counters which drifted from the tickets", count);
+            corrections.increment(count);
+        } else {
+            log.debug("Ticket counters reconciled, none drifted");
+        }
+        return count;
+    }
+}
@@ -0,0 +1,200 @@
+package sn.trivial.ticket.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.Client;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.enumeration.TicketCountScope;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.TicketCountRepository;
+import sn.trivial.ticket.repository.TicketCountRepository.Key;
+
+/**
+ * Keeps the {@code ticket_count} counters up to date with the changes of the {@link Ticket}s.
+ * <p>
+ * The inserted, updated and deleted tickets are turned into increments of their counters as they are flushed, whatever the
+ * code changing them. The increments of a transaction are added to the counters just before it commits, in a single batch on
+ * its connection, so that the counters commit or roll back with the tickets. Until then, they are only visible to the
+ * transaction itself, through {@link #pendingCount}.
+ * <p>
+ * The bulk queries bypassing the persistence context are not seen: the counters they make drift are corrected by
+ * {@link TicketCountService#reconcile()}.
+ */
+@Component
+public class TicketCountTracker implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Logger log = LoggerFactory.getLogger(TicketCountTracker.class);
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final transient TicketCountRepository ticketCountRepository;
+
+    private final transient Map<SharedSessionContractImplementor, Map<Key, Long>> incrementsBySession = new ConcurrentHashMap<>();
+
+    private int statusIndex;
+
+    private int issuedByIndex;
+
+    private int assignedToIndex;
+
+    public TicketCountTracker(EntityManagerFactory entityManagerFactory, TicketCountRepository ticketCountRepository) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.ticketCountRepository = ticketCountRepository;
+    }
+
+    @PostConstruct
+    public void register() {
+        SessionFactoryImpl sessionFactory = entityManagerFactory.unwrap(SessionFactoryImpl.class);
+        EntityPersister persister = sessionFactory.getMetamodel().entityPersister(Ticket.class);
+        statusIndex = persister.getEntityMetamodel().getPropertyIndex("status");
+        issuedByIndex = persister.getEntityMetamodel().getPropertyIndex("issuedBy");
+        assignedToIndex = persister.getEntityMetamodel().getPropertyIndex("assignedTo");
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Ticket) {
+            track(event.getSession(), event.getState(), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Ticket)) {
+            return;
+        }
+        if (event.getOldState() == null) {
+            log.warn("Ticket {} updated without its previous state, its counters are left to the reconciliation", event.getId());
+            return;
+        }
+        track(event.getSession(), event.getOldState(), -1);
+        track(event.getSession(), event.getState(), 1);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Ticket) {
+            track(event.getSession(), event.getDeletedState(), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Still abstract in Hibernate 5.6, replaced by {@link #requiresPostCommitHandling(EntityPersister)}.
+     */
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    /**
+     * Sum the increments of some counters not yet added by the transaction of a session.
+     *
+     * @param session the session of the transaction.
+     * @param scope the scope of the counters.
+     * @param ownerId the id of the agent or client, {@link TicketCountRepository#NO_OWNER} for the ALL scope.
+     * @param statuses the statuses to sum.
+     * @return the sum of the increments.
+     */
+    public long pendingCount(
+        SharedSessionContractImplementor session,
+        TicketCountScope scope,
+        long ownerId,
+        Collection<TicketStatus> statuses
+    ) {
+        Map<Key, Long> increments = incrementsBySession.get(session);
+        if (increments == null) {
+            return 0;
+        }
+        long count = 0;
+        for (TicketStatus status : statuses) {
+            count += increments.getOrDefault(new Key(scope, ownerId, status), 0L);
+        }
+        return count;
+    }
+
+    private void track(EventSource session, Object[] state, long increment) {
+        TicketStatus status = (TicketStatus) state[statusIndex];
+        if (status == null) {
+            return;
+        }
+        Map<Key, Long> increments = incrementsBySession.get(session);
+        if (increments == null) {
+            increments = new TreeMap<>();
+            incrementsBySession.put(session, increments);
+            session.getActionQueue().registerProcess(this::flush);
+            session.getActionQueue().registerProcess((success, completed) -> incrementsBySession.remove(completed));
+        }
+        increments.merge(new Key(TicketCountScope.ALL, TicketCountRepository.NO_OWNER, status), increment, Long::sum);
+        Long issuedById = idOf(state[issuedByIndex]);
+        if (issuedById != null) {
+            increments.merge(new Key(TicketCountScope.CLIENT, issuedById, status), increment, Long::sum);
+        }
+        Long assignedToId = idOf(state[assignedToIndex]);
+        if (assignedToId != null) {
+            increments.merge(new Key(TicketCountScope.AGENT, assignedToId, status), increment, Long::sum);
+        }
+    }
+
+    /**
+     * @param reference a client or an agent, possibly an uninitialized proxy.
+     * @return its id, without initializing it.
+     */
+    private static Long idOf(Object reference) {
+        if (reference instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) reference).getHibernateLazyInitializer().getIdentifier();
+        }
+        if (reference instanceof Client) {
+            return ((Client) reference).getId();
+        }
+        if (reference instanceof Agent) {
+            return ((Agent) reference).getId();
+        }
+        return null;
+    }
+
+    private void flush(SessionImplementor session) {
+        Map<Key, Long> increments = incrementsBySession.remove(session);
+        if (increments == null) {
+            return;
+        }
+        increments.values().removeIf(increment -> increment == 0);
+        if (!increments.isEmpty()) {
+            session.doWork(connection -> ticketCountRepository.increment(connection, increments));
+        }
+    }
+}
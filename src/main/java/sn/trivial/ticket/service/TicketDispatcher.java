@@ -0,0 +1,198 @@
+package sn.trivial.ticket.service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.config.Constants;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.AgentRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.service.TicketStatusMachine.Role;
+import sn.trivial.ticket.service.dto.AgentLoadDTO;
+import sn.trivial.ticket.service.dto.TicketEventDTO;
+
+/**
+ * Service assigning the received tickets to the agents in the background, oldest tickets first.
+ * <p>
+ * Each run loads the open tickets count of every agent once, then keeps it up to date in memory while assigning a batch of
+ * tickets according to the configured {@link ApplicationProperties.Dispatcher.Policy}. A ticket is assigned as by
+ * {@link TicketService#assignTicketToAgent(Long, Long)}, in its own transaction: the update only succeeds if the ticket is
+ * still received, so a ticket taken meanwhile by an agent or by another instance is just skipped.
+ */
+@Service
+public class TicketDispatcher {
+
+    private static final Set<TicketStatus> OPEN_STATUSES = EnumSet.of(TicketStatus.BEING_TREATED, TicketStatus.PENDING);
+
+    private final Logger log = LoggerFactory.getLogger(TicketDispatcher.class);
+
+    private final TicketRepository ticketRepository;
+
+    private final AgentRepository agentRepository;
+
+    private final TicketStatusMachine ticketStatusMachine;
+
+    private final ApplicationProperties.Dispatcher properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    // a lock rather than synchronized, which would pin the carrier thread of a virtual thread during the queries
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    private int roundRobinCursor;
+
+    public TicketDispatcher(
+        TicketRepository ticketRepository,
+        AgentRepository agentRepository,
+        TicketStatusMachine ticketStatusMachine,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.agentRepository = agentRepository;
+        this.ticketStatusMachine = ticketStatusMachine;
+        this.properties = applicationProperties.getDispatcher();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${application.dispatcher.fixed-delay-ms:2000}")
+    public void scheduledDispatch() {
+        if (properties.isEnabled()) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Assign a batch of received tickets to the agents.
+     *
+     * @return the number of tickets assigned.
+     */
+    public int dispatch() {
+        dispatchLock.lock();
+        try {
+            return dispatchBatch();
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private int dispatchBatch() {
+        List<Long> ticketIds = ticketRepository.findIdsByStatusOldestFirst(TicketStatus.RECEIVED, PageRequest.of(0, properties.getBatchSize()));
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+
+        List<AgentLoadDTO> agentLoads = agentRepository.findAgentLoads(OPEN_STATUSES, Constants.NO_AGENT_LOGIN);
+        int assigned = 0;
+        for (Long ticketId : ticketIds) {
+            AgentLoadDTO agentLoad = selectAgent(agentLoads);
+            if (agentLoad == null) {
+                log.debug("No agent can take the received tickets, {} left unassigned", ticketIds.size() - assigned);
+                break;
+            }
+            if (assign(ticketId, agentLoad.getAgentId())) {
+                agentLoad.incrementOpenTickets();
+                assigned++;
+            }
+        }
+        log.debug("Dispatched {} of {} received tickets", assigned, ticketIds.size());
+        return assigned;
+    }
+
+    /**
+     * Choose the agent of the next ticket according to the configured policy.
+     *
+     * @param agentLoads the loads of the agents, ordered by agent id.
+     * @return the chosen agent, or null if every agent has reached the maximum number of open tickets.
+     */
+    AgentLoadDTO selectAgent(List<AgentLoadDTO> agentLoads) {
+        AgentLoadDTO selected = null;
+        switch (properties.getPolicy()) {
+            case ROUND_ROBIN:
+                for (int i = 0; i < agentLoads.size() && selected == null; i++) {
+                    int index = (roundRobinCursor + i) % agentLoads.size();
+                    if (hasCapacity(agentLoads.get(index))) {
+                        selected = agentLoads.get(index);
+                        roundRobinCursor = index + 1;
+                    }
+                }
+                break;
+            case WEIGHTED:
+                double selectedLoad = Double.MAX_VALUE;
+                for (AgentLoadDTO agentLoad : agentLoads) {
+                    double load = (double) agentLoad.getOpenTickets() / properties.getWeights().getOrDefault(agentLoad.getLogin(), 1);
+                    if (hasCapacity(agentLoad) && load < selectedLoad) {
+                        selected = agentLoad;
+                        selectedLoad = load;
+                    }
+                }
+                break;
+            case LEAST_LOADED:
+            default:
+                for (AgentLoadDTO agentLoad : agentLoads) {
+                    if (hasCapacity(agentLoad) && (selected == null || agentLoad.getOpenTickets() < selected.getOpenTickets())) {
+                        selected = agentLoad;
+                    }
+                }
+        }
+        return selected;
+    }
+
+    private boolean hasCapacity(AgentLoadDTO agentLoad) {
+        Integer maxOpenTickets = properties.getMaxOpenTicketsPerAgent();
+        return (
+            (maxOpenTickets == null || agentLoad.getOpenTickets() < maxOpenTickets) &&
+            properties.getWeights().getOrDefault(agentLoad.getLogin(), 1) > 0
+        );
+    }
+
+    private boolean assign(Long ticketId, Long agentId) {
+        try {
+            return Boolean.TRUE.equals(
+                transactionTemplate.execute(status ->
+                    ticketRepository
+                        .findById(ticketId)
+                        .filter(ticket -> ticket.getStatus() == TicketStatus.RECEIVED)
+                        .map(ticket -> {
+                            ticket.setAssignedTo(agentRepository.getReferenceById(agentId));
+                            ticket.setStatus(TicketStatus.BEING_TREATED);
+                            ticketRepository.flush();
+                            ticketStatusMachine.onTransition(ticketId, Role.DISPATCHER, TicketStatus.RECEIVED, TicketStatus.BEING_TREATED);
+                            applicationEventPublisher.publishEvent(
+                                new TicketEventDTO(
+                                    TicketEventDTO.Type.ASSIGNED,
+                                    ticketId,
+                                    TicketStatus.BEING_TREATED,
+                                    null,
+                                    ticket.getIssuedBy() == null ? null : ticket.getIssuedBy().getId(),
+                                    agentId
+                                )
+                            );
+                            return true;
+                        })
+                        .orElse(false)
+                )
+            );
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Ticket {} has been assigned concurrently", ticketId);
+            return false;
+        }
+    }
+}
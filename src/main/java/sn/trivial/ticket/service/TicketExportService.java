@@ -0,0 +1,270 @@
+package sn.trivial.ticket.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import org.hibernate.jpa.QueryHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.domain.*; // for static metamodels
+import sn.trivial.ticket.service.criteria.TicketCriteria;
+
+/**
+ * Service streaming the {@link Ticket}s matching a {@link TicketCriteria}, or their {@link Message}s, as CSV or NDJSON.
+ * <p>
+ * The rows are read as scalar columns through a forward-only cursor fetching {@code application.export.fetch-size} rows per
+ * round trip, and written as soon as read: no entity enters the persistence context and no row is kept, so the memory of an
+ * export does not depend on its size.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TicketExportService {
+
+    /**
+     * The formats of an export.
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final String[] TICKET_COLUMNS = { "id", "code", "status", "issueDescription", "issuedAt", "issuedById", "assignedToId" };
+
+    private static final String[] MESSAGE_COLUMNS = { "id", "ticketId", "sentBy", "sentAt", "content" };
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+        .setRootValueSeparator("\n")
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final Logger log = LoggerFactory.getLogger(TicketExportService.class);
+
+    private final TicketQueryService ticketQueryService;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationProperties.Export properties;
+
+    public TicketExportService(
+        TicketQueryService ticketQueryService,
+        EntityManager entityManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.ticketQueryService = ticketQueryService;
+        this.entityManager = entityManager;
+        this.properties = applicationProperties.getExport();
+    }
+
+    /**
+     * Write the tickets matching the criteria, ordered by id.
+     *
+     * @param criteria the criteria which the exported tickets should match.
+     * @param format the format of the export.
+     * @param out the stream to write the export to, left open.
+     * @return the number of exported tickets.
+     * @throws IOException if the export cannot be written.
+     */
+    public long exportTickets(TicketCriteria criteria, Format format, OutputStream out) throws IOException {
+        log.debug("Request to export the Tickets by criteria : {} as {}", criteria, format);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+        Root<Ticket> root = query.from(Ticket.class);
+        Predicate predicate = ticketQueryService.createSpecification(criteria).toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query
+            .multiselect(
+                root.get(Ticket_.id),
+                root.get(Ticket_.code),
+                root.get(Ticket_.status),
+                root.get(Ticket_.issueDescription),
+                root.get(Ticket_.issuedAt),
+                root.get(Ticket_.issuedBy).get(Client_.id),
+                root.get(Ticket_.assignedTo).get(Agent_.id)
+            )
+            .orderBy(builder.asc(root.get(Ticket_.id)));
+        return export(query, TICKET_COLUMNS, format, out);
+    }
+
+    /**
+     * Write the messages of the tickets matching the criteria, ordered by ticket and in the order of their discussion.
+     *
+     * @param criteria the criteria which the tickets of the exported messages should match.
+     * @param format the format of the export.
+     * @param out the stream to write the export to, left open.
+     * @return the number of exported messages.
+     * @throws IOException if the export cannot be written.
+     */
+    public long exportMessages(TicketCriteria criteria, Format format, OutputStream out) throws IOException {
+        log.debug("Request to export the Messages of the Tickets by criteria : {} as {}", criteria, format);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+        Root<Message> root = query.from(Message.class);
+        Subquery<Long> tickets = query.subquery(Long.class);
+        Root<Ticket> ticket = tickets.from(Ticket.class);
+        tickets.select(ticket.get(Ticket_.id));
+        Predicate predicate = ticketQueryService.createSpecification(criteria).toPredicate(ticket, query, builder);
+        if (predicate != null) {
+            tickets.where(predicate);
+        }
+        query
+            .multiselect(
+                root.get(Message_.id),
+                root.get(Message_.ticket).get(Ticket_.id),
+                root.join(Message_.sentBy, JoinType.LEFT).get(User_.login),
+                root.get(Message_.sentAt),
+                root.get(Message_.content)
+            )
+            .where(root.get(Message_.ticket).get(Ticket_.id).in(tickets))
+            .orderBy(
+                builder.asc(root.get(Message_.ticket).get(Ticket_.id)),
+                builder.asc(root.get(Message_.sentAt)),
+                builder.asc(root.get(Message_.id))
+            );
+        return export(query, MESSAGE_COLUMNS, format, out);
+    }
+
+    private long export(CriteriaQuery<Object[]> query, String[] columns, Format format, OutputStream out) throws IOException {
+        long rows = 0;
+        try (
+            Stream<Object[]> stream = entityManager
+                .createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, properties.getFetchSize())
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+        ) {
+            RowWriter writer = format == Format.CSV ? new CsvRowWriter(out, columns) : new NdjsonRowWriter(out, columns);
+            for (Iterator<Object[]> iterator = stream.iterator(); iterator.hasNext(); rows++) {
+                writer.write(iterator.next());
+            }
+            writer.flush();
+        }
+        log.debug("Exported {} rows as {}", rows, format);
+        return rows;
+    }
+
+    private interface RowWriter {
+        void write(Object[] row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    /**
+     * Writes the rows as RFC 4180 CSV, after a header line with the names of the columns.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out, String[] columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            write(columns);
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (row[i] != null) {
+                    writeField(row[i] instanceof Enum ? ((Enum<?>) row[i]).name() : row[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes every row as a JSON object on its own line, with the names of the columns as fields.
+     */
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private final String[] columns;
+
+        private boolean empty = true;
+
+        NdjsonRowWriter(OutputStream out, String[] columns) throws IOException {
+            this.generator = JSON_FACTORY.createGenerator(out);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < row.length; i++) {
+                generator.writeFieldName(columns[i]);
+                if (row[i] == null) {
+                    generator.writeNull();
+                } else if (row[i] instanceof Long) {
+                    generator.writeNumber((Long) row[i]);
+                } else if (row[i] instanceof Enum) {
+                    generator.writeString(((Enum<?>) row[i]).name());
+                } else {
+                    generator.writeString(row[i].toString());
+                }
+            }
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+}
@@ -1,21 +1,34 @@
 package sn.trivial.ticket.service;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sn.trivial.ticket.domain.*; // for static metamodels
 import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
 import sn.trivial.ticket.repository.TicketRepository;
 import sn.trivial.ticket.service.criteria.TicketCriteria;
 import sn.trivial.ticket.service.dto.TicketDTO;
+import sn.trivial.ticket.service.dto.TicketSummaryDTO;
 import sn.trivial.ticket.service.mapper.TicketMapper;
 import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.LongFilter;
 
 /**
  * Service for executing complex queries for {@link Ticket} entities in the database.
@@ -33,9 +46,20 @@ public class TicketQueryService extends QueryService<Ticket> {
 
     private final TicketMapper ticketMapper;
 
-    public TicketQueryService(TicketRepository ticketRepository, TicketMapper ticketMapper) {
+    private final TicketCountService ticketCountService;
+
+    private final EntityManager entityManager;
+
+    public TicketQueryService(
+        TicketRepository ticketRepository,
+        TicketMapper ticketMapper,
+        TicketCountService ticketCountService,
+        EntityManager entityManager
+    ) {
         this.ticketRepository = ticketRepository;
         this.ticketMapper = ticketMapper;
+        this.ticketCountService = ticketCountService;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -63,6 +87,42 @@ public class TicketQueryService extends QueryService<Ticket> {
         return ticketRepository.findAll(specification, page).map(ticketMapper::toDto);
     }
 
+    /**
+     * Return a {@link Page} of {@link TicketSummaryDTO} of the entities which match the criteria from the database, selecting
+     * only the columns of the summaries.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the summaries of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryDTO> findSummariesByCriteria(TicketCriteria criteria, Pageable page) {
+        log.debug("find summaries by criteria : {}, page: {}", criteria, page);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketSummaryDTO> query = builder.createQuery(TicketSummaryDTO.class);
+        Root<Ticket> root = query.from(Ticket.class);
+        Predicate predicate = createSpecification(criteria).toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query
+            .select(
+                builder.construct(
+                    TicketSummaryDTO.class,
+                    root.get(Ticket_.id),
+                    root.get(Ticket_.code),
+                    root.get(Ticket_.status),
+                    root.get(Ticket_.issuedAt),
+                    builder.substring(root.get(Ticket_.issueDescription), 1, TicketSummaryDTO.DESCRIPTION_LENGTH)
+                )
+            )
+            .orderBy(QueryUtils.toOrders(page.getSort(), root, builder));
+        TypedQuery<TicketSummaryDTO> typedQuery = entityManager.createQuery(query);
+        if (page.isPaged()) {
+            typedQuery.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), page, () -> countByCriteria(criteria));
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -71,10 +131,70 @@ public class TicketQueryService extends QueryService<Ticket> {
     @Transactional(readOnly = true)
     public long countByCriteria(TicketCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
+        Long count = countFromCounters(criteria);
+        if (count != null) {
+            return count;
+        }
         final Specification<Ticket> specification = createSpecification(criteria);
         return ticketRepository.count(specification);
     }
 
+    /**
+     * Count the matching entities from the counters of {@link TicketCountService}, when the criteria only filter on the status
+     * and on either the client or the agent, with the same precedence of the filter operators as {@link QueryService}.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities, or {@code null} when the criteria need a query of the entities.
+     */
+    private Long countFromCounters(TicketCriteria criteria) {
+        if (criteria == null) {
+            return ticketCountService.count(EnumSet.allOf(TicketStatus.class));
+        }
+        if (
+            criteria.getId() != null ||
+            criteria.getCode() != null ||
+            criteria.getIssueDescription() != null ||
+            criteria.getIssuedAt() != null ||
+            !isEqualsOrUnset(criteria.getIssuedById()) ||
+            !isEqualsOrUnset(criteria.getAssignedToId()) ||
+            (criteria.getIssuedById() != null && criteria.getAssignedToId() != null)
+        ) {
+            return null;
+        }
+        Set<TicketStatus> statuses = statusesOf(criteria.getStatus());
+        if (criteria.getIssuedById() != null) {
+            return ticketCountService.countIssuedByClient(criteria.getIssuedById().getEquals(), statuses);
+        }
+        if (criteria.getAssignedToId() != null) {
+            return ticketCountService.countAssignedToAgent(criteria.getAssignedToId().getEquals(), statuses);
+        }
+        return ticketCountService.count(statuses);
+    }
+
+    private static boolean isEqualsOrUnset(LongFilter filter) {
+        return filter == null || filter.getEquals() != null;
+    }
+
+    private static Set<TicketStatus> statusesOf(TicketCriteria.TicketStatusFilter filter) {
+        Set<TicketStatus> statuses = EnumSet.allOf(TicketStatus.class);
+        if (filter == null) {
+            return statuses;
+        }
+        if (filter.getEquals() != null) {
+            return EnumSet.of(filter.getEquals());
+        }
+        if (filter.getIn() != null) {
+            statuses.retainAll(filter.getIn());
+        } else if (filter.getNotIn() != null) {
+            statuses.removeAll(filter.getNotIn());
+        } else if (filter.getNotEquals() != null) {
+            statuses.remove(filter.getNotEquals());
+        } else if (Boolean.FALSE.equals(filter.getSpecified())) {
+            // the status of a ticket is never null
+            statuses.clear();
+        }
+        return statuses;
+    }
+
     /**
      * Function to convert {@link TicketCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
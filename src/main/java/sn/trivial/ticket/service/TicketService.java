@@ -1,12 +1,14 @@
 package sn.trivial.ticket.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import sn.trivial.ticket.domain.enumeration.TicketStatus;
 import sn.trivial.ticket.service.dto.MessageDTO;
 import sn.trivial.ticket.service.dto.TicketDTO;
+import sn.trivial.ticket.service.dto.TicketSummaryDTO;
 import sn.trivial.ticket.web.rest.vm.ChangeTicketStatusVM;
 import sn.trivial.ticket.web.rest.vm.MessageContentAndNewTicketStatusVM;
 import sn.trivial.ticket.web.rest.vm.TicketIdAndMessageContentVM;
@@ -70,6 +72,13 @@ public interface TicketService {
      */
     List<TicketDTO> findTicketsOfConnectedClient();
 
+    /**
+     * Get the summaries of all the tickets created by the authenticated client.
+     *
+     * @return the list of summaries.
+     */
+    List<TicketSummaryDTO> findTicketSummariesOfConnectedClient();
+
     /**
      * Save a ticket issued by the currently connected Client.
      *
@@ -142,19 +151,39 @@ public interface TicketService {
     /**
      * Get all the unassigned tickets.
      *
+     * @param pageable the pagination information.
      * @return the list of entities.
      */
-    List<TicketDTO> findAllUnassigned();
+    Page<TicketDTO> findAllUnassigned(Pageable pageable);
 
     /**
-     * Get all the tickets assigned to the connected admin.
+     * Get the summaries of all the unassigned tickets.
      *
+     * @param pageable the pagination information.
+     * @return the list of summaries.
+     */
+    Page<TicketSummaryDTO> findAllUnassignedSummaries(Pageable pageable);
+
+    /**
+     * Get all the tickets assigned to any agent and not closed.
+     *
+     * @param pageable the pagination information.
      * @return the list of entities.
      */
-    List<TicketDTO> findAllAssigned();
+    Page<TicketDTO> findAllAssigned(Pageable pageable);
+
+    /**
+     * Get the summaries of all the tickets assigned to any agent and not closed.
+     *
+     * @param pageable the pagination information.
+     * @return the list of summaries.
+     */
+    Page<TicketSummaryDTO> findAllAssignedSummaries(Pageable pageable);
 
     /**
      * Self assign a ticket.
+     * <p>
+     * The ticket is claimed atomically: if another agent claims it at the same time, only one of them gets it.
      *
      * @param ticketId the id of the entity.
      * @return the entity.
@@ -162,11 +191,28 @@ public interface TicketService {
     TicketDTO selfAssignTicket(Long ticketId);
 
     /**
-     * Get all the tickets assigned to the connected agent.
+     * Assign the oldest unassigned tickets to the connected agent, skipping the tickets being claimed by other agents.
      *
+     * @param count the number of tickets to claim, bounded by {@code application.dispatcher.max-claim-size}.
+     * @return the claimed tickets, fewer than requested if the queue runs out.
+     */
+    List<TicketDTO> claimNextTickets(int count);
+
+    /**
+     * Get all the tickets assigned to the connected agent and not closed.
+     *
+     * @param pageable the pagination information.
      * @return the list of entities.
      */
-    List<TicketDTO> findAllAssignedToConnectedAgent();
+    Page<TicketDTO> findAllAssignedToConnectedAgent(Pageable pageable);
+
+    /**
+     * Get the summaries of all the tickets assigned to the connected agent and not closed.
+     *
+     * @param pageable the pagination information.
+     * @return the list of summaries.
+     */
+    Page<TicketSummaryDTO> findAllSummariesAssignedToConnectedAgent(Pageable pageable);
 
     /**
      * Get the "id" ticket if it has been assigned to the connected agent.
@@ -204,13 +250,23 @@ public interface TicketService {
     /**
      * Get all the tickets assigned to the "agentId" agent and not closed.
      *
-     * @param agentId the id of the agent.
+     * @param agentId  the id of the agent.
+     * @param pageable the pagination information.
      * @return the list of entities.
      */
-    List<TicketDTO> findAllAssignedToAgent(Long agentId);
+    Page<TicketDTO> findAllAssignedToAgent(Long agentId, Pageable pageable);
+
+    /**
+     * Get the summaries of all the tickets assigned to the "agentId" agent and not closed.
+     *
+     * @param agentId  the id of the agent.
+     * @param pageable the pagination information.
+     * @return the list of summaries.
+     */
+    Page<TicketSummaryDTO> findAllSummariesAssignedToAgent(Long agentId, Pageable pageable);
 
     /**
-     * Get the number of tickets assigned to the "agentId" agent.
+     * Get the number of tickets assigned to the "agentId" agent and not closed.
      *
      * @param agentId the id of the agent.
      * @return the number of entities.
@@ -224,6 +280,21 @@ public interface TicketService {
      */
     Long countAllAssigned();
 
+    /**
+     * Get the number of tickets issued by the "clientId" client and not closed.
+     *
+     * @param clientId the id of the client.
+     * @return the number of entities.
+     */
+    Long countAllOpenIssuedByClient(Long clientId);
+
+    /**
+     * Get the number of tickets of every status.
+     *
+     * @return the number of entities by status.
+     */
+    Map<TicketStatus, Long> countAllByStatus();
+
     /**
      * Get all the tickets with the "ticketStatus" status.
      *
@@ -0,0 +1,119 @@
+package sn.trivial.ticket.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.repository.TicketSlaRollupRepository;
+import sn.trivial.ticket.repository.TicketSlaRollupRepository.DailyBucket;
+import sn.trivial.ticket.service.dto.TicketSlaDTO;
+
+/**
+ * Service rolling up the {@link sn.trivial.ticket.domain.TicketTransition} log into hourly histograms of the SLA durations,
+ * and reading the daily percentiles per agent from them, without going through the log again.
+ * <p>
+ * Every run, each {@code application.sla.rollup-delay-ms}, rolls up again the last hour already rolled up and the one before,
+ * catching the transitions committed late, then the hours since.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TicketSlaService {
+
+    private final Logger log = LoggerFactory.getLogger(TicketSlaService.class);
+
+    private final TicketSlaRollupRepository ticketSlaRollupRepository;
+
+    public TicketSlaService(TicketSlaRollupRepository ticketSlaRollupRepository) {
+        this.ticketSlaRollupRepository = ticketSlaRollupRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${application.sla.rollup-delay-ms:300000}")
+    public void scheduledRollup() {
+        rollup();
+    }
+
+    /**
+     * Roll up the transitions since the last rollup.
+     *
+     * @return the number of histogram buckets written.
+     */
+    @Transactional
+    public int rollup() {
+        Optional<Instant> from = ticketSlaRollupRepository
+            .findLastHourStart()
+            .map(lastHourStart -> lastHourStart.minus(1, ChronoUnit.HOURS))
+            .or(ticketSlaRollupRepository::findFirstTransitionAt)
+            .map(start -> start.truncatedTo(ChronoUnit.HOURS));
+        if (from.isEmpty()) {
+            return 0;
+        }
+        int buckets = ticketSlaRollupRepository.rollup(from.get());
+        log.debug("Rolled up the ticket transitions since {} into {} SLA histogram buckets", from.get(), buckets);
+        return buckets;
+    }
+
+    /**
+     * Get the daily percentiles of the SLA durations.
+     *
+     * @param from the first day, in UTC.
+     * @param to the last day, in UTC.
+     * @param agentId the id of the agent, all the agents when {@code null}.
+     * @return the percentiles by day, agent and metric.
+     */
+    public List<TicketSlaDTO> findDaily(LocalDate from, LocalDate to, Long agentId) {
+        log.debug("Request to get the SLA percentiles from {} to {} of Agent : {}", from, to, agentId);
+        List<DailyBucket> buckets = ticketSlaRollupRepository.findDaily(from, to, agentId);
+        List<TicketSlaDTO> result = new ArrayList<>();
+        int start = 0;
+        for (int end = 1; end <= buckets.size(); end++) {
+            if (end == buckets.size() || !sameHistogram(buckets.get(start), buckets.get(end))) {
+                result.add(toDto(buckets.subList(start, end)));
+                start = end;
+            }
+        }
+        return result;
+    }
+
+    private static boolean sameHistogram(DailyBucket a, DailyBucket b) {
+        return a.getDay().equals(b.getDay()) && a.getAgentId() == b.getAgentId() && a.getMetric() == b.getMetric();
+    }
+
+    /**
+     * @param histogram the buckets of a day, agent and metric, ordered by duration.
+     * @return the percentiles of the histogram.
+     */
+    private static TicketSlaDTO toDto(List<DailyBucket> histogram) {
+        DailyBucket first = histogram.get(0);
+        long count = histogram.stream().mapToLong(DailyBucket::getCount).sum();
+        TicketSlaDTO dto = new TicketSlaDTO();
+        dto.setDay(first.getDay());
+        dto.setAgentId(first.getAgentId() == TicketSlaRollupRepository.NO_AGENT ? null : first.getAgentId());
+        dto.setMetric(first.getMetric());
+        dto.setCount(count);
+        dto.setP50Ms(percentile(histogram, count, 0.5));
+        dto.setP90Ms(percentile(histogram, count, 0.9));
+        dto.setP99Ms(percentile(histogram, count, 0.99));
+        dto.setMaxMs(TicketSlaRollupRepository.upperBoundMs(histogram.get(histogram.size() - 1).getDurationBucket()));
+        return dto;
+    }
+
+    private static long percentile(List<DailyBucket> histogram, long count, double percentile) {
+        // the rank of the percentile, not pushed to the next one by the rounding errors of the product
+        long rank = Math.max(1, (long) Math.ceil(percentile * count - 1e-9));
+        long seen = 0;
+        for (DailyBucket bucket : histogram) {
+            seen += bucket.getCount();
+            if (seen >= rank) {
+                return TicketSlaRollupRepository.upperBoundMs(bucket.getDurationBucket());
+            }
+        }
+        return TicketSlaRollupRepository.upperBoundMs(histogram.get(histogram.size() - 1).getDurationBucket());
+    }
+}
@@ -0,0 +1,172 @@
+package sn.trivial.ticket.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+
+/**
+ * The state machine of the {@link TicketStatus}: which transitions each role may request, whose turn it is to send a message,
+ * and the single place where the transitions are counted and dispatched to the {@link TicketStatusTransitionListener}s.
+ * <p>
+ * The transition tables are built once, as {@link EnumSet} bitsets, so that the checks do not allocate.
+ */
+@Component
+public class TicketStatusMachine {
+
+    public static final String TRANSITIONS_METER_NAME = "ticket.status.transitions";
+    public static final String TRANSITIONS_METER_DESCRIPTION = "Indicates the count of the ticket status transitions.";
+
+    /**
+     * The roles taking part in the workflow of a ticket.
+     */
+    public enum Role {
+        CLIENT,
+        AGENT,
+        ADMIN,
+        DISPATCHER,
+    }
+
+    private static final Map<Role, Map<TicketStatus, Set<TicketStatus>>> ALLOWED_TRANSITIONS = new EnumMap<>(Role.class);
+
+    private static final Map<Role, Map<TicketStatus, Set<TicketStatus>>> REPLY_TRANSITIONS = new EnumMap<>(Role.class);
+
+    private static final Map<TicketStatus, Role> TURNS = new EnumMap<>(TicketStatus.class);
+
+    static {
+        Map<TicketStatus, Set<TicketStatus>> client = transitionTable();
+        client.get(TicketStatus.RECEIVED).add(TicketStatus.CLOSED);
+        client.get(TicketStatus.DO_NOT_TREAT).add(TicketStatus.CLOSED);
+        client.get(TicketStatus.TREATED).add(TicketStatus.CLOSED);
+        client.get(TicketStatus.TREATED).add(TicketStatus.BEING_TREATED);
+        ALLOWED_TRANSITIONS.put(Role.CLIENT, client);
+
+        Map<TicketStatus, Set<TicketStatus>> agent = transitionTable();
+        agent.get(TicketStatus.BEING_TREATED).add(TicketStatus.PENDING);
+        agent.get(TicketStatus.BEING_TREATED).add(TicketStatus.DO_NOT_TREAT);
+        agent.get(TicketStatus.PENDING).add(TicketStatus.CLOSED);
+        agent.get(TicketStatus.DO_NOT_TREAT).add(TicketStatus.CLOSED);
+        agent.get(TicketStatus.TREATED).add(TicketStatus.CLOSED);
+        ALLOWED_TRANSITIONS.put(Role.AGENT, agent);
+
+        Map<TicketStatus, Set<TicketStatus>> admin = transitionTable();
+        admin.get(TicketStatus.RECEIVED).add(TicketStatus.BEING_TREATED);
+        for (TicketStatus status : TicketStatus.values()) {
+            if (status != TicketStatus.CLOSED) {
+                admin.get(status).add(TicketStatus.CLOSED);
+            }
+        }
+        ALLOWED_TRANSITIONS.put(Role.ADMIN, admin);
+
+        Map<TicketStatus, Set<TicketStatus>> dispatcher = transitionTable();
+        dispatcher.get(TicketStatus.RECEIVED).add(TicketStatus.BEING_TREATED);
+        ALLOWED_TRANSITIONS.put(Role.DISPATCHER, dispatcher);
+
+        for (Role role : Role.values()) {
+            REPLY_TRANSITIONS.put(role, transitionTable());
+        }
+        // the answer of the client to a treated or pending ticket gives the turn back to the agent
+        REPLY_TRANSITIONS.get(Role.CLIENT).get(TicketStatus.TREATED).add(TicketStatus.BEING_TREATED);
+        REPLY_TRANSITIONS.get(Role.CLIENT).get(TicketStatus.PENDING).add(TicketStatus.BEING_TREATED);
+
+        for (TicketStatus status : TicketStatus.values()) {
+            TURNS.put(status, status == TicketStatus.TREATED || status == TicketStatus.PENDING ? Role.CLIENT : Role.AGENT);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<TicketStatusTransitionListener> listeners;
+
+    // indexed by role, from and to ordinals, registered on first use
+    private final Counter[][][] transitionCounters = new Counter[Role.values().length][TicketStatus.values().length][TicketStatus
+        .values()
+        .length];
+
+    public TicketStatusMachine(MeterRegistry meterRegistry, List<TicketStatusTransitionListener> listeners) {
+        this.meterRegistry = meterRegistry;
+        this.listeners = List.copyOf(listeners);
+    }
+
+    /**
+     * Check if a role may request a transition.
+     *
+     * @param role the role requesting the transition.
+     * @param from the current status of the ticket.
+     * @param to the requested status of the ticket.
+     * @return true if the transition is allowed to the role.
+     */
+    public boolean canTransition(Role role, TicketStatus from, TicketStatus to) {
+        return from != null && to != null && ALLOWED_TRANSITIONS.get(role).get(from).contains(to);
+    }
+
+    /**
+     * Check if a role may send a message on a ticket, the message moving the ticket to another status.
+     * <p>
+     * These transitions are only implied by the messages: they are not allowed to the status changes of
+     * {@link #canTransition(Role, TicketStatus, TicketStatus)}.
+     *
+     * @param role the role sending the message.
+     * @param from the current status of the ticket.
+     * @param to the status of the ticket once the message is sent.
+     * @return true if the message is allowed to the role.
+     */
+    public boolean canReply(Role role, TicketStatus from, TicketStatus to) {
+        return from != null && to != null && REPLY_TRANSITIONS.get(role).get(from).contains(to);
+    }
+
+    /**
+     * Get the role expected to send the next message of a ticket.
+     *
+     * @param status the status of the ticket.
+     * @return {@link Role#CLIENT} when the ticket waits for the client, {@link Role#AGENT} otherwise.
+     */
+    public Role whoseTurn(TicketStatus status) {
+        return TURNS.get(status);
+    }
+
+    /**
+     * Record a transition which has been applied to a ticket, and notify the listeners.
+     *
+     * @param ticketId the id of the ticket.
+     * @param role the role which triggered the transition.
+     * @param from the previous status of the ticket.
+     * @param to the new status of the ticket.
+     */
+    public void onTransition(Long ticketId, Role role, TicketStatus from, TicketStatus to) {
+        transitionCounter(role, from, to).increment();
+        for (TicketStatusTransitionListener listener : listeners) {
+            listener.onTransition(ticketId, role, from, to);
+        }
+    }
+
+    private Counter transitionCounter(Role role, TicketStatus from, TicketStatus to) {
+        Counter counter = transitionCounters[role.ordinal()][from.ordinal()][to.ordinal()];
+        if (counter == null) {
+            // concurrent registrations are harmless: the registry returns the same counter
+            counter =
+                Counter
+                    .builder(TRANSITIONS_METER_NAME)
+                    .description(TRANSITIONS_METER_DESCRIPTION)
+                    .tag("role", role.name())
+                    .tag("from", from.name())
+                    .tag("to", to.name())
+                    .register(meterRegistry);
+            transitionCounters[role.ordinal()][from.ordinal()][to.ordinal()] = counter;
+        }
+        return counter;
+    }
+
+    private static Map<TicketStatus, Set<TicketStatus>> transitionTable() {
+        Map<TicketStatus, Set<TicketStatus>> table = new EnumMap<>(TicketStatus.class);
+        for (TicketStatus status : TicketStatus.values()) {
+            table.put(status, EnumSet.noneOf(TicketStatus.class));
+        }
+        return table;
+    }
+}
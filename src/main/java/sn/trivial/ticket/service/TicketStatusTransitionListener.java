@@ -0,0 +1,13 @@
+package sn.trivial.ticket.service;
+
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+
+/**
+ * Hook notified by the {@link TicketStatusMachine} of every status transition applied to a ticket.
+ * <p>
+ * Listeners are called synchronously, within the transaction which changed the status.
+ */
+@FunctionalInterface
+public interface TicketStatusTransitionListener {
+    void onTransition(Long ticketId, TicketStatusMachine.Role role, TicketStatus from, TicketStatus to);
+}
@@ -0,0 +1,141 @@
+package sn.trivial.ticket.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.TicketTransition;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.repository.TicketTransitionRepository;
+import sn.trivial.ticket.security.SecurityUtils;
+import sn.trivial.ticket.service.TicketStatusMachine.Role;
+
+/**
+ * Appends every status transition of a ticket to the {@link TicketTransition} log, with the time the ticket spent in the
+ * status it leaves, and records the SLA durations in Micrometer timers once the transaction has committed.
+ * <p>
+ * The first response of a ticket is the first transition triggered by an agent: its claim, or its first answer.
+ */
+@Component
+public class TicketTransitionRecorder implements TicketStatusTransitionListener {
+
+    public static final String FIRST_RESPONSE_METER_NAME = "ticket.sla.first-response";
+
+    public static final String TIME_TO_CLOSE_METER_NAME = "ticket.sla.time-to-close";
+
+    public static final String TIME_IN_STATUS_METER_NAME = "ticket.sla.time-in-status";
+
+    private static final Duration MAXIMUM_EXPECTED_DURATION = Duration.ofDays(30);
+
+    private final Logger log = LoggerFactory.getLogger(TicketTransitionRecorder.class);
+
+    private final TicketRepository ticketRepository;
+
+    private final TicketTransitionRepository ticketTransitionRepository;
+
+    private final Timer firstResponse;
+
+    private final Timer timeToClose;
+
+    private final Map<TicketStatus, Timer> timeInStatus = new EnumMap<>(TicketStatus.class);
+
+    public TicketTransitionRecorder(
+        TicketRepository ticketRepository,
+        TicketTransitionRepository ticketTransitionRepository,
+        MeterRegistry meterRegistry
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.ticketTransitionRepository = ticketTransitionRepository;
+        this.firstResponse =
+            slaTimer(FIRST_RESPONSE_METER_NAME)
+                .description("Indicates the time from the issue of a ticket to the first response of an agent.")
+                .register(meterRegistry);
+        this.timeToClose =
+            slaTimer(TIME_TO_CLOSE_METER_NAME)
+                .description("Indicates the time from the issue of a ticket to its close.")
+                .register(meterRegistry);
+        for (TicketStatus status : TicketStatus.values()) {
+            timeInStatus.put(
+                status,
+                slaTimer(TIME_IN_STATUS_METER_NAME)
+                    .description("Indicates the time spent by a ticket in a status.")
+                    .tag("status", status.name())
+                    .register(meterRegistry)
+            );
+        }
+    }
+
+    private static Timer.Builder slaTimer(String name) {
+        return Timer.builder(name).publishPercentileHistogram().maximumExpectedValue(MAXIMUM_EXPECTED_DURATION);
+    }
+
+    @Override
+    public void onTransition(Long ticketId, Role role, TicketStatus from, TicketStatus to) {
+        Optional<Ticket> ticket = ticketRepository.findById(ticketId);
+        if (ticket.isEmpty()) {
+            log.warn("Transition of the unknown ticket {} from {} to {} not recorded", ticketId, from, to);
+            return;
+        }
+        Instant now = Instant.now();
+        Optional<TicketTransition> previous = ticketTransitionRepository.findFirstByTicketIdOrderByOccurredAtDescIdDesc(ticketId);
+        Instant issuedAt = ticket.get().getIssuedAt();
+        Instant enteredAt = previous.map(TicketTransition::getOccurredAt).orElse(issuedAt);
+        boolean alreadyResponded = previous.map(TicketTransition::getResponded).orElse(false);
+        boolean first = role == Role.AGENT && !alreadyResponded;
+
+        TicketTransition transition = ticketTransitionRepository.save(
+            new TicketTransition()
+                .ticketId(ticketId)
+                .fromStatus(from)
+                .toStatus(to)
+                .actorRole(role.name())
+                .actorLogin(SecurityUtils.getCurrentUserLogin().orElse(null))
+                .agentId(ticket.get().getAssignedTo() == null ? null : ticket.get().getAssignedTo().getId())
+                .occurredAt(now)
+                .durationMs(millisBetween(enteredAt, now))
+                .sinceIssuedMs(millisBetween(issuedAt, now))
+                .responded(alreadyResponded || role == Role.AGENT)
+                .firstResponse(first)
+        );
+        afterCommit(() -> record(transition));
+    }
+
+    private void record(TicketTransition transition) {
+        timeInStatus.get(transition.getFromStatus()).record(Duration.ofMillis(transition.getDurationMs()));
+        if (transition.getFirstResponse()) {
+            firstResponse.record(Duration.ofMillis(transition.getSinceIssuedMs()));
+        }
+        if (transition.getToStatus() == TicketStatus.CLOSED) {
+            timeToClose.record(Duration.ofMillis(transition.getSinceIssuedMs()));
+        }
+    }
+
+    private static long millisBetween(Instant start, Instant end) {
+        return start == null ? 0 : Math.max(0, Duration.between(start, end).toMillis());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
+    }
+}
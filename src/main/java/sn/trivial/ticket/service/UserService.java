@@ -321,5 +321,6 @@ public class UserService {
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
+        Objects.requireNonNull(cacheManager.getCache(IdentityService.IDENTITIES_BY_LOGIN_CACHE)).evict(user.getLogin());
     }
 }
@@ -0,0 +1,49 @@
+package sn.trivial.ticket.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The number of open tickets (being treated or pending) of an {@link sn.trivial.ticket.domain.Agent}.
+ */
+public class AgentLoadDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long agentId;
+
+    private final String login;
+
+    private long openTickets;
+
+    public AgentLoadDTO(Long agentId, String login, long openTickets) {
+        this.agentId = agentId;
+        this.login = login;
+        this.openTickets = openTickets;
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public long getOpenTickets() {
+        return openTickets;
+    }
+
+    public void incrementOpenTickets() {
+        openTickets++;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AgentLoadDTO{" +
+            "agentId=" + getAgentId() +
+            ", login='" + getLogin() + "'" +
+            ", openTickets=" + getOpenTickets() +
+            "}";
+    }
+}
@@ -0,0 +1,83 @@
+package sn.trivial.ticket.service.dto;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * The identity of a user: its login, its authorities and the ids of the {@link sn.trivial.ticket.domain.Client}
+ * and {@link sn.trivial.ticket.domain.Agent} it is linked to, if any.
+ * <p>
+ * Instances are shared through the identity cache, hence immutable.
+ */
+public final class IdentityDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long userId;
+
+    private final String login;
+
+    private final Long clientId;
+
+    private final Long agentId;
+
+    private final Set<String> authorities;
+
+    public IdentityDTO(Long userId, String login, Long clientId, Long agentId, Set<String> authorities) {
+        this.userId = userId;
+        this.login = login;
+        this.clientId = clientId;
+        this.agentId = agentId;
+        this.authorities = Set.copyOf(authorities);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public Set<String> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean isClient() {
+        return clientId != null;
+    }
+
+    public boolean isAgent() {
+        return agentId != null;
+    }
+
+    /**
+     * @return a {@link UserDTO} holding the id and the login of the user, suitable for associations.
+     */
+    public UserDTO toUserDTO() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(userId);
+        userDTO.setLogin(login);
+        return userDTO;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdentityDTO{" +
+            "userId=" + getUserId() +
+            ", login='" + getLogin() + "'" +
+            ", clientId=" + getClientId() +
+            ", agentId=" + getAgentId() +
+            ", authorities=" + getAuthorities() +
+            "}";
+    }
+}
@@ -0,0 +1,74 @@
+package sn.trivial.ticket.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A ticket or a message matching a full-text search.
+ */
+public class SearchHitDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * What a hit matched: the description of a ticket, or the content of one of its messages.
+     */
+    public enum Type {
+        TICKET,
+        MESSAGE,
+    }
+
+    private final Type type;
+
+    private final Long ticketId;
+
+    private final Long messageId;
+
+    private final double rank;
+
+    private final String highlight;
+
+    public SearchHitDTO(Type type, Long ticketId, Long messageId, double rank, String highlight) {
+        this.type = type;
+        this.ticketId = ticketId;
+        this.messageId = messageId;
+        this.rank = rank;
+        this.highlight = highlight;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    /**
+     * @return the id of the matching message, null when the hit is the description of the ticket.
+     */
+    public Long getMessageId() {
+        return messageId;
+    }
+
+    public double getRank() {
+        return rank;
+    }
+
+    /**
+     * @return the best fragments of the matching text, HTML-escaped, the matches surrounded by {@code <mark>} tags.
+     */
+    public String getHighlight() {
+        return highlight;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchHitDTO{" +
+            "type=" + getType() +
+            ", ticketId=" + getTicketId() +
+            ", messageId=" + getMessageId() +
+            ", rank=" + getRank() +
+            "}";
+    }
+}
@@ -0,0 +1,131 @@
+package sn.trivial.ticket.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The report of a bulk operation on the tickets, with the outcome of every selected ticket.
+ */
+public class TicketBulkResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The outcome of a bulk operation on a ticket.
+     */
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        REJECTED,
+        NOT_FOUND,
+    }
+
+    private int updated;
+
+    private int unchanged;
+
+    private int rejected;
+
+    private int notFound;
+
+    private final List<TicketResult> tickets = new ArrayList<>();
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public List<TicketResult> getTickets() {
+        return tickets;
+    }
+
+    /**
+     * Add the outcome of a ticket to the report.
+     *
+     * @param ticketId the id of the ticket.
+     * @param outcome the outcome of the operation on the ticket.
+     * @param reason the error key of a rejection, null otherwise.
+     */
+    public void add(Long ticketId, Outcome outcome, String reason) {
+        tickets.add(new TicketResult(ticketId, outcome, reason));
+        switch (outcome) {
+            case UPDATED:
+                updated++;
+                break;
+            case UNCHANGED:
+                unchanged++;
+                break;
+            case REJECTED:
+                rejected++;
+                break;
+            case NOT_FOUND:
+            default:
+                notFound++;
+        }
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TicketBulkResultDTO{" +
+            "updated=" + getUpdated() +
+            ", unchanged=" + getUnchanged() +
+            ", rejected=" + getRejected() +
+            ", notFound=" + getNotFound() +
+            "}";
+    }
+
+    /**
+     * The outcome of a bulk operation on a ticket.
+     */
+    public static class TicketResult implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long ticketId;
+
+        private final Outcome outcome;
+
+        private final String reason;
+
+        public TicketResult(Long ticketId, Outcome outcome, String reason) {
+            this.ticketId = ticketId;
+            this.outcome = outcome;
+            this.reason = reason;
+        }
+
+        public Long getTicketId() {
+            return ticketId;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "TicketResult{" +
+                "ticketId=" + getTicketId() +
+                ", outcome=" + getOutcome() +
+                ", reason='" + getReason() + "'" +
+                "}";
+        }
+    }
+}
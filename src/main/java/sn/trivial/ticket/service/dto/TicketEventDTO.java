@@ -0,0 +1,121 @@
+package sn.trivial.ticket.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.time.Instant;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+
+/**
+ * A change of a {@link sn.trivial.ticket.domain.Ticket}, pushed to the users concerned by the ticket once committed.
+ * <p>
+ * Events are deltas: they only tell which ticket changed and how, the client fetching the details it needs. The client and
+ * agent ids route the event to their users and are not sent.
+ */
+public final class TicketEventDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The kinds of changes of a ticket.
+     */
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        ASSIGNED,
+        MESSAGE_SENT,
+    }
+
+    private final Type type;
+
+    private final Long ticketId;
+
+    private final TicketStatus status;
+
+    private final Long messageId;
+
+    private final Instant occurredAt;
+
+    private final Long clientId;
+
+    private final Long agentId;
+
+    public TicketEventDTO(Type type, Long ticketId, TicketStatus status, Long messageId, Long clientId, Long agentId) {
+        this.type = type;
+        this.ticketId = ticketId;
+        this.status = status;
+        this.messageId = messageId;
+        this.occurredAt = Instant.now();
+        this.clientId = clientId;
+        this.agentId = agentId;
+    }
+
+    /**
+     * Build the event of a change of a ticket.
+     *
+     * @param type the kind of change.
+     * @param ticketDTO the ticket, once changed.
+     * @return the event.
+     */
+    public static TicketEventDTO of(Type type, TicketDTO ticketDTO) {
+        return new TicketEventDTO(
+            type,
+            ticketDTO.getId(),
+            ticketDTO.getStatus(),
+            null,
+            ticketDTO.getIssuedBy() == null ? null : ticketDTO.getIssuedBy().getId(),
+            ticketDTO.getAssignedTo() == null ? null : ticketDTO.getAssignedTo().getId()
+        );
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public TicketStatus getStatus() {
+        return status;
+    }
+
+    public Long getMessageId() {
+        return messageId;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    @JsonIgnore
+    public Long getClientId() {
+        return clientId;
+    }
+
+    @JsonIgnore
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    /**
+     * @return true if the event adds a ticket to or removes it from the unassigned tickets, which every agent sees.
+     */
+    @JsonIgnore
+    public boolean isUnassignedTicketsChange() {
+        return type == Type.CREATED || type == Type.ASSIGNED;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TicketEventDTO{" +
+            "type=" + getType() +
+            ", ticketId=" + getTicketId() +
+            ", status='" + getStatus() + "'" +
+            ", messageId=" + getMessageId() +
+            ", occurredAt='" + getOccurredAt() + "'" +
+            ", clientId=" + getClientId() +
+            ", agentId=" + getAgentId() +
+            "}";
+    }
+}
@@ -0,0 +1,110 @@
+package sn.trivial.ticket.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import sn.trivial.ticket.domain.enumeration.TicketSlaMetric;
+
+/**
+ * The percentiles of an SLA duration over a day, for an agent or for the tickets assigned to no agent.
+ * <p>
+ * The durations are in milliseconds, each one an upper bound within 10% of the exact value.
+ */
+public class TicketSlaDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate day;
+
+    private Long agentId;
+
+    private TicketSlaMetric metric;
+
+    private long count;
+
+    private long p50Ms;
+
+    private long p90Ms;
+
+    private long p99Ms;
+
+    private long maxMs;
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(Long agentId) {
+        this.agentId = agentId;
+    }
+
+    public TicketSlaMetric getMetric() {
+        return metric;
+    }
+
+    public void setMetric(TicketSlaMetric metric) {
+        this.metric = metric;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getP50Ms() {
+        return p50Ms;
+    }
+
+    public void setP50Ms(long p50Ms) {
+        this.p50Ms = p50Ms;
+    }
+
+    public long getP90Ms() {
+        return p90Ms;
+    }
+
+    public void setP90Ms(long p90Ms) {
+        this.p90Ms = p90Ms;
+    }
+
+    public long getP99Ms() {
+        return p99Ms;
+    }
+
+    public void setP99Ms(long p99Ms) {
+        this.p99Ms = p99Ms;
+    }
+
+    public long getMaxMs() {
+        return maxMs;
+    }
+
+    public void setMaxMs(long maxMs) {
+        this.maxMs = maxMs;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TicketSlaDTO{" +
+            "day='" + getDay() + "'" +
+            ", agentId=" + getAgentId() +
+            ", metric='" + getMetric() + "'" +
+            ", count=" + getCount() +
+            ", p50Ms=" + getP50Ms() +
+            ", p90Ms=" + getP90Ms() +
+            ", p99Ms=" + getP99Ms() +
+            ", maxMs=" + getMaxMs() +
+            "}";
+    }
+}
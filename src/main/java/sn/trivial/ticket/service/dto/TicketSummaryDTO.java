@@ -0,0 +1,73 @@
+package sn.trivial.ticket.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+
+/**
+ * The summary of a {@link sn.trivial.ticket.domain.Ticket} shown by the lists of tickets, selected by their {@code view=summary}
+ * parameter.
+ * <p>
+ * It is built by the queries themselves from the columns of the ticket table, without the client nor the agent of the ticket.
+ */
+public class TicketSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum length of the issue description of a summary.
+     */
+    public static final int DESCRIPTION_LENGTH = 100;
+
+    private final Long id;
+
+    private final String code;
+
+    private final TicketStatus status;
+
+    private final Instant issuedAt;
+
+    private final String issueDescription;
+
+    public TicketSummaryDTO(Long id, String code, TicketStatus status, Instant issuedAt, String issueDescription) {
+        this.id = id;
+        this.code = code;
+        this.status = status;
+        this.issuedAt = issuedAt;
+        this.issueDescription = issueDescription;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public TicketStatus getStatus() {
+        return status;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * @return the first {@value #DESCRIPTION_LENGTH} characters of the issue description.
+     */
+    public String getIssueDescription() {
+        return issueDescription;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TicketSummaryDTO{" +
+            "id=" + getId() +
+            ", code='" + getCode() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", issuedAt='" + getIssuedAt() + "'" +
+            "}";
+    }
+}
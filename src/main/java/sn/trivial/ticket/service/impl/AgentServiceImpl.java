@@ -14,6 +14,7 @@ import sn.trivial.ticket.domain.User;
 import sn.trivial.ticket.repository.AgentRepository;
 import sn.trivial.ticket.security.AuthoritiesConstants;
 import sn.trivial.ticket.service.AgentService;
+import sn.trivial.ticket.service.IdentityService;
 import sn.trivial.ticket.service.MailService;
 import sn.trivial.ticket.service.UserService;
 import sn.trivial.ticket.service.dto.AdminUserDTO;
@@ -41,18 +42,22 @@ public class AgentServiceImpl implements AgentService {
 
     private final UserMapper userMapper;
 
+    private final IdentityService identityService;
+
     public AgentServiceImpl(
         AgentRepository agentRepository,
         AgentMapper agentMapper,
         UserService userService,
         MailService mailService,
-        UserMapper userMapper
+        UserMapper userMapper,
+        IdentityService identityService
     ) {
         this.agentRepository = agentRepository;
         this.agentMapper = agentMapper;
         this.userService = userService;
         this.mailService = mailService;
         this.userMapper = userMapper;
+        this.identityService = identityService;
     }
 
     @Override
@@ -60,6 +65,7 @@ public class AgentServiceImpl implements AgentService {
         log.debug("Request to save Agent : {}", agentDTO);
         Agent agent = agentMapper.toEntity(agentDTO);
         agent = agentRepository.save(agent);
+        evictIdentity(agent.getId());
         return agentMapper.toDto(agent);
     }
 
@@ -67,7 +73,9 @@ public class AgentServiceImpl implements AgentService {
     public AgentDTO update(AgentDTO agentDTO) {
         log.debug("Request to update Agent : {}", agentDTO);
         Agent agent = agentMapper.toEntity(agentDTO);
+        evictIdentity(agent.getId());
         agent = agentRepository.save(agent);
+        evictIdentity(agent.getId());
         return agentMapper.toDto(agent);
     }
 
@@ -78,12 +86,16 @@ public class AgentServiceImpl implements AgentService {
         return agentRepository
             .findById(agentDTO.getId())
             .map(existingAgent -> {
+                evictIdentity(existingAgent.getId());
                 agentMapper.partialUpdate(existingAgent, agentDTO);
 
                 return existingAgent;
             })
             .map(agentRepository::save)
-            .map(agentMapper::toDto);
+            .map(savedAgent -> {
+                evictIdentity(savedAgent.getId());
+                return agentMapper.toDto(savedAgent);
+            });
     }
 
     @Override
@@ -107,6 +119,7 @@ public class AgentServiceImpl implements AgentService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Agent : {}", id);
+        evictIdentity(id);
         agentRepository.deleteById(id);
     }
 
@@ -136,4 +149,13 @@ public class AgentServiceImpl implements AgentService {
         agentDTO.setUser(userMapper.toDtoLogin(newUser));
         return save(agentDTO);
     }
+
+    /**
+     * Evict the cached identity of the user linked to the agent, as its agent id is part of it.
+     */
+    private void evictIdentity(Long agentId) {
+        if (agentId != null) {
+            agentRepository.findUserLoginById(agentId).ifPresent(identityService::evict);
+        }
+    }
 }
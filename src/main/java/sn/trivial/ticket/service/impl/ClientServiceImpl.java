@@ -14,6 +14,7 @@ import sn.trivial.ticket.domain.User;
 import sn.trivial.ticket.repository.ClientRepository;
 import sn.trivial.ticket.security.AuthoritiesConstants;
 import sn.trivial.ticket.service.ClientService;
+import sn.trivial.ticket.service.IdentityService;
 import sn.trivial.ticket.service.MailService;
 import sn.trivial.ticket.service.UserService;
 import sn.trivial.ticket.service.dto.AdminUserDTO;
@@ -41,18 +42,22 @@ public class ClientServiceImpl implements ClientService {
 
     private final MailService mailService;
 
+    private final IdentityService identityService;
+
     public ClientServiceImpl(
         ClientRepository clientRepository,
         ClientMapper clientMapper,
         UserMapper userMapper,
         UserService userService,
-        MailService mailService
+        MailService mailService,
+        IdentityService identityService
     ) {
         this.clientRepository = clientRepository;
         this.clientMapper = clientMapper;
         this.userMapper = userMapper;
         this.userService = userService;
         this.mailService = mailService;
+        this.identityService = identityService;
     }
 
     @Override
@@ -60,6 +65,7 @@ public class ClientServiceImpl implements ClientService {
         log.debug("Request to save Client : {}", clientDTO);
         Client client = clientMapper.toEntity(clientDTO);
         client = clientRepository.save(client);
+        evictIdentity(client.getId());
         return clientMapper.toDto(client);
     }
 
@@ -67,7 +73,9 @@ public class ClientServiceImpl implements ClientService {
     public ClientDTO update(ClientDTO clientDTO) {
         log.debug("Request to update Client : {}", clientDTO);
         Client client = clientMapper.toEntity(clientDTO);
+        evictIdentity(client.getId());
         client = clientRepository.save(client);
+        evictIdentity(client.getId());
         return clientMapper.toDto(client);
     }
 
@@ -78,12 +86,16 @@ public class ClientServiceImpl implements ClientService {
         return clientRepository
             .findById(clientDTO.getId())
             .map(existingClient -> {
+                evictIdentity(existingClient.getId());
                 clientMapper.partialUpdate(existingClient, clientDTO);
 
                 return existingClient;
             })
             .map(clientRepository::save)
-            .map(clientMapper::toDto);
+            .map(savedClient -> {
+                evictIdentity(savedClient.getId());
+                return clientMapper.toDto(savedClient);
+            });
     }
 
     @Override
@@ -107,6 +119,7 @@ public class ClientServiceImpl implements ClientService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Client : {}", id);
+        evictIdentity(id);
         clientRepository.deleteById(id);
     }
 
@@ -138,4 +151,13 @@ public class ClientServiceImpl implements ClientService {
         clientDTO.setUser(userMapper.toDtoLogin(newUser));
         return save(clientDTO);
     }
+
+    /**
+     * Evict the cached identity of the user linked to the client, as its client id is part of it.
+     */
+    private void evictIdentity(Long clientId) {
+        if (clientId != null) {
+            clientRepository.findUserLoginById(clientId).ifPresent(identityService::evict);
+        }
+    }
 }
@@ -3,14 +3,18 @@ package sn.trivial.ticket.service.impl;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sn.trivial.ticket.domain.Message;
 import sn.trivial.ticket.repository.MessageRepository;
+import sn.trivial.ticket.repository.TicketRepository;
 import sn.trivial.ticket.service.MessageService;
+import sn.trivial.ticket.service.TicketArchiveService;
 import sn.trivial.ticket.service.dto.MessageDTO;
+import sn.trivial.ticket.service.dto.TicketEventDTO;
 import sn.trivial.ticket.service.mapper.MessageMapper;
 
 /**
@@ -26,9 +30,24 @@ public class MessageServiceImpl implements MessageService {
 
     private final MessageMapper messageMapper;
 
-    public MessageServiceImpl(MessageRepository messageRepository, MessageMapper messageMapper) {
+    private final TicketRepository ticketRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final TicketArchiveService ticketArchiveService;
+
+    public MessageServiceImpl(
+        MessageRepository messageRepository,
+        MessageMapper messageMapper,
+        TicketRepository ticketRepository,
+        ApplicationEventPublisher applicationEventPublisher,
+        TicketArchiveService ticketArchiveService
+    ) {
         this.messageRepository = messageRepository;
         this.messageMapper = messageMapper;
+        this.ticketRepository = ticketRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.ticketArchiveService = ticketArchiveService;
     }
 
     @Override
@@ -36,9 +55,34 @@ public class MessageServiceImpl implements MessageService {
         log.debug("Request to save Message : {}", messageDTO);
         Message message = messageMapper.toEntity(messageDTO);
         message = messageRepository.save(message);
+        if (messageDTO.getTicket() != null) {
+            publishMessageSent(message.getId(), messageDTO.getTicket().getId());
+        }
         return messageMapper.toDto(message);
     }
 
+    /**
+     * Publish the new message of a ticket, pushed to the users of the ticket once the transaction commits.
+     * <p>
+     * The ticket is usually in the persistence context already, having been changed by the same transaction.
+     */
+    private void publishMessageSent(Long messageId, Long ticketId) {
+        ticketRepository
+            .findById(ticketId)
+            .ifPresent(ticket ->
+                applicationEventPublisher.publishEvent(
+                    new TicketEventDTO(
+                        TicketEventDTO.Type.MESSAGE_SENT,
+                        ticketId,
+                        ticket.getStatus(),
+                        messageId,
+                        ticket.getIssuedBy() == null ? null : ticket.getIssuedBy().getId(),
+                        ticket.getAssignedTo() == null ? null : ticket.getAssignedTo().getId()
+                    )
+                )
+            );
+    }
+
     @Override
     public MessageDTO update(MessageDTO messageDTO) {
         log.debug("Request to update Message : {}", messageDTO);
@@ -73,7 +117,7 @@ public class MessageServiceImpl implements MessageService {
     @Transactional(readOnly = true)
     public Optional<MessageDTO> findOne(Long id) {
         log.debug("Request to get Message : {}", id);
-        return messageRepository.findById(id).map(messageMapper::toDto);
+        return messageRepository.findById(id).map(messageMapper::toDto).or(() -> ticketArchiveService.findMessage(id));
     }
 
     @Override
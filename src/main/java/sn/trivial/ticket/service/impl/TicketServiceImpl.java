@@ -1,31 +1,42 @@
 package sn.trivial.ticket.service.impl;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
 import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.config.Constants;
+import sn.trivial.ticket.domain.Agent;
 import sn.trivial.ticket.domain.Ticket;
 import sn.trivial.ticket.domain.User;
 import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.AgentRepository;
 import sn.trivial.ticket.repository.TicketRepository;
 import sn.trivial.ticket.security.AuthoritiesConstants;
+import sn.trivial.ticket.security.SecurityUtils;
 import sn.trivial.ticket.service.*;
+import sn.trivial.ticket.service.TicketStatusMachine.Role;
 import sn.trivial.ticket.service.dto.AdminUserDTO;
 import sn.trivial.ticket.service.dto.AgentDTO;
+import sn.trivial.ticket.service.dto.ClientDTO;
+import sn.trivial.ticket.service.dto.IdentityDTO;
 import sn.trivial.ticket.service.dto.MessageDTO;
 import sn.trivial.ticket.service.dto.TicketDTO;
+import sn.trivial.ticket.service.dto.TicketEventDTO;
+import sn.trivial.ticket.service.dto.TicketSummaryDTO;
 import sn.trivial.ticket.service.mapper.TicketMapper;
 import sn.trivial.ticket.service.mapper.UserMapper;
 import sn.trivial.ticket.web.rest.errors.BadRequestAlertException;
@@ -43,36 +54,70 @@ public class TicketServiceImpl implements TicketService {
 
     private final Logger log = LoggerFactory.getLogger(TicketServiceImpl.class);
 
+    /**
+     * Statuses of a ticket that is assigned to an agent and not closed yet.
+     */
+    private static final Set<TicketStatus> ASSIGNED_STATUSES = EnumSet.of(
+        TicketStatus.BEING_TREATED,
+        TicketStatus.PENDING,
+        TicketStatus.DO_NOT_TREAT,
+        TicketStatus.TREATED
+    );
+
     private final TicketRepository ticketRepository;
 
     private final TicketMapper ticketMapper;
 
     private final UserService userService;
 
-    private final ClientService clientService;
-
     private final AgentService agentService;
 
     private final MessageService messageService;
 
     private final UserMapper userMapper;
 
+    private final IdentityService identityService;
+
+    private final TicketStatusMachine ticketStatusMachine;
+
+    private final AgentRepository agentRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final TicketCountService ticketCountService;
+
+    private final TicketArchiveService ticketArchiveService;
+
     public TicketServiceImpl(
         TicketRepository ticketRepository,
         TicketMapper ticketMapper,
         UserService userService,
-        ClientService clientService,
         AgentService agentService,
         MessageService messageService,
-        UserMapper userMapper
+        UserMapper userMapper,
+        IdentityService identityService,
+        TicketStatusMachine ticketStatusMachine,
+        AgentRepository agentRepository,
+        ApplicationProperties applicationProperties,
+        ApplicationEventPublisher applicationEventPublisher,
+        TicketCountService ticketCountService,
+        TicketArchiveService ticketArchiveService
     ) {
         this.ticketRepository = ticketRepository;
         this.ticketMapper = ticketMapper;
         this.userService = userService;
-        this.clientService = clientService;
         this.agentService = agentService;
         this.messageService = messageService;
         this.userMapper = userMapper;
+        this.identityService = identityService;
+        this.ticketStatusMachine = ticketStatusMachine;
+        this.agentRepository = agentRepository;
+        this.applicationProperties = applicationProperties;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.ticketCountService = ticketCountService;
+        this.ticketArchiveService = ticketArchiveService;
     }
 
     @Override
@@ -117,7 +162,7 @@ public class TicketServiceImpl implements TicketService {
     @Transactional(readOnly = true)
     public Optional<TicketDTO> findOne(Long id) {
         log.debug("Request to get Ticket : {}", id);
-        return ticketRepository.findById(id).map(ticketMapper::toDto);
+        return ticketRepository.findById(id).map(ticketMapper::toDto).or(() -> ticketArchiveService.findOne(id));
     }
 
     @Override
@@ -129,13 +174,18 @@ public class TicketServiceImpl implements TicketService {
     @Override
     public List<TicketDTO> findTicketsOfConnectedClient() {
         log.debug("Request to get tickets of connected Client");
-        User user = userService.getUserWithAuthorities().get();
-
-        Long clientId = clientService.findByUser_Login(user.getLogin()).get().getId();
+        Long clientId = connectedClient().getClientId();
 
         return ticketRepository.findByIssuedBy_Id(clientId).stream().map(ticketMapper::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TicketSummaryDTO> findTicketSummariesOfConnectedClient() {
+        log.debug("Request to get the summaries of the tickets of connected Client");
+        return ticketRepository.findSummariesByIssuedById(connectedClient().getClientId());
+    }
+
     @Override
     public TicketDTO createTicketWithConnectedClient(TicketIssueDescriptionAndMessageVM ticketIssueDescriptionAndMessageVM) {
         log.debug(
@@ -146,27 +196,29 @@ public class TicketServiceImpl implements TicketService {
         String issueDescription = ticketIssueDescriptionAndMessageVM.getIssueDescription();
         String messageContent = ticketIssueDescriptionAndMessageVM.getMessageContent();
 
-        User user = userService.getUserWithAuthorities().get();
+        IdentityDTO identity = connectedClient();
+        ClientDTO issuedBy = new ClientDTO();
+        issuedBy.setId(identity.getClientId());
 
         TicketDTO ticketDTO = new TicketDTO();
-        ticketDTO.setIssuedBy(clientService.findByUser_Login(user.getLogin()).get());
+        ticketDTO.setIssuedBy(issuedBy);
         ticketDTO.setIssuedAt(Instant.now());
-        ticketDTO.setCode(String.format("T-%s-%s", user.getId(), UUID.randomUUID()));
+        ticketDTO.setCode(String.format("T-%s-%s", identity.getUserId(), UUID.randomUUID()));
         ticketDTO.setStatus(TicketStatus.RECEIVED);
         ticketDTO.setIssueDescription(issueDescription);
 
         //the "no_agent" agent should always exist
-        Optional<AgentDTO> noAgent = agentService.findByUser_Login("no_agent");
+        Optional<AgentDTO> noAgent = agentService.findByUser_Login(Constants.NO_AGENT_LOGIN);
         if (noAgent.isEmpty()) {
             AdminUserDTO adminUserDTO = new AdminUserDTO();
-            adminUserDTO.setLogin("no_agent");
+            adminUserDTO.setLogin(Constants.NO_AGENT_LOGIN);
             adminUserDTO.setAuthorities(Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.AGENT));
             adminUserDTO.setLangKey("en");
             adminUserDTO.setActivated(true);
 
             AgentDTO na = new AgentDTO();
-            na.setFirstName("no_agent");
-            na.setLastName("no_agent");
+            na.setFirstName(Constants.NO_AGENT_LOGIN);
+            na.setLastName(Constants.NO_AGENT_LOGIN);
             na.setEmail("no_agent@no_agent.com");
 
             User newUser = userService.registerUser(adminUserDTO, UUID.randomUUID().toString());
@@ -179,11 +231,12 @@ public class TicketServiceImpl implements TicketService {
         Ticket ticket = ticketMapper.toEntity(ticketDTO);
         ticket = ticketRepository.save(ticket);
         ticketDTO = ticketMapper.toDto(ticket);
+        publishEvent(TicketEventDTO.Type.CREATED, ticketDTO);
 
         MessageDTO messageDTO = new MessageDTO();
         messageDTO.setTicket(ticketDTO);
         messageDTO.setContent(messageContent.trim());
-        messageDTO.setSentBy(userMapper.toDtoId(user));
+        messageDTO.setSentBy(identity.toUserDTO());
         messageDTO.setSentAt(Instant.now());
         messageService.save(messageDTO);
 
@@ -191,13 +244,14 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<TicketDTO> findOneTicketOfConnectedClient(Long ticketId) {
         log.debug("Request to get Ticket : {} if created by connected Client", ticketId);
-
-        Optional<TicketDTO> optionalTicketDTO = this.findOne(ticketId);
-        if (optionalTicketDTO.isEmpty()) return optionalTicketDTO;
-
-        return isIssuedByConnectedUser(ticketId) ? optionalTicketDTO : Optional.empty();
+        String login = SecurityUtils.getCurrentUserLogin().orElseThrow();
+        return ticketRepository
+            .findByIdAndIssuedBy_User_Login(ticketId, login)
+            .map(ticketMapper::toDto)
+            .or(() -> findArchivedTicketOfConnectedClient(ticketId));
     }
 
     @Override
@@ -221,13 +275,7 @@ public class TicketServiceImpl implements TicketService {
         TicketStatus oldStatus = optionalTicketDTO.get().getStatus();
         TicketStatus newStatus = changeTicketStatusVM.getTicketStatus();
 
-        Multimap<TicketStatus, TicketStatus> allowedTransitions = ArrayListMultimap.create();
-        allowedTransitions.put(TicketStatus.RECEIVED, TicketStatus.CLOSED);
-        allowedTransitions.put(TicketStatus.DO_NOT_TREAT, TicketStatus.CLOSED);
-        allowedTransitions.put(TicketStatus.TREATED, TicketStatus.CLOSED);
-        allowedTransitions.put(TicketStatus.TREATED, TicketStatus.BEING_TREATED);
-
-        if (!allowedTransitions.get(oldStatus).contains(newStatus)) throw new BadRequestAlertException(
+        if (!ticketStatusMachine.canTransition(Role.CLIENT, oldStatus, newStatus)) throw new BadRequestAlertException(
             String.format("Transition not allowed to clients, from %s to %s on Ticket: %d", oldStatus, newStatus, ticketId),
             "ticket",
             "transitionnotallowed"
@@ -245,48 +293,48 @@ public class TicketServiceImpl implements TicketService {
         TicketDTO ticketDTO = optionalTicketDTO.get();
         ticketDTO.setStatus(newStatus);
         Ticket ticket = ticketMapper.toEntity(ticketDTO);
-        return ticketMapper.toDto(ticketRepository.save(ticket));
+        ticketDTO = ticketMapper.toDto(ticketRepository.save(ticket));
+        ticketStatusMachine.onTransition(ticketId, Role.CLIENT, oldStatus, newStatus);
+        publishEvent(TicketEventDTO.Type.STATUS_CHANGED, ticketDTO);
+        return ticketDTO;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Boolean isIssuedBySpecificClient(Long ticketId, Long clienId) {
-        Optional<TicketDTO> optionalTicketDTO = this.findOne(ticketId);
-        if (optionalTicketDTO.isEmpty()) return false;
-
-        Long ticketOwnerClientId = optionalTicketDTO.get().getIssuedBy().getId();
-        return ticketOwnerClientId.equals(clienId);
+        return ticketRepository.existsByIdAndIssuedBy_Id(ticketId, clienId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Boolean isIssuedBySpecificUser(Long ticketId, Long userId) {
-        Optional<TicketDTO> optionalTicketDTO = this.findOne(ticketId);
-        if (optionalTicketDTO.isEmpty()) return false;
-
-        Long ticketOwnerClientId = optionalTicketDTO.get().getIssuedBy().getId();
-        Long ticketOwnerUserId = clientService.findOne(ticketOwnerClientId).get().getUser().getId();
-        return ticketOwnerUserId.equals(userId);
+        return ticketRepository.existsByIdAndIssuedBy_User_Id(ticketId, userId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Boolean isAssignedToSpecificUser(Long ticketId, Long userId) {
-        Optional<TicketDTO> optionalTicketDTO = this.findOne(ticketId);
-        if (optionalTicketDTO.isEmpty()) return false;
-
-        Long ticketAssignedToAgentId = optionalTicketDTO.get().getAssignedTo().getId();
-        Long ticketAssignedToUserId = agentService.findOne(ticketAssignedToAgentId).get().getUser().getId();
-        return ticketAssignedToUserId.equals(userId);
+        return ticketRepository.existsByIdAndAssignedTo_User_Id(ticketId, userId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Boolean isIssuedByConnectedUser(Long ticketId) {
-        Long connectedUserId = userService.getUserWithAuthorities().get().getId();
-        return isIssuedBySpecificUser(ticketId, connectedUserId);
+        return SecurityUtils
+            .getCurrentUserLogin()
+            .map(login -> ticketRepository.existsByIdAndIssuedBy_User_Login(ticketId, login))
+            .filter(Boolean::booleanValue)
+            .orElseGet(() -> findArchivedTicketOfConnectedClient(ticketId).isPresent());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Boolean isAssignedToConnectedUser(Long ticketId) {
-        Long connectedUserId = userService.getUserWithAuthorities().get().getId();
-        return isAssignedToSpecificUser(ticketId, connectedUserId);
+        return SecurityUtils
+            .getCurrentUserLogin()
+            .map(login -> ticketRepository.existsByIdAndAssignedTo_User_Login(ticketId, login))
+            .filter(Boolean::booleanValue)
+            .orElseGet(() -> findArchivedTicketOfConnectedAgent(ticketId).isPresent());
     }
 
     @Override
@@ -326,34 +374,51 @@ public class TicketServiceImpl implements TicketService {
         ticketDTO.setAssignedTo(optionalAgentDTO.get());
         ticketDTO.setStatus(TicketStatus.BEING_TREATED);
         Ticket ticket = ticketMapper.toEntity(ticketDTO);
-        return ticketMapper.toDto(ticketRepository.save(ticket));
+        ticketDTO = ticketMapper.toDto(ticketRepository.save(ticket));
+        ticketStatusMachine.onTransition(ticketId, Role.ADMIN, TicketStatus.RECEIVED, TicketStatus.BEING_TREATED);
+        publishEvent(TicketEventDTO.Type.ASSIGNED, ticketDTO);
+        return ticketDTO;
     }
 
     @Override
-    public List<TicketDTO> findAllAssignedToAgent(Long agentId) {
-        log.debug("Request to get all Tickets assigned to Agent : {}", agentId);
+    @Transactional(readOnly = true)
+    public Page<TicketDTO> findAllAssignedToAgent(Long agentId, Pageable pageable) {
+        log.debug("Request to get a page of the Tickets assigned to Agent : {}", agentId);
+        return ticketRepository.findAllByAssignedTo_IdAndStatusIn(agentId, ASSIGNED_STATUSES, pageable).map(ticketMapper::toDto);
+    }
 
-        return findAllAssigned()
-            .stream()
-            .filter(ticketDTO -> ticketDTO.getAssignedTo().getId().equals(agentId))
-            .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryDTO> findAllSummariesAssignedToAgent(Long agentId, Pageable pageable) {
+        log.debug("Request to get a page of the summaries of the Tickets assigned to Agent : {}", agentId);
+        return ticketRepository.findSummariesByAssignedToIdAndStatusIn(agentId, ASSIGNED_STATUSES, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Long countAllAssignedToAgent(Long agentId) {
         log.debug("Request to count all Tickets assigned to Agent : {}", agentId);
-
-        //return findAllAssignedToAgent(agentId).size();
-        return findAllAssigned().stream().filter(ticketDTO -> ticketDTO.getAssignedTo().getId().equals(agentId)).count();
+        return ticketCountService.countAssignedToAgent(agentId, ASSIGNED_STATUSES);
     }
 
     @Override
     public Long countAllAssigned() {
         log.debug("Request to count all assigned and not closed Tickets");
-        Predicate<Ticket> isAssignedPredicate = ticket ->
-            !ticket.getStatus().equals(TicketStatus.RECEIVED) && !ticket.getStatus().equals(TicketStatus.CLOSED);
+        return ticketCountService.count(ASSIGNED_STATUSES);
+    }
 
-        return ticketRepository.findAll().stream().filter(isAssignedPredicate).count();
+    @Override
+    @Transactional(readOnly = true)
+    public Long countAllOpenIssuedByClient(Long clientId) {
+        log.debug("Request to count all not closed Tickets issued by Client : {}", clientId);
+        return ticketCountService.countIssuedByClient(clientId, EnumSet.complementOf(EnumSet.of(TicketStatus.CLOSED)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<TicketStatus, Long> countAllByStatus() {
+        log.debug("Request to count all Tickets by status");
+        return ticketCountService.countByStatus();
     }
 
     @Override
@@ -367,11 +432,11 @@ public class TicketServiceImpl implements TicketService {
         //check if the ticket exists
         Optional<TicketDTO> optionalTicketDTO = findOne(ticketId);
 
-        return optionalTicketDTO
-            .filter(ticketDTO ->
-                Stream.of(TicketStatus.TREATED, TicketStatus.PENDING).anyMatch(allowedStatus -> ticketDTO.getStatus().equals(allowedStatus))
-            )
-            .isPresent();
+        return optionalTicketDTO.filter(this::isClientTurn).isPresent();
+    }
+
+    private boolean isClientTurn(TicketDTO ticketDTO) {
+        return ticketStatusMachine.whoseTurn(ticketDTO.getStatus()) == Role.CLIENT;
     }
 
     @Override
@@ -389,46 +454,56 @@ public class TicketServiceImpl implements TicketService {
             "ticketnotfound"
         );
 
-        //check if it is the client turn to send a message
-        if (!isClientTurn(ticketId)) throw new BadRequestAlertException(
+        //check if it is the client turn to send a message, on the ticket already loaded above
+        TicketDTO ticketDTO = optionalTicketDTO.get();
+        TicketStatus oldStatus = ticketDTO.getStatus();
+        if (!ticketStatusMachine.canReply(Role.CLIENT, oldStatus, TicketStatus.BEING_TREATED)) throw new BadRequestAlertException(
             String.format("It is not to the connected client's turn to send a message on the ticket: %s", ticketId),
             "message",
             "notclientturn"
         );
 
         //effectively persist the message
-        User user = userService.getUserWithAuthorities().get();
         MessageDTO messageDTO = new MessageDTO();
         messageDTO.setContent(messageContent);
         messageDTO.setSentAt(Instant.now());
-        messageDTO.setSentBy(userMapper.toDtoLogin(user));
-        messageDTO.setTicket(optionalTicketDTO.get());
+        messageDTO.setSentBy(connectedClient().toUserDTO());
+        messageDTO.setTicket(ticketDTO);
 
-        TicketDTO ticketDTO = optionalTicketDTO.get();
         ticketDTO.setStatus(TicketStatus.BEING_TREATED);
 
         save(ticketDTO);
+        ticketStatusMachine.onTransition(ticketId, Role.CLIENT, oldStatus, TicketStatus.BEING_TREATED);
+        publishEvent(TicketEventDTO.Type.STATUS_CHANGED, ticketDTO);
         return messageService.save(messageDTO);
     }
 
     @Override
-    public List<TicketDTO> findAllUnassigned() {
-        log.debug("Request to get all the unassigned tickets");
-        return ticketRepository
-            .findAll()
-            .stream()
-            .filter(ticket -> ticket.getStatus().equals(TicketStatus.RECEIVED))
-            .map(ticketMapper::toDto)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<TicketDTO> findAllUnassigned(Pageable pageable) {
+        log.debug("Request to get a page of the unassigned tickets");
+        return ticketRepository.findAllByStatus(TicketStatus.RECEIVED, pageable).map(ticketMapper::toDto);
     }
 
     @Override
-    public List<TicketDTO> findAllAssigned() {
-        log.debug("Request to get all the assigned tickets");
-        Predicate<Ticket> isAssignedPredicate = ticket ->
-            !ticket.getStatus().equals(TicketStatus.RECEIVED) && !ticket.getStatus().equals(TicketStatus.CLOSED);
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryDTO> findAllUnassignedSummaries(Pageable pageable) {
+        log.debug("Request to get a page of the summaries of the unassigned tickets");
+        return ticketRepository.findSummariesByStatus(TicketStatus.RECEIVED, pageable);
+    }
 
-        return ticketRepository.findAll().stream().filter(isAssignedPredicate).map(ticketMapper::toDto).collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TicketDTO> findAllAssigned(Pageable pageable) {
+        log.debug("Request to get a page of the assigned tickets");
+        return ticketRepository.findAllByStatusIn(ASSIGNED_STATUSES, pageable).map(ticketMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryDTO> findAllAssignedSummaries(Pageable pageable) {
+        log.debug("Request to get a page of the summaries of the assigned tickets");
+        return ticketRepository.findSummariesByStatusIn(ASSIGNED_STATUSES, pageable);
     }
 
     @Override
@@ -436,54 +511,88 @@ public class TicketServiceImpl implements TicketService {
         log.debug("Request to self assign ticket: {}", ticketId);
 
         //check if the ticket exists and is unassigned
-        Optional<TicketDTO> optionalTicketDTO = findAllUnassigned()
-            .stream()
-            .filter(ticketDTO -> ticketDTO.getId().equals(ticketId))
-            .findFirst();
-
-        if (optionalTicketDTO.isEmpty()) throw new BadRequestAlertException(
-            String.format("Ticket %d not found or already assigned", ticketId),
+        Optional<Ticket> optionalTicket = ticketRepository.findById(ticketId);
+        if (optionalTicket.isEmpty()) throw new BadRequestAlertException(
+            String.format("Ticket %d not found", ticketId),
             "ticket",
             "ticketnotfound"
         );
+        if (optionalTicket.get().getStatus() != TicketStatus.RECEIVED) throw ticketAlreadyClaimed(ticketId);
+
+        //effectively assign the ticket: the update only matches if the ticket is still unassigned
+        Ticket ticket = optionalTicket.get();
+        claim(ticket, agentRepository.getReferenceById(connectedAgent().getAgentId()));
+        try {
+            ticketRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw ticketAlreadyClaimed(ticketId);
+        }
 
-        //effectively assign the ticket
-        TicketDTO ticketDTO = optionalTicketDTO.get();
-        User user = userService.getUserWithAuthorities().get();
-        ticketDTO.setAssignedTo(agentService.findByUser_Login(user.getLogin()).get());
-        ticketDTO.setStatus(TicketStatus.PENDING);
+        ticketStatusMachine.onTransition(ticketId, Role.AGENT, TicketStatus.RECEIVED, TicketStatus.PENDING);
+        TicketDTO ticketDTO = ticketMapper.toDto(ticket);
+        publishEvent(TicketEventDTO.Type.ASSIGNED, ticketDTO);
+        return ticketDTO;
+    }
+
+    @Override
+    public List<TicketDTO> claimNextTickets(int count) {
+        log.debug("Request to claim the next {} unassigned tickets", count);
+
+        if (count < 1) throw new BadRequestAlertException(
+            String.format("Cannot claim %d tickets", count),
+            "ticket",
+            "invalidclaimcount"
+        );
+
+        Agent agent = agentRepository.getReferenceById(connectedAgent().getAgentId());
+        List<Ticket> tickets = ticketRepository.findOldestByStatusForUpdateSkipLocked(
+            TicketStatus.RECEIVED,
+            PageRequest.of(0, Math.min(count, applicationProperties.getDispatcher().getMaxClaimSize()))
+        );
+        tickets.forEach(ticket -> claim(ticket, agent));
+        ticketRepository.flush();
+
+        List<TicketDTO> ticketDTOs = tickets.stream().map(ticketMapper::toDto).collect(Collectors.toList());
+        for (TicketDTO ticketDTO : ticketDTOs) {
+            ticketStatusMachine.onTransition(ticketDTO.getId(), Role.AGENT, TicketStatus.RECEIVED, TicketStatus.PENDING);
+            publishEvent(TicketEventDTO.Type.ASSIGNED, ticketDTO);
+        }
+        return ticketDTOs;
+    }
+
+    private void claim(Ticket ticket, Agent agent) {
+        ticket.setAssignedTo(agent);
+        ticket.setStatus(TicketStatus.PENDING);
+    }
 
-        return save(ticketDTO);
+    private BadRequestAlertException ticketAlreadyClaimed(Long ticketId) {
+        return new BadRequestAlertException(String.format("Ticket %d already claimed", ticketId), "ticket", "ticketalreadyclaimed");
     }
 
     @Override
-    public List<TicketDTO> findAllAssignedToConnectedAgent() {
-        log.debug("Request to get all the assigned tickets to the connected agent");
-        User user = userService.getUserWithAuthorities().get();
+    @Transactional(readOnly = true)
+    public Page<TicketDTO> findAllAssignedToConnectedAgent(Pageable pageable) {
+        log.debug("Request to get a page of the assigned tickets to the connected agent");
+        Long agentId = connectedAgent().getAgentId();
+        return ticketRepository.findAllByAssignedTo_IdAndStatusIn(agentId, ASSIGNED_STATUSES, pageable).map(ticketMapper::toDto);
+    }
 
-        return findAllAssigned()
-            .stream()
-            .filter(ticketDTO -> {
-                Long agentId = ticketDTO.getAssignedTo().getId();
-                return agentService.findOne(agentId).get().getUser().getLogin().equals(user.getLogin());
-            })
-            .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TicketSummaryDTO> findAllSummariesAssignedToConnectedAgent(Pageable pageable) {
+        log.debug("Request to get a page of the summaries of the assigned tickets to the connected agent");
+        return ticketRepository.findSummariesByAssignedToIdAndStatusIn(connectedAgent().getAgentId(), ASSIGNED_STATUSES, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<TicketDTO> findSpecificAssignedToConnectedAgent(Long ticketId) {
         log.debug("Request to get a specific assigned ticket to the connected agent. ticketId: {}", ticketId);
-        Optional<TicketDTO> optionalTicketDTO = findOne(ticketId);
-        if (optionalTicketDTO.isEmpty()) return Optional.empty();
-
-        TicketDTO ticketDTO = optionalTicketDTO.get();
-        Long agentId = ticketDTO.getAssignedTo().getId();
-        User user = userService.getUserWithAuthorities().get();
-
-        return agentService
-            .findOne(agentId)
-            .filter(agentDTO -> agentDTO.getUser().getLogin().equals(user.getLogin()))
-            .map(agentDTO -> ticketDTO);
+        String login = SecurityUtils.getCurrentUserLogin().orElseThrow();
+        return ticketRepository
+            .findByIdAndAssignedTo_User_Login(ticketId, login)
+            .map(ticketMapper::toDto)
+            .or(() -> findArchivedTicketOfConnectedAgent(ticketId));
     }
 
     @Override
@@ -500,8 +609,8 @@ public class TicketServiceImpl implements TicketService {
             "ticketnotfound"
         );
 
-        //check if it is the agent turn to send a message
-        if (isClientTurn(ticketId)) throw new BadRequestAlertException(
+        //check if it is the agent turn to send a message, on the ticket already loaded above
+        if (isClientTurn(optionalTicketDTO.get())) throw new BadRequestAlertException(
             String.format("It is not to the connected agent's turn to send a message on the ticket: %s", ticketId),
             "message",
             "notagentturn"
@@ -512,32 +621,75 @@ public class TicketServiceImpl implements TicketService {
         TicketStatus oldStatus = ticketDTO.getStatus();
         TicketStatus newStatus = messageContentAndNewTicketStatusVM.getNewTicketStatus();
 
-        Multimap<TicketStatus, TicketStatus> allowedTransitions = ArrayListMultimap.create();
-        allowedTransitions.put(TicketStatus.BEING_TREATED, TicketStatus.PENDING);
-        allowedTransitions.put(TicketStatus.BEING_TREATED, TicketStatus.DO_NOT_TREAT);
-        allowedTransitions.put(TicketStatus.PENDING, TicketStatus.CLOSED);
-        allowedTransitions.put(TicketStatus.DO_NOT_TREAT, TicketStatus.CLOSED);
-        allowedTransitions.put(TicketStatus.TREATED, TicketStatus.CLOSED);
-
-        if (!allowedTransitions.get(oldStatus).contains(newStatus)) throw new BadRequestAlertException(
+        if (!ticketStatusMachine.canTransition(Role.AGENT, oldStatus, newStatus)) throw new BadRequestAlertException(
             String.format("The transition of statuses from %s to %s is not allowed", oldStatus, newStatus),
             "message",
             "invalidtransition"
         );
 
         //effectively send the message
-        User user = userService.getUserWithAuthorities().get();
         MessageDTO messageDTO = new MessageDTO();
         String messageContent = messageContentAndNewTicketStatusVM.getMessageContent();
 
         messageDTO.setContent(messageContent);
         messageDTO.setSentAt(Instant.now());
-        messageDTO.setSentBy(userMapper.toDtoLogin(user));
+        messageDTO.setSentBy(connectedAgent().toUserDTO());
         messageDTO.setTicket(ticketDTO);
 
         ticketDTO.setStatus(newStatus);
 
         save(ticketDTO);
+        ticketStatusMachine.onTransition(ticketId, Role.AGENT, oldStatus, newStatus);
+        publishEvent(TicketEventDTO.Type.STATUS_CHANGED, ticketDTO);
         return messageService.save(messageDTO);
     }
+
+    /**
+     * @return the archived ticket, if issued by the connected user.
+     */
+    private Optional<TicketDTO> findArchivedTicketOfConnectedClient(Long ticketId) {
+        return identityService
+            .getCurrentIdentity()
+            .filter(IdentityDTO::isClient)
+            .flatMap(identity ->
+                ticketArchiveService
+                    .findOne(ticketId)
+                    .filter(ticket -> ticket.getIssuedBy() != null && identity.getClientId().equals(ticket.getIssuedBy().getId()))
+            );
+    }
+
+    /**
+     * @return the archived ticket, if assigned to the connected user.
+     */
+    private Optional<TicketDTO> findArchivedTicketOfConnectedAgent(Long ticketId) {
+        return identityService
+            .getCurrentIdentity()
+            .filter(IdentityDTO::isAgent)
+            .flatMap(identity ->
+                ticketArchiveService
+                    .findOne(ticketId)
+                    .filter(ticket -> ticket.getAssignedTo() != null && identity.getAgentId().equals(ticket.getAssignedTo().getId()))
+            );
+    }
+
+    /**
+     * Publish the change of a ticket, pushed to its users once the transaction commits.
+     */
+    private void publishEvent(TicketEventDTO.Type type, TicketDTO ticketDTO) {
+        applicationEventPublisher.publishEvent(TicketEventDTO.of(type, ticketDTO));
+    }
+
+    /**
+     * @return the cached identity of the connected user, who must be a client.
+     */
+    private IdentityDTO connectedClient() {
+        return identityService.getCurrentIdentity().filter(IdentityDTO::isClient).orElseThrow();
+    }
+
+    /**
+     * @return the cached identity of the connected user, who must be an agent.
+     */
+    private IdentityDTO connectedAgent() {
+        return identityService.getCurrentIdentity().filter(IdentityDTO::isAgent).orElseThrow();
+    }
 }
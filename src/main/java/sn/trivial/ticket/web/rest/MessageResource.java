@@ -203,44 +203,68 @@ public class MessageResource {
 
     /* Custom */
     /**
-     * {@code POST  /messages/tickets/{id}/clients} : Get all messages of the "id" ticket in chronological order.
+     * {@code GET  /messages/tickets/{id}/clients} : Get a page of the messages of the "id" ticket in chronological order.
      *
      * @param id the id of the ticket.
+     * @param before if set, only the messages sent before this message are returned.
+     * @param after if set, only the messages sent after this message are returned, to poll for new messages.
+     * @param size the maximum number of messages to return.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of messages in body.
      */
     @GetMapping("/messages/tickets/{id}/clients")
-    public ResponseEntity<List<MessageDTO>> getDiscussionOfOneTicketOfClient(@PathVariable Long id) {
-        log.debug("REST request to get all messages of one ticket in chronological order");
+    public ResponseEntity<List<MessageDTO>> getDiscussionOfOneTicketOfClient(
+        @PathVariable Long id,
+        @RequestParam(required = false) Long before,
+        @RequestParam(required = false) Long after,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of the messages of one ticket in chronological order");
 
-        List<MessageDTO> result = messageQueryService.findByCriteriaAndTicketIdForClient(id);
+        List<MessageDTO> result = messageQueryService.findByCriteriaAndTicketIdForClient(id, before, after, size);
         return ResponseEntity.ok().body(result);
     }
 
     /**
-     * {@code POST  /messages/tickets/{id}/agents} : Get all messages of the "id" ticket in chronological order.
+     * {@code GET  /messages/tickets/{id}/agents} : Get a page of the messages of the "id" ticket in chronological order.
      *
      * @param id the id of the ticket.
+     * @param before if set, only the messages sent before this message are returned.
+     * @param after if set, only the messages sent after this message are returned, to poll for new messages.
+     * @param size the maximum number of messages to return.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of messages in body.
      */
     @GetMapping("/messages/tickets/{id}/agents")
-    public ResponseEntity<List<MessageDTO>> getDiscussionOfOneTicketOfAgent(@PathVariable Long id) {
-        log.debug("REST request to get all messages of one ticket in chronological order");
+    public ResponseEntity<List<MessageDTO>> getDiscussionOfOneTicketOfAgent(
+        @PathVariable Long id,
+        @RequestParam(required = false) Long before,
+        @RequestParam(required = false) Long after,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of the messages of one ticket in chronological order");
 
-        List<MessageDTO> result = messageQueryService.findByCriteriaAndTicketIdForAgent(id);
+        List<MessageDTO> result = messageQueryService.findByCriteriaAndTicketIdForAgent(id, before, after, size);
         return ResponseEntity.ok().body(result);
     }
 
     /**
-     * {@code POST  /messages/tickets/{id}/admin} : Get all messages of the "id" ticket in chronological order.
+     * {@code GET  /messages/tickets/{id}/admin} : Get a page of the messages of the "id" ticket in chronological order.
      *
      * @param id the id of the ticket.
+     * @param before if set, only the messages sent before this message are returned.
+     * @param after if set, only the messages sent after this message are returned, to poll for new messages.
+     * @param size the maximum number of messages to return.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of messages in body.
      */
     @GetMapping("/messages/tickets/{id}/admin")
-    public ResponseEntity<List<MessageDTO>> getDiscussionOfOneTicket(@PathVariable Long id) {
-        log.debug("REST request to get all messages of one ticket in chronological order");
+    public ResponseEntity<List<MessageDTO>> getDiscussionOfOneTicket(
+        @PathVariable Long id,
+        @RequestParam(required = false) Long before,
+        @RequestParam(required = false) Long after,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of the messages of one ticket in chronological order");
 
-        List<MessageDTO> result = messageQueryService.findByCriteriaAndTicketId(id);
+        List<MessageDTO> result = messageQueryService.findByCriteriaAndTicketId(id, before, after, size);
         return ResponseEntity.ok().body(result);
     }
 }
@@ -0,0 +1,57 @@
+package sn.trivial.ticket.web.rest;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import sn.trivial.ticket.service.SearchService;
+import sn.trivial.ticket.service.dto.SearchHitDTO;
+import sn.trivial.ticket.web.rest.errors.BadRequestAlertException;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for the full-text search over the {@link sn.trivial.ticket.domain.Ticket}s and their
+ * {@link sn.trivial.ticket.domain.Message}s.
+ */
+@RestController
+@RequestMapping("/api")
+public class SearchResource {
+
+    private final Logger log = LoggerFactory.getLogger(SearchResource.class);
+
+    private final SearchService searchService;
+
+    public SearchResource(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * {@code GET  /search?q=:q} : search the ticket descriptions and the message contents visible to the connected user.
+     *
+     * @param q the searched text: words, {@code "quoted phrases"}, {@code or} and {@code -excluded} words.
+     * @param pageable the pagination information, the hits being sorted by rank.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of hits in body, best ranked first,
+     * or with status {@code 400 (Bad Request)} if the text is blank.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchHitDTO>> search(
+        @RequestParam String q,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search : {}", q);
+        if (q.isBlank()) {
+            throw new BadRequestAlertException("Cannot search a blank text", "search", "blanksearch");
+        }
+        Page<SearchHitDTO> page = searchService.search(q, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+}
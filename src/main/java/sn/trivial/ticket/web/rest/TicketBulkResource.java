@@ -0,0 +1,77 @@
+package sn.trivial.ticket.web.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.service.TicketBulkService;
+import sn.trivial.ticket.service.dto.TicketBulkResultDTO;
+import sn.trivial.ticket.web.rest.vm.TicketSelectionVM;
+
+/**
+ * REST controller for the bulk operations of the admins on the {@link sn.trivial.ticket.domain.Ticket}s.
+ * <p>
+ * The tickets are selected either by their ids or by the same criteria as {@code GET /tickets}, and every endpoint answers
+ * with the outcome of each selected ticket.
+ */
+@RestController
+@RequestMapping("/api")
+public class TicketBulkResource {
+
+    private final Logger log = LoggerFactory.getLogger(TicketBulkResource.class);
+
+    private final TicketBulkService ticketBulkService;
+
+    public TicketBulkResource(TicketBulkService ticketBulkService) {
+        this.ticketBulkService = ticketBulkService;
+    }
+
+    /**
+     * {@code POST  /tickets/admin/bulk/assign-agent/:agentId} : Assign the selected tickets to an agent.
+     *
+     * @param agentId the id of the agent.
+     * @param selection the ids of the tickets, or the criteria they match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the report of the operation in body,
+     * or with status {@code 400 (Bad Request)} if the agent does not exist or the selection is invalid.
+     */
+    @PostMapping("/tickets/admin/bulk/assign-agent/{agentId}")
+    public ResponseEntity<TicketBulkResultDTO> assignTicketsToAgent(@PathVariable Long agentId, @RequestBody TicketSelectionVM selection) {
+        log.debug("REST request to assign the Tickets of {} to Agent : {}", selection, agentId);
+        return ResponseEntity.ok().body(ticketBulkService.assignToAgent(selection, agentId));
+    }
+
+    /**
+     * {@code POST  /tickets/admin/bulk/change-status/:status} : Change the status of the selected tickets.
+     *
+     * @param status the new status of the tickets.
+     * @param selection the ids of the tickets, or the criteria they match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the report of the operation in body,
+     * or with status {@code 400 (Bad Request)} if the selection is invalid.
+     */
+    @PostMapping("/tickets/admin/bulk/change-status/{status}")
+    public ResponseEntity<TicketBulkResultDTO> changeTicketsStatus(
+        @PathVariable TicketStatus status,
+        @RequestBody TicketSelectionVM selection
+    ) {
+        log.debug("REST request to change the status of the Tickets of {} to {}", selection, status);
+        return ResponseEntity.ok().body(ticketBulkService.changeStatus(selection, status));
+    }
+
+    /**
+     * {@code POST  /tickets/admin/bulk/close} : Close the selected tickets.
+     *
+     * @param selection the ids of the tickets, or the criteria they match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the report of the operation in body,
+     * or with status {@code 400 (Bad Request)} if the selection is invalid.
+     */
+    @PostMapping("/tickets/admin/bulk/close")
+    public ResponseEntity<TicketBulkResultDTO> closeTickets(@RequestBody TicketSelectionVM selection) {
+        log.debug("REST request to close the Tickets of {}", selection);
+        return ResponseEntity.ok().body(ticketBulkService.close(selection));
+    }
+}
@@ -0,0 +1,92 @@
+package sn.trivial.ticket.web.rest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import sn.trivial.ticket.security.jwt.StreamTicketProvider;
+import sn.trivial.ticket.service.IdentityService;
+import sn.trivial.ticket.service.dto.IdentityDTO;
+import sn.trivial.ticket.web.sse.TicketEventStream;
+
+/**
+ * REST controller streaming the changes of the {@link sn.trivial.ticket.domain.Ticket}s to the connected user.
+ */
+@RestController
+@RequestMapping("/api")
+public class TicketEventResource {
+
+    private final Logger log = LoggerFactory.getLogger(TicketEventResource.class);
+
+    private final IdentityService identityService;
+
+    private final TicketEventStream ticketEventStream;
+
+    private final StreamTicketProvider streamTicketProvider;
+
+    public TicketEventResource(
+        IdentityService identityService,
+        TicketEventStream ticketEventStream,
+        StreamTicketProvider streamTicketProvider
+    ) {
+        this.identityService = identityService;
+        this.ticketEventStream = ticketEventStream;
+        this.streamTicketProvider = streamTicketProvider;
+    }
+
+    /**
+     * {@code POST  /tickets/events/stream-tickets} : create a short-lived, single-use ticket opening a stream of the changes of
+     * the tickets of the connected user.
+     *
+     * @return the ticket, to give as the {@code ticket} parameter of {@code GET /tickets/events}.
+     */
+    @PostMapping("/tickets/events/stream-tickets")
+    public StreamTicket createStreamTicket() {
+        log.debug("REST request to create a stream ticket for the connected user");
+        return new StreamTicket(streamTicketProvider.createTicket(SecurityContextHolder.getContext().getAuthentication()));
+    }
+
+    /**
+     * {@code GET  /tickets/events} : stream the changes of the tickets of the connected user, as server-sent events named
+     * after their {@link sn.trivial.ticket.service.dto.TicketEventDTO.Type}, or {@value TicketEventStream#RESYNC_EVENT} when
+     * the user should reload its tickets.
+     * <p>
+     * As browsers cannot set the {@code Authorization} header of an {@code EventSource}, the stream can also be opened with a
+     * ticket of {@code POST /tickets/events/stream-tickets}, given by the {@code ticket} parameter.
+     *
+     * @param response the HTTP response.
+     * @return the emitter of the stream.
+     */
+    @GetMapping(path = "/tickets/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTicketEvents(HttpServletResponse response) {
+        log.debug("REST request to stream the Ticket events of the connected user");
+        IdentityDTO identity = identityService.getCurrentIdentity().orElseThrow();
+        // keep the reverse proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return ticketEventStream.subscribe(identity);
+    }
+
+    /**
+     * Object to return as body of a stream ticket creation.
+     */
+    static class StreamTicket {
+
+        private final String ticket;
+
+        StreamTicket(String ticket) {
+            this.ticket = ticket;
+        }
+
+        @JsonProperty("ticket")
+        String getTicket() {
+            return ticket;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package sn.trivial.ticket.web.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import sn.trivial.ticket.service.TicketExportService;
+import sn.trivial.ticket.service.TicketExportService.Format;
+import sn.trivial.ticket.service.criteria.TicketCriteria;
+
+/**
+ * REST controller streaming the exports of the {@link sn.trivial.ticket.domain.Ticket}s and of their discussions.
+ * <p>
+ * The exports are written straight to the response as they are read, gzipped when the client accepts it, and take the same
+ * criteria as {@code GET /tickets}, without pagination.
+ */
+@RestController
+@RequestMapping("/api")
+public class TicketExportResource {
+
+    private static final String GZIP = "gzip";
+
+    private final Logger log = LoggerFactory.getLogger(TicketExportResource.class);
+
+    private final TicketExportService ticketExportService;
+
+    public TicketExportResource(TicketExportService ticketExportService) {
+        this.ticketExportService = ticketExportService;
+    }
+
+    /**
+     * {@code GET  /tickets/export?format=:format} : export the tickets.
+     *
+     * @param criteria the criteria which the exported tickets should match.
+     * @param format {@code CSV} or {@code NDJSON}.
+     * @param acceptEncoding the encodings accepted by the client.
+     * @param response the response the export is written to, with status {@code 200 (OK)}.
+     * @throws IOException if the export cannot be written.
+     */
+    @GetMapping("/tickets/export")
+    public void exportTickets(
+        TicketCriteria criteria,
+        @RequestParam(defaultValue = "CSV") Format format,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to export Tickets by criteria: {} as {}", criteria, format);
+        try (OutputStream out = open(response, "tickets", format, acceptEncoding)) {
+            ticketExportService.exportTickets(criteria, format, out);
+        }
+    }
+
+    /**
+     * {@code GET  /tickets/export/messages?format=:format} : export the messages of the tickets.
+     *
+     * @param criteria the criteria which the tickets of the exported messages should match.
+     * @param format {@code CSV} or {@code NDJSON}.
+     * @param acceptEncoding the encodings accepted by the client.
+     * @param response the response the export is written to, with status {@code 200 (OK)}.
+     * @throws IOException if the export cannot be written.
+     */
+    @GetMapping("/tickets/export/messages")
+    public void exportMessages(
+        TicketCriteria criteria,
+        @RequestParam(defaultValue = "CSV") Format format,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to export the Messages of the Tickets by criteria: {} as {}", criteria, format);
+        try (OutputStream out = open(response, "messages", format, acceptEncoding)) {
+            ticketExportService.exportMessages(criteria, format, out);
+        }
+    }
+
+    private static OutputStream open(HttpServletResponse response, String name, Format format, String acceptEncoding)
+        throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains(GZIP)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            return new GZIPOutputStream(response.getOutputStream(), 8192);
+        }
+        return response.getOutputStream();
+    }
+}
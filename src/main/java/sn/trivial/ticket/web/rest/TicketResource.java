@@ -4,6 +4,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import javax.validation.Valid;
@@ -25,6 +26,7 @@ import sn.trivial.ticket.service.TicketService;
 import sn.trivial.ticket.service.criteria.TicketCriteria;
 import sn.trivial.ticket.service.dto.MessageDTO;
 import sn.trivial.ticket.service.dto.TicketDTO;
+import sn.trivial.ticket.service.dto.TicketSummaryDTO;
 import sn.trivial.ticket.web.rest.errors.BadRequestAlertException;
 import sn.trivial.ticket.web.rest.vm.ChangeTicketStatusVM;
 import sn.trivial.ticket.web.rest.vm.MessageContentAndNewTicketStatusVM;
@@ -45,6 +47,11 @@ public class TicketResource {
 
     private static final String ENTITY_NAME = "ticket";
 
+    /**
+     * The parameter selecting the summaries of the tickets, instead of the tickets, on the list endpoints.
+     */
+    private static final String SUMMARY_VIEW = "view=summary";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -168,6 +175,24 @@ public class TicketResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /tickets?view=summary} : get the summaries of all the tickets.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping(value = "/tickets", params = SUMMARY_VIEW)
+    public ResponseEntity<List<TicketSummaryDTO>> getAllTicketSummaries(
+        TicketCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get the summaries of Tickets by criteria: {}", criteria);
+        Page<TicketSummaryDTO> page = ticketQueryService.findSummariesByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code GET  /tickets/count} : count all the tickets.
      *
@@ -222,6 +247,17 @@ public class TicketResource {
         return ResponseEntity.ok().body(ticketList);
     }
 
+    /**
+     * {@code GET  /tickets/clients?view=summary} : get the summaries of all the tickets of the current client.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping(value = "/tickets/clients", params = SUMMARY_VIEW)
+    public ResponseEntity<List<TicketSummaryDTO>> getTicketSummariesOfConnectedClient() {
+        log.debug("REST request to get the summaries of the tickets of connected Client");
+        return ResponseEntity.ok().body(ticketService.findTicketSummariesOfConnectedClient());
+    }
+
     /**
      * {@code POST  /tickets/clients} : Create a new ticket by the connected Client.
      *
@@ -306,13 +342,31 @@ public class TicketResource {
     /**
      * {@code GET  /tickets/unassigned} : get all the unassigned tickets.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tickets in body.                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                    200 (OK)} and with body the ticketDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/tickets/unassigned")
-    public ResponseEntity<List<TicketDTO>> getAllUnassignedTickets() {
-        log.debug("REST request to get the unassigned tickets");
-        List<TicketDTO> tickets = ticketService.findAllUnassigned();
-        return ResponseEntity.ok().body(tickets);
+    public ResponseEntity<List<TicketDTO>> getAllUnassignedTickets(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of the unassigned tickets");
+        Page<TicketDTO> page = ticketService.findAllUnassigned(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /tickets/unassigned?view=summary} : get the summaries of all the unassigned tickets.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping(value = "/tickets/unassigned", params = SUMMARY_VIEW)
+    public ResponseEntity<List<TicketSummaryDTO>> getAllUnassignedTicketSummaries(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of the summaries of the unassigned tickets");
+        Page<TicketSummaryDTO> page = ticketService.findAllUnassignedSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
     /**
@@ -331,16 +385,49 @@ public class TicketResource {
             .body(ticketDTO);
     }
 
+    /**
+     * {@code POST  /tickets/claim-next} : Assign the oldest unassigned tickets to the connected Agent.
+     *
+     * @param count the number of tickets to claim.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the claimed tickets in body,
+     * fewer than requested if the queue runs out.
+     */
+    @PostMapping("/tickets/claim-next")
+    public ResponseEntity<List<TicketDTO>> claimNextTickets(@RequestParam(defaultValue = "1") int count) {
+        log.debug("REST request to claim the next {} unassigned tickets", count);
+        return ResponseEntity.ok().body(ticketService.claimNextTickets(count));
+    }
+
     /**
      * {@code GET  /tickets/assigned} : Get all the tickets that are assigned to the connected Agent.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tickets in body.                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                    200 (OK)} and with body the ticketDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/tickets/assigned")
-    public ResponseEntity<List<TicketDTO>> getAllAssignedToConnectedAgent() {
-        log.debug("REST request to get the tickets assigned to the connected Agent");
-        List<TicketDTO> tickets = ticketService.findAllAssignedToConnectedAgent();
-        return ResponseEntity.ok().body(tickets);
+    public ResponseEntity<List<TicketDTO>> getAllAssignedToConnectedAgent(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of the tickets assigned to the connected Agent");
+        Page<TicketDTO> page = ticketService.findAllAssignedToConnectedAgent(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /tickets/assigned?view=summary} : Get the summaries of all the tickets that are assigned to the connected Agent.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping(value = "/tickets/assigned", params = SUMMARY_VIEW)
+    public ResponseEntity<List<TicketSummaryDTO>> getAllSummariesAssignedToConnectedAgent(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of the summaries of the tickets assigned to the connected Agent");
+        Page<TicketSummaryDTO> page = ticketService.findAllSummariesAssignedToConnectedAgent(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
     /**
@@ -404,13 +491,37 @@ public class TicketResource {
     /**
      * {@code GET  /tickets/assigned/agents/:id} : Get all the tickets that are assigned to the "id" Agent.
      *
+     * @param id the id of the agent.
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tickets in body.                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                    200 (OK)} and with body the ticketDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/tickets/assigned/agents/{id}")
-    public ResponseEntity<List<TicketDTO>> getAllAssignedToAgent(@PathVariable Long id) {
-        log.debug("REST request to get the tickets assigned to the {} Agent", id);
-        List<TicketDTO> tickets = ticketService.findAllAssignedToAgent(id);
-        return ResponseEntity.ok().body(tickets);
+    public ResponseEntity<List<TicketDTO>> getAllAssignedToAgent(
+        @PathVariable Long id,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of the tickets assigned to the {} Agent", id);
+        Page<TicketDTO> page = ticketService.findAllAssignedToAgent(id, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /tickets/assigned/agents/:id?view=summary} : Get the summaries of all the tickets that are assigned to the "id" Agent.
+     *
+     * @param id the id of the agent.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping(value = "/tickets/assigned/agents/{id}", params = SUMMARY_VIEW)
+    public ResponseEntity<List<TicketSummaryDTO>> getAllSummariesAssignedToAgent(
+        @PathVariable Long id,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of the summaries of the tickets assigned to the {} Agent", id);
+        Page<TicketSummaryDTO> page = ticketService.findAllSummariesAssignedToAgent(id, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
     /**
@@ -426,15 +537,33 @@ public class TicketResource {
     }
 
     /**
-     * {@code GET  /tickets/assigned} : Get all the tickets that are assigned and not closed.
+     * {@code GET  /tickets/assigned/any-agent} : Get all the tickets that are assigned and not closed.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tickets in body.                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                    200 (OK)} and with body the ticketDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/tickets/assigned/any-agent")
-    public ResponseEntity<List<TicketDTO>> getAllAssigned() {
-        log.debug("REST request to get the assigned and not closed tickets to any Agent");
-        List<TicketDTO> tickets = ticketService.findAllAssigned();
-        return ResponseEntity.ok().body(tickets);
+    public ResponseEntity<List<TicketDTO>> getAllAssigned(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of the assigned and not closed tickets to any Agent");
+        Page<TicketDTO> page = ticketService.findAllAssigned(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /tickets/assigned/any-agent?view=summary} : Get the summaries of all the tickets that are assigned and not closed.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping(value = "/tickets/assigned/any-agent", params = SUMMARY_VIEW)
+    public ResponseEntity<List<TicketSummaryDTO>> getAllAssignedSummaries(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of the summaries of the assigned and not closed tickets to any Agent");
+        Page<TicketSummaryDTO> page = ticketService.findAllAssignedSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
     /**
@@ -449,6 +578,30 @@ public class TicketResource {
         return ResponseEntity.ok().body(count);
     }
 
+    /**
+     * {@code GET  /tickets/issued/clients/:id/count} : Get the number of tickets issued by the "id" Client and not closed.
+     *
+     * @param id the id of the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of tickets in body.
+     */
+    @GetMapping("/tickets/issued/clients/{id}/count")
+    public ResponseEntity<Long> countAllOpenIssuedByClient(@PathVariable Long id) {
+        log.debug("REST request to get the number of not closed tickets issued by the {} Client", id);
+        Long count = ticketService.countAllOpenIssuedByClient(id);
+        return ResponseEntity.ok().body(count);
+    }
+
+    /**
+     * {@code GET  /tickets/count/by-status} : Get the number of tickets of every status.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of tickets by status in body.
+     */
+    @GetMapping("/tickets/count/by-status")
+    public ResponseEntity<Map<TicketStatus, Long>> countAllByStatus() {
+        log.debug("REST request to get the number of tickets by status");
+        return ResponseEntity.ok().body(ticketService.countAllByStatus());
+    }
+
     /**
      * {@code GET  /tickets/status/:status} : Get all the tickets by status.
      *
@@ -0,0 +1,61 @@
+package sn.trivial.ticket.web.rest;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import sn.trivial.ticket.service.TicketSlaService;
+import sn.trivial.ticket.service.dto.TicketSlaDTO;
+import sn.trivial.ticket.web.rest.errors.BadRequestAlertException;
+
+/**
+ * REST controller reporting the SLA of the {@link sn.trivial.ticket.domain.Ticket}s.
+ */
+@RestController
+@RequestMapping("/api")
+public class TicketSlaResource {
+
+    private static final long MAX_DAYS = 366;
+
+    private final Logger log = LoggerFactory.getLogger(TicketSlaResource.class);
+
+    private final TicketSlaService ticketSlaService;
+
+    public TicketSlaResource(TicketSlaService ticketSlaService) {
+        this.ticketSlaService = ticketSlaService;
+    }
+
+    /**
+     * {@code GET  /tickets/sla?from=:from&to=:to&agentId=:agentId} : get the daily percentiles of the time to the first
+     * response, of the time to close and of the time spent in each status, per agent.
+     *
+     * @param from the first day, in UTC.
+     * @param to the last day, in UTC.
+     * @param agentId the id of the agent, all the agents when absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the percentiles by day, agent and metric in body,
+     * or with status {@code 400 (Bad Request)} if the period is invalid or longer than a year.
+     */
+    @GetMapping("/tickets/sla")
+    public ResponseEntity<List<TicketSlaDTO>> getDailySla(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) Long agentId
+    ) {
+        log.debug("REST request to get the SLA percentiles from {} to {} of Agent : {}", from, to, agentId);
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new BadRequestAlertException(
+                String.format("Invalid SLA period from %s to %s", from, to),
+                "ticketSla",
+                "invalidslaperiod"
+            );
+        }
+        return ResponseEntity.ok().body(ticketSlaService.findDaily(from, to, agentId));
+    }
+}
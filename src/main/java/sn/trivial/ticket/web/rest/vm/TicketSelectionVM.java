@@ -0,0 +1,35 @@
+package sn.trivial.ticket.web.rest.vm;
+
+import java.util.List;
+import sn.trivial.ticket.service.criteria.TicketCriteria;
+
+/**
+ * View Model object for selecting the tickets of a bulk operation, either by their ids or by a filter.
+ */
+public class TicketSelectionVM {
+
+    private List<Long> ticketIds;
+
+    private TicketCriteria criteria;
+
+    public List<Long> getTicketIds() {
+        return ticketIds;
+    }
+
+    public TicketCriteria getCriteria() {
+        return criteria;
+    }
+
+    public void setTicketIds(List<Long> ticketIds) {
+        this.ticketIds = ticketIds;
+    }
+
+    public void setCriteria(TicketCriteria criteria) {
+        this.criteria = criteria;
+    }
+
+    @Override
+    public String toString() {
+        return "TicketSelectionVM{" + "ticketIds= " + (ticketIds == null ? null : ticketIds.size()) + ", criteria= " + criteria + "}";
+    }
+}
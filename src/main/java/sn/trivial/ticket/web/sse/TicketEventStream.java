@@ -0,0 +1,282 @@
+package sn.trivial.ticket.web.sse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.security.AuthoritiesConstants;
+import sn.trivial.ticket.service.dto.IdentityDTO;
+import sn.trivial.ticket.service.dto.TicketEventDTO;
+
+/**
+ * The server-sent events streams of the connected users, pushing them the {@link TicketEventDTO}s of their tickets.
+ * <p>
+ * An event is routed, once its transaction has committed, to the client who issued the ticket, to the agent it is assigned to
+ * and to the admins, as well as to every agent when the unassigned tickets change. Events are written by a few sender threads,
+ * never by the thread which committed them: each stream buffers up to {@code application.events.buffer-size} events, and a
+ * stream falling further behind loses its buffered events and gets a single {@value #RESYNC_EVENT} event, telling the client
+ * to reload its tickets.
+ */
+@Component
+public class TicketEventStream {
+
+    public static final String RESYNC_EVENT = "RESYNC";
+
+    public static final String CONNECTIONS_METER_NAME = "ticket.events.connections";
+
+    public static final String OVERFLOWS_METER_NAME = "ticket.events.overflows";
+
+    private final Logger log = LoggerFactory.getLogger(TicketEventStream.class);
+
+    private final ApplicationProperties.Events properties;
+
+    private final Executor senders;
+
+    private final Counter overflows;
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+    private final Map<Long, Set<Connection>> connectionsByClientId = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Connection>> connectionsByAgentId = new ConcurrentHashMap<>();
+
+    private final Set<Connection> agentConnections = ConcurrentHashMap.newKeySet();
+
+    private final Set<Connection> adminConnections = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TicketEventStream(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(
+            applicationProperties.getEvents(),
+            Executors.newFixedThreadPool(
+                applicationProperties.getEvents().getSenderThreads(),
+                new CustomizableThreadFactory("ticket-events-")
+            ),
+            meterRegistry
+        );
+    }
+
+    TicketEventStream(ApplicationProperties.Events properties, Executor senders, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.senders = senders;
+        this.overflows =
+            Counter
+                .builder(OVERFLOWS_METER_NAME)
+                .description("Indicates the count of the ticket event streams which fell behind and had to resync.")
+                .register(meterRegistry);
+        Gauge
+            .builder(CONNECTIONS_METER_NAME, connections, Set::size)
+            .description("Indicates the number of open ticket event streams.")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of the ticket events of a user.
+     *
+     * @param identity the identity of the user.
+     * @return the emitter of the stream.
+     */
+    public SseEmitter subscribe(IdentityDTO identity) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeoutMs());
+        register(identity, emitter);
+        return emitter;
+    }
+
+    void register(IdentityDTO identity, SseEmitter emitter) {
+        Connection connection = new Connection(identity, emitter, properties.getBufferSize());
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unregister(connection));
+
+        connections.add(connection);
+        if (identity.isClient()) {
+            index(connectionsByClientId, identity.getClientId(), connection);
+        }
+        if (identity.isAgent()) {
+            index(connectionsByAgentId, identity.getAgentId(), connection);
+            agentConnections.add(connection);
+        }
+        if (identity.getAuthorities().contains(AuthoritiesConstants.ADMIN)) {
+            adminConnections.add(connection);
+        }
+        log.debug("Opened the ticket event stream of {}", identity.getLogin());
+    }
+
+    private void unregister(Connection connection) {
+        if (!connections.remove(connection)) {
+            return;
+        }
+        IdentityDTO identity = connection.identity;
+        if (identity.isClient()) {
+            unindex(connectionsByClientId, identity.getClientId(), connection);
+        }
+        if (identity.isAgent()) {
+            unindex(connectionsByAgentId, identity.getAgentId(), connection);
+            agentConnections.remove(connection);
+        }
+        adminConnections.remove(connection);
+        log.debug("Closed the ticket event stream of {}", identity.getLogin());
+    }
+
+    /**
+     * Push a ticket event to the streams of the users concerned, once its transaction has committed.
+     *
+     * @param event the ticket event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketEvent(TicketEventDTO event) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        Set<Connection> recipients = new HashSet<>(adminConnections);
+        addAll(recipients, connectionsByClientId, event.getClientId());
+        addAll(recipients, connectionsByAgentId, event.getAgentId());
+        if (event.isUnassignedTicketsChange()) {
+            recipients.addAll(agentConnections);
+        }
+        for (Connection connection : recipients) {
+            if (!connection.events.offer(event)) {
+                // the client does not keep up: rather than buffering more, drop its events and let it reload its tickets
+                connection.events.clear();
+                connection.resync = true;
+                overflows.increment();
+            }
+            schedule(connection);
+        }
+    }
+
+    /**
+     * Send a heartbeat on the idle streams, keeping them open through the proxies and detecting the closed ones.
+     */
+    @Scheduled(fixedRateString = "${application.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Connection connection : connections) {
+            connection.heartbeat = true;
+            schedule(connection);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.forEach(connection -> connection.emitter.complete());
+        if (senders instanceof ExecutorService) {
+            ((ExecutorService) senders).shutdown();
+        }
+    }
+
+    private static void index(Map<Long, Set<Connection>> connectionsById, Long id, Connection connection) {
+        connectionsById.compute(
+            id,
+            (key, set) -> {
+                Set<Connection> indexed = set == null ? ConcurrentHashMap.newKeySet() : set;
+                indexed.add(connection);
+                return indexed;
+            }
+        );
+    }
+
+    private static void unindex(Map<Long, Set<Connection>> connectionsById, Long id, Connection connection) {
+        connectionsById.computeIfPresent(id, (key, set) -> set.remove(connection) && set.isEmpty() ? null : set);
+    }
+
+    private static void addAll(Set<Connection> recipients, Map<Long, Set<Connection>> connectionsById, Long id) {
+        Set<Connection> indexed = id == null ? null : connectionsById.get(id);
+        if (indexed != null) {
+            recipients.addAll(indexed);
+        }
+    }
+
+    /**
+     * Hand a connection to a sender thread, unless one is already draining it.
+     */
+    private void schedule(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                connection.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        do {
+            send(connection);
+            connection.draining.set(false);
+            // something may have been queued after the last send, while the connection was still marked as draining
+        } while (connection.hasPending() && connections.contains(connection) && connection.draining.compareAndSet(false, true));
+    }
+
+    private void send(Connection connection) {
+        try {
+            boolean sent = false;
+            if (connection.resync) {
+                connection.resync = false;
+                connection.emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(RESYNC_EVENT));
+                sent = true;
+            }
+            TicketEventDTO event;
+            while ((event = connection.events.poll()) != null) {
+                connection.emitter.send(SseEmitter.event().name(event.getType().name()).data(event, MediaType.APPLICATION_JSON));
+                sent = true;
+            }
+            if (connection.heartbeat) {
+                connection.heartbeat = false;
+                if (!sent) {
+                    connection.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Cannot write to the ticket event stream of {}: {}", connection.identity.getLogin(), e.getMessage());
+            connection.events.clear();
+            unregister(connection);
+        }
+    }
+
+    private static final class Connection {
+
+        private final IdentityDTO identity;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<TicketEventDTO> events;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean resync;
+
+        private volatile boolean heartbeat;
+
+        private Connection(IdentityDTO identity, SseEmitter emitter, int bufferSize) {
+            this.identity = identity;
+            this.emitter = emitter;
+            this.events = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean hasPending() {
+            return resync || heartbeat || !events.isEmpty();
+        }
+    }
+}
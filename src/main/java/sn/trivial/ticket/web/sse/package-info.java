@@ -0,0 +1,4 @@
+/**
+ * Server-sent events streams.
+ */
+package sn.trivial.ticket.web.sse;
@@ -0,0 +1,200 @@
+package sn.trivial.ticket.gatling;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.forAll;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.rampUsers;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Load test of the whole ticket lifecycle, run against a running application by the {@code gatling} Maven profile.
+ * <p>
+ * Every virtual user plays a client and an agent of the accounts seeded by the {@code loadtest.xml} Liquibase changelog: the
+ * client authenticates and issues a ticket, the agent authenticates, lists the unassigned tickets and self-assigns it, they
+ * take turns reading the discussion and answering it, until the agent has nothing more to do and the client closes the
+ * ticket. Alongside, new clients and agents are registered in a scenario of their own, the registered accounts getting a
+ * random password they cannot sign in with.
+ * <p>
+ * The load is set with the system properties {@code baseUrl}, {@code usersPerSec}, {@code durationSeconds} and
+ * {@code registrations}; the report gives the throughput and the latency percentiles of every request.
+ */
+public class TicketLifecycleSimulation extends Simulation {
+
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+
+    private static final double USERS_PER_SEC = Double.parseDouble(System.getProperty("usersPerSec", "5"));
+
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("durationSeconds", 120));
+
+    private static final int REGISTRATIONS = Integer.getInteger("registrations", 50);
+
+    /** Accounts seeded by the loadtest.xml Liquibase changelog, all with the same password. */
+    private static final int SEEDED_CLIENTS = 500;
+
+    private static final int SEEDED_AGENTS = 100;
+
+    private static final String SEEDED_PASSWORD = "loadtest";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Iterator<Map<String, Object>> accounts = Stream
+        .generate(() -> {
+            long n = sequence.getAndIncrement();
+            return Map.<String, Object>of(
+                "clientLogin",
+                "loadtest-client-" + (n % SEEDED_CLIENTS + 1),
+                "agentLogin",
+                "loadtest-agent-" + (n % SEEDED_AGENTS + 1)
+            );
+        })
+        .iterator();
+
+    private final Iterator<Map<String, Object>> registrations = Stream
+        .generate(() -> Map.<String, Object>of("registration", System.nanoTime() + "-" + sequence.getAndIncrement()))
+        .iterator();
+
+    private final HttpProtocolBuilder httpProtocol = http
+        .baseUrl(BASE_URL)
+        .acceptHeader("application/json")
+        .contentTypeHeader("application/json")
+        .userAgentHeader("Gatling");
+
+    private static ChainBuilder authenticate(String login, String password, String token) {
+        return exec(
+            http("POST /api/authenticate")
+                .post("/api/authenticate")
+                .body(StringBody("{\"username\":\"" + login + "\",\"password\":\"" + password + "\",\"rememberMe\":false}"))
+                .check(status().is(200))
+                .check(jsonPath("$.id_token").saveAs(token))
+        );
+    }
+
+    private static ChainBuilder clientSendsMessage(String content) {
+        return exec(
+            http("GET /api/messages/tickets/{id}/clients")
+                .get("/api/messages/tickets/#{ticketId}/clients")
+                .header("Authorization", "Bearer #{clientToken}")
+                .check(status().is(200))
+        )
+            .exec(
+                http("POST /api/tickets/{id}/send-message/clients")
+                    .post("/api/tickets/#{ticketId}/send-message/clients")
+                    .header("Authorization", "Bearer #{clientToken}")
+                    .header("Content-Type", "text/plain")
+                    .body(StringBody(content))
+                    .check(status().is(201))
+            );
+    }
+
+    private static ChainBuilder agentSendsMessage(String content, String newTicketStatus) {
+        return exec(
+            http("GET /api/messages/tickets/{id}/agents")
+                .get("/api/messages/tickets/#{ticketId}/agents")
+                .header("Authorization", "Bearer #{agentToken}")
+                .check(status().is(200))
+        )
+            .exec(
+                http("POST /api/tickets/{id}/send-message/agents")
+                    .post("/api/tickets/#{ticketId}/send-message/agents")
+                    .header("Authorization", "Bearer #{agentToken}")
+                    .body(StringBody("{\"messageContent\":\"" + content + "\",\"newTicketStatus\":\"" + newTicketStatus + "\"}"))
+                    .check(status().is(201))
+            );
+    }
+
+    private final ScenarioBuilder lifecycle = scenario("Ticket lifecycle")
+        .feed(accounts)
+        .exec(authenticate("#{clientLogin}", SEEDED_PASSWORD, "clientToken"))
+        .exec(authenticate("#{agentLogin}", SEEDED_PASSWORD, "agentToken"))
+        .exitHereIfFailed()
+        .exec(
+            http("POST /api/tickets/clients")
+                .post("/api/tickets/clients")
+                .header("Authorization", "Bearer #{clientToken}")
+                .body(StringBody("{\"issueDescription\":\"Load test issue\",\"messageContent\":\"The service is down, please help.\"}"))
+                .check(status().is(201))
+                .check(jsonPath("$.id").saveAs("ticketId"))
+        )
+        .exitHereIfFailed()
+        .pause(Duration.ofMillis(100), Duration.ofMillis(500))
+        .exec(
+            http("GET /api/tickets/unassigned")
+                .get("/api/tickets/unassigned?page=0&size=20")
+                .header("Authorization", "Bearer #{agentToken}")
+                .check(status().is(200))
+        )
+        .exec(
+            http("GET /api/tickets/{id}/self-assign")
+                .get("/api/tickets/#{ticketId}/self-assign")
+                .header("Authorization", "Bearer #{agentToken}")
+                .check(status().is(201))
+        )
+        .exitHereIfFailed()
+        .exec(clientSendsMessage("Every request fails with a timeout."))
+        .pause(Duration.ofMillis(100), Duration.ofMillis(500))
+        .exec(agentSendsMessage("Could you send us the error message?", "PENDING"))
+        .pause(Duration.ofMillis(100), Duration.ofMillis(500))
+        .exec(clientSendsMessage("It says: gateway timeout."))
+        .pause(Duration.ofMillis(100), Duration.ofMillis(500))
+        .exec(agentSendsMessage("Fixed on our side, nothing more to do.", "DO_NOT_TREAT"))
+        .exec(
+            http("POST /api/tickets/change-status")
+                .post("/api/tickets/change-status")
+                .header("Authorization", "Bearer #{clientToken}")
+                .body(StringBody("{\"ticketId\":#{ticketId},\"ticketStatus\":\"CLOSED\"}"))
+                .check(status().is(201))
+                .check(jsonPath("$.status").is("CLOSED"))
+        );
+
+    private final ScenarioBuilder registration = scenario("Registration")
+        .exec(authenticate("admin", System.getProperty("adminPassword", "admin"), "adminToken"))
+        .exitHereIfFailed()
+        .feed(registrations)
+        .exec(
+            http("POST /api/clients/register")
+                .post("/api/clients/register")
+                .body(
+                    StringBody(
+                        "{\"firstName\":\"Load\",\"lastName\":\"Client\",\"email\":\"client-#{registration}@localhost\"," +
+                        "\"user\":{\"login\":\"client-#{registration}\"}}"
+                    )
+                )
+                .check(status().is(201))
+        )
+        .exec(
+            http("POST /api/agents/register")
+                .post("/api/agents/register")
+                .header("Authorization", "Bearer #{adminToken}")
+                .body(
+                    StringBody(
+                        "{\"firstName\":\"Load\",\"lastName\":\"Agent\",\"email\":\"agent-#{registration}@localhost\"," +
+                        "\"user\":{\"login\":\"agent-#{registration}\"}}"
+                    )
+                )
+                .check(status().is(201))
+        );
+
+    {
+        setUp(
+            lifecycle.injectOpen(constantUsersPerSec(USERS_PER_SEC).during(DURATION)),
+            registration.injectOpen(rampUsers(REGISTRATIONS).during(DURATION))
+        )
+            .protocols(httpProtocol)
+            .assertions(global().failedRequests().percent().lt(1.0), forAll().responseTime().percentile4().lt(5000));
+    }
+}
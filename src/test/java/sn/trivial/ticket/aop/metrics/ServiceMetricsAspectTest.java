@@ -0,0 +1,122 @@
+package sn.trivial.ticket.aop.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.management.SqlStatementRecorder;
+import sn.trivial.ticket.repository.TicketArchiveRepository;
+import sn.trivial.ticket.repository.TicketCountRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.service.TicketArchiveService;
+import sn.trivial.ticket.service.mapper.MessageMapper;
+import sn.trivial.ticket.service.mapper.TicketMapper;
+
+/**
+ * Unit tests for {@link ServiceMetricsAspect}, on a service proxied as by the application context.
+ */
+class ServiceMetricsAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private TicketRepository ticketRepository;
+
+    private TicketArchiveService ticketArchiveService;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(SqlStatementRecorder.wrap(target));
+
+        meterRegistry = new SimpleMeterRegistry();
+        ticketRepository = mock(TicketRepository.class);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(
+            new TicketArchiveService(
+                new TicketArchiveRepository(jdbcTemplate, mock(EntityManagerFactory.class)),
+                ticketRepository,
+                new TicketCountRepository(jdbcTemplate),
+                mock(TicketMapper.class),
+                mock(MessageMapper.class),
+                mock(PlatformTransactionManager.class),
+                new ApplicationProperties()
+            )
+        );
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        ticketArchiveService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void testServiceCallsAreRecorded() {
+        assertThat(ticketArchiveService.findOne(1L)).isEmpty();
+        assertThat(ticketArchiveService.findMessage(1L)).isEmpty();
+        assertThat(ticketArchiveService.findOne(2L)).isEmpty();
+
+        assertThat(
+            meterRegistry
+                .get(ServiceMetricsAspect.SERVICE_METHOD_METER_NAME)
+                .tags("class", "TicketArchiveService", "method", "findOne", "exception", "none")
+                .timer()
+                .count()
+        )
+            .isEqualTo(2);
+        DistributionSummary statements = meterRegistry
+            .get(ServiceMetricsAspect.SQL_STATEMENTS_METER_NAME)
+            .tags("class", "TicketArchiveService", "method", "findOne")
+            .summary();
+        assertThat(statements.count()).isEqualTo(2);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+        assertThat(
+            meterRegistry
+                .get(ServiceMetricsAspect.SQL_TIME_METER_NAME)
+                .tags("class", "TicketArchiveService", "method", "findMessage")
+                .timer()
+                .count()
+        )
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testFailedServiceCallsAreRecordedWithTheirException() {
+        when(ticketRepository.existsById(1L)).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> ticketArchiveService.findDiscussion(1L, null, null, 20)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(
+            meterRegistry
+                .get(ServiceMetricsAspect.SERVICE_METHOD_METER_NAME)
+                .tags("class", "TicketArchiveService", "method", "findDiscussion", "exception", "IllegalStateException")
+                .timer()
+                .count()
+        )
+            .isEqualTo(1);
+        DistributionSummary statements = meterRegistry
+            .get(ServiceMetricsAspect.SQL_STATEMENTS_METER_NAME)
+            .tags("class", "TicketArchiveService", "method", "findDiscussion")
+            .summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isZero();
+    }
+}
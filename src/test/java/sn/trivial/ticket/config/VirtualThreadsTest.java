@@ -0,0 +1,36 @@
+package sn.trivial.ticket.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadsTest {
+
+    @Test
+    void testVirtualThreadsAreUnavailableBeforeJava19() {
+        assumeTrue(Runtime.version().feature() < 19);
+
+        assertThat(VirtualThreads.isAvailable()).isFalse();
+    }
+
+    @Test
+    void testThreadFactoryFailsWithoutVirtualThreads() {
+        assumeFalse(VirtualThreads.isAvailable());
+
+        assertThatThrownBy(() -> VirtualThreads.threadFactory("test-")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testExecutorRunsTasksOnNamedVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isAvailable());
+
+        CompletableFuture<String> threadName = new CompletableFuture<>();
+        VirtualThreads.executor("test-").execute(() -> threadName.complete(Thread.currentThread().getName()));
+
+        assertThat(threadName.get()).isEqualTo("test-0");
+    }
+}
@@ -0,0 +1,62 @@
+package sn.trivial.ticket.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Unit tests for {@link RequestMetricsInterceptor}.
+ */
+class RequestMetricsInterceptorTest {
+
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        mockMvc =
+            MockMvcBuilders
+                .standaloneSetup(new RequestMetricsTestController())
+                .addMappedInterceptors(new String[] { "/api/**" }, new RequestMetricsInterceptor(meterRegistry))
+                .build();
+    }
+
+    @Test
+    void testSqlStatementsAreRecordedByEndpoint() throws Exception {
+        mockMvc.perform(get("/api/test-metrics/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/test-metrics/2")).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry
+            .get(RequestMetricsInterceptor.SQL_STATEMENTS_METER_NAME)
+            .tags("method", "GET", "uri", "/api/test-metrics/{id}", "status", "200")
+            .summary();
+        assertThat(statements.count()).isEqualTo(2);
+        assertThat(statements.totalAmount()).isEqualTo(4);
+
+        Timer time = meterRegistry
+            .get(RequestMetricsInterceptor.SQL_TIME_METER_NAME)
+            .tags("method", "GET", "uri", "/api/test-metrics/{id}", "status", "200")
+            .timer();
+        assertThat(time.count()).isEqualTo(2);
+        assertThat(time.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(10);
+    }
+
+    @Test
+    void testUnmatchedRequestsAreNotRecorded() throws Exception {
+        mockMvc.perform(get("/api/unknown")).andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.find(RequestMetricsInterceptor.SQL_STATEMENTS_METER_NAME).meters()).isEmpty();
+    }
+}
@@ -0,0 +1,19 @@
+package sn.trivial.ticket.management;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class RequestMetricsTestController {
+
+    @GetMapping("/api/test-metrics/{id}")
+    public Map<String, Long> testMetrics(@PathVariable Long id) {
+        // two statements, as recorded by the data source wrapped by SqlStatementRecorder
+        SqlStatementStats.record(Duration.ofMillis(2).toNanos());
+        SqlStatementStats.record(Duration.ofMillis(3).toNanos());
+        return Map.of("id", id);
+    }
+}
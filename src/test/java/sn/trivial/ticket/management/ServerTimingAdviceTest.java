@@ -0,0 +1,61 @@
+package sn.trivial.ticket.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Unit tests for {@link ServerTimingAdvice}.
+ */
+class ServerTimingAdviceTest {
+
+    @Test
+    void testServerTimingHeader() {
+        SqlStatementStats start = SqlStatementStats.current();
+        SqlStatementStats.record(Duration.ofMillis(3).toNanos());
+
+        assertThat(ServerTimingAdvice.serverTiming(SqlStatementStats.current().since(start), Duration.ofMillis(12)))
+            .isEqualTo("db;dur=3.000;desc=\"SQL statements: 1\", app;dur=12.000");
+    }
+
+    @Test
+    void testServerTimingHeaderIsAddedToTheInterceptedRequests() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new RequestMetricsTestController())
+            .setControllerAdvice(new ServerTimingAdvice())
+            .addMappedInterceptors(new String[] { "/api/**" }, new RequestMetricsInterceptor(new SimpleMeterRegistry()))
+            .build();
+
+        mockMvc
+            .perform(get("/api/test-metrics/1"))
+            .andExpect(status().isOk())
+            .andExpect(
+                header()
+                    .string(
+                        ServerTimingAdvice.SERVER_TIMING_HEADER,
+                        Matchers.matchesPattern("db;dur=5\\.000;desc=\"SQL statements: 2\", app;dur=\\d+\\.\\d{3}")
+                    )
+            );
+    }
+
+    @Test
+    void testServerTimingHeaderIsMissingWithoutInterceptor() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new RequestMetricsTestController())
+            .setControllerAdvice(new ServerTimingAdvice())
+            .build();
+
+        mockMvc
+            .perform(get("/api/test-metrics/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(ServerTimingAdvice.SERVER_TIMING_HEADER));
+    }
+}
@@ -0,0 +1,68 @@
+package sn.trivial.ticket.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SqlStatementRecorder}.
+ */
+class SqlStatementRecorderTest {
+
+    private DataSource target;
+
+    private PreparedStatement statement;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        dataSource = (DataSource) new SqlStatementRecorder().postProcessAfterInitialization(target, "dataSource");
+    }
+
+    @Test
+    void testExecutedStatementsAreCounted() throws SQLException {
+        SqlStatementStats start = SqlStatementStats.current();
+
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement prepared = connection.prepareStatement("select 1");
+            prepared.setLong(1, 1L);
+            prepared.executeQuery();
+            prepared.executeUpdate();
+        }
+
+        assertThat(SqlStatementStats.current().since(start).getStatements()).isEqualTo(2);
+    }
+
+    @Test
+    void testFailedStatementsAreCounted() throws SQLException {
+        when(statement.executeUpdate()).thenThrow(new SQLException("deadlock detected"));
+        SqlStatementStats start = SqlStatementStats.current();
+
+        PreparedStatement prepared = dataSource.getConnection().prepareStatement("update ticket set status = 'CLOSED'");
+
+        assertThatThrownBy(prepared::executeUpdate).isInstanceOf(SQLException.class).hasMessage("deadlock detected");
+        assertThat(SqlStatementStats.current().since(start).getStatements()).isEqualTo(1);
+    }
+
+    @Test
+    void testWrappedDataSourceKeepsItsIdentity() {
+        assertThat(dataSource).isNotSameAs(target).isEqualTo(dataSource).isNotEqualTo(target);
+        assertThat(dataSource.hashCode()).isEqualTo(System.identityHashCode(dataSource));
+        assertThat(new SqlStatementRecorder().postProcessAfterInitialization(dataSource, "dataSource")).isSameAs(dataSource);
+    }
+}
@@ -0,0 +1,116 @@
+package sn.trivial.ticket.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+
+/**
+ * Integration tests checking that the queries on the ticket queues and discussions are backed by the expected indexes.
+ */
+@IntegrationTest
+@Transactional
+class QueryPlanIT {
+
+    private static final long FIRST_ID = 1_000_000L;
+    private static final int CLIENTS = 20;
+    private static final int AGENTS = 20;
+    private static final int TICKETS = 4_000;
+    private static final int MESSAGES_PER_TICKET = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void seed() {
+        List<Object[]> clients = new ArrayList<>();
+        List<Object[]> agents = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.add(new Object[] { FIRST_ID + i, "first" + i, "last" + i, "client" + i + "@localhost" });
+        }
+        for (int i = 0; i < AGENTS; i++) {
+            agents.add(new Object[] { FIRST_ID + i, "first" + i, "last" + i, "agent" + i + "@localhost" });
+        }
+        jdbcTemplate.batchUpdate("insert into client (id, first_name, last_name, email) values (?, ?, ?, ?)", clients);
+        jdbcTemplate.batchUpdate("insert into agent (id, first_name, last_name, email) values (?, ?, ?, ?)", agents);
+
+        Instant now = Instant.now();
+        TicketStatus[] statuses = TicketStatus.values();
+        List<Object[]> tickets = new ArrayList<>();
+        List<Object[]> messages = new ArrayList<>();
+        for (int i = 0; i < TICKETS; i++) {
+            long ticketId = FIRST_ID + i;
+            Instant issuedAt = now.minus(i, ChronoUnit.MINUTES);
+            tickets.add(
+                new Object[] {
+                    ticketId,
+                    "QP-" + ticketId,
+                    statuses[i % statuses.length].name(),
+                    "description " + i,
+                    Timestamp.from(issuedAt),
+                    FIRST_ID + (i % CLIENTS),
+                    FIRST_ID + (i % AGENTS),
+                }
+            );
+            for (int j = 0; j < MESSAGES_PER_TICKET; j++) {
+                long messageId = FIRST_ID + (long) i * MESSAGES_PER_TICKET + j;
+                messages.add(new Object[] { messageId, "content " + j, Timestamp.from(issuedAt.plusSeconds(j)), ticketId });
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            "insert into ticket (id, code, status, issue_description, issued_at, issued_by_id, assigned_to_id) " +
+            "values (?, ?, ?, ?, ?, ?, ?)",
+            tickets
+        );
+        jdbcTemplate.batchUpdate("insert into message (id, content, sent_at, ticket_id) values (?, ?, ?, ?)", messages);
+
+        jdbcTemplate.execute("analyze ticket");
+        jdbcTemplate.execute("analyze message");
+        // the seeded tables are still small: make sure the planner picks an index whenever one is usable
+        jdbcTemplate.execute("set local enable_seqscan = off");
+    }
+
+    @Test
+    void unassignedQueueUsesStatusIssuedAtIndex() {
+        assertThat(explain("select * from ticket where status = 'RECEIVED' order by issued_at limit 20"))
+            .contains("idx_ticket__status_issued_at");
+    }
+
+    @Test
+    void assignedToAgentUsesAssignedToIdStatusIndex() {
+        assertThat(
+            explain(
+                "select * from ticket where assigned_to_id = " +
+                (FIRST_ID + 1) +
+                " and status in ('BEING_TREATED', 'PENDING', 'DO_NOT_TREAT', 'TREATED')"
+            )
+        )
+            .contains("idx_ticket__assigned_to_id_status");
+    }
+
+    @Test
+    void issuedByClientUsesIssuedByIdIssuedAtIndex() {
+        assertThat(explain("select * from ticket where issued_by_id = " + (FIRST_ID + 1) + " order by issued_at desc"))
+            .contains("idx_ticket__issued_by_id_issued_at");
+    }
+
+    @Test
+    void ticketDiscussionUsesTicketIdSentAtIndex() {
+        assertThat(explain("select * from message where ticket_id = " + (FIRST_ID + 1) + " order by sent_at, id"))
+            .contains("idx_message__ticket_id_sent_at");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+    }
+}
@@ -0,0 +1,65 @@
+package sn.trivial.ticket.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.security.AuthoritiesConstants;
+
+/**
+ * Integration tests for {@link StreamTicketProvider}.
+ */
+@IntegrationTest
+@Transactional
+class StreamTicketProviderIT {
+
+    @Autowired
+    private StreamTicketProvider streamTicketProvider;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken(
+        "stream-user",
+        "jwt",
+        Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+    );
+
+    @Test
+    void assertThatATicketIsUsedOnce() {
+        String ticket = streamTicketProvider.createTicket(authentication);
+
+        Authentication resolved = streamTicketProvider.resolveAuthentication(ticket).orElseThrow();
+        assertThat(resolved.getName()).isEqualTo("stream-user");
+        assertThat(resolved.getAuthorities()).extracting("authority").containsExactly(AuthoritiesConstants.USER);
+        // the token the ticket was created with is not kept
+        assertThat(resolved.getCredentials()).isEqualTo("");
+
+        assertThat(streamTicketProvider.resolveAuthentication(ticket)).isEmpty();
+    }
+
+    @Test
+    void assertThatAnExpiredTicketIsRejected() {
+        long validity = applicationProperties.getEvents().getStreamTicketValiditySeconds();
+        applicationProperties.getEvents().setStreamTicketValiditySeconds(-1);
+        try {
+            String ticket = streamTicketProvider.createTicket(authentication);
+
+            assertThat(streamTicketProvider.resolveAuthentication(ticket)).isEmpty();
+        } finally {
+            applicationProperties.getEvents().setStreamTicketValiditySeconds(validity);
+        }
+    }
+
+    @Test
+    void assertThatAnUnknownTicketIsRejected() {
+        assertThat(streamTicketProvider.resolveAuthentication("unknown")).isEmpty();
+    }
+}
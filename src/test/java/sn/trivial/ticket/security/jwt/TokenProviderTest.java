@@ -5,13 +5,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -88,6 +93,63 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testResolveAuthenticationParsesTheTokenOnce() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenProvider cachingTokenProvider = createCachingTokenProvider(meterRegistry);
+        String token = cachingTokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> first = cachingTokenProvider.resolveAuthentication(token);
+        Optional<Authentication> second = cachingTokenProvider.resolveAuthentication(token);
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getName()).isEqualTo("anonymous");
+        assertThat(first.get().getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThat(second).containsSame(first.get());
+        assertThat(tokenCacheCount(meterRegistry, "miss")).isEqualTo(1);
+        assertThat(tokenCacheCount(meterRegistry, "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void testResolveAuthenticationDoesNotCacheInvalidTokens() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenProvider cachingTokenProvider = createCachingTokenProvider(meterRegistry);
+        String token = createTokenWithDifferentSignature();
+
+        assertThat(cachingTokenProvider.resolveAuthentication(token)).isEmpty();
+        assertThat(cachingTokenProvider.resolveAuthentication(token)).isEmpty();
+
+        assertThat(tokenCacheCount(meterRegistry, "miss")).isEqualTo(2);
+        assertThat(tokenCacheCount(meterRegistry, "hit")).isZero();
+        assertThat(
+            meterRegistry.get(SecurityMetersService.INVALID_TOKENS_METER_NAME).tag("cause", "invalid-signature").counter().count()
+        )
+            .isEqualTo(2);
+    }
+
+    @Test
+    void testResolveAuthenticationIgnoresTheCachedAuthenticationsOfExpiredTokens() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(TokenProvider.AUTHENTICATIONS_BY_TOKEN_CACHE);
+        TokenProvider cachingTokenProvider = createCachingTokenProvider(meterRegistry, cacheManager);
+        String token = cachingTokenProvider.createToken(createAuthentication(), false);
+        assertThat(cachingTokenProvider.resolveAuthentication(token)).isPresent();
+
+        ConcurrentMapCache cache = (ConcurrentMapCache) cacheManager.getCache(TokenProvider.AUTHENTICATIONS_BY_TOKEN_CACHE);
+        cache
+            .getNativeCache()
+            .replaceAll((digest, cached) ->
+                new TokenProvider.CachedAuthentication(
+                    ((TokenProvider.CachedAuthentication) cached).getAuthentication(),
+                    Instant.now().minusSeconds(1)
+                )
+            );
+
+        assertThat(cachingTokenProvider.resolveAuthentication(token)).isPresent();
+        assertThat(tokenCacheCount(meterRegistry, "miss")).isEqualTo(2);
+        assertThat(tokenCacheCount(meterRegistry, "hit")).isZero();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -116,6 +178,20 @@ class TokenProviderTest {
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    private TokenProvider createCachingTokenProvider(MeterRegistry meterRegistry) {
+        return createCachingTokenProvider(meterRegistry, new ConcurrentMapCacheManager(TokenProvider.AUTHENTICATIONS_BY_TOKEN_CACHE));
+    }
+
+    private TokenProvider createCachingTokenProvider(MeterRegistry meterRegistry, ConcurrentMapCacheManager cacheManager) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(Encoders.BASE64.encode(key.getEncoded()));
+        return new TokenProvider(jHipsterProperties, new SecurityMetersService(meterRegistry), cacheManager);
+    }
+
+    private double tokenCacheCount(MeterRegistry meterRegistry, String result) {
+        return meterRegistry.get(SecurityMetersService.TOKEN_CACHE_METER_NAME).tag("result", result).counter().count();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,101 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.Authority;
+import sn.trivial.ticket.domain.Client;
+import sn.trivial.ticket.domain.User;
+import sn.trivial.ticket.repository.ClientRepository;
+import sn.trivial.ticket.repository.UserRepository;
+import sn.trivial.ticket.security.AuthoritiesConstants;
+import sn.trivial.ticket.service.dto.IdentityDTO;
+
+/**
+ * Integration tests for {@link IdentityService}.
+ */
+@IntegrationTest
+@Transactional
+class IdentityServiceIT {
+
+    private static final String DEFAULT_LOGIN = "identity-client";
+
+    @Autowired
+    private IdentityService identityService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+
+    private Client client;
+
+    @BeforeEach
+    public void init() {
+        cacheManager.getCache(IdentityService.IDENTITIES_BY_LOGIN_CACHE).clear();
+
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.CLIENT);
+
+        user = new User();
+        user.setLogin(DEFAULT_LOGIN);
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail("identity-client@localhost");
+        user.setAuthorities(Set.of(authority));
+        user = userRepository.saveAndFlush(user);
+
+        client = clientRepository.saveAndFlush(new Client().firstName("john").lastName("doe").email("john.doe@localhost").user(user));
+    }
+
+    @Test
+    void assertThatIdentityIsResolvedFromLogin() {
+        IdentityDTO identity = identityService.findByLogin(DEFAULT_LOGIN).orElseThrow();
+
+        assertThat(identity.getUserId()).isEqualTo(user.getId());
+        assertThat(identity.getClientId()).isEqualTo(client.getId());
+        assertThat(identity.isAgent()).isFalse();
+        assertThat(identity.getAuthorities()).containsExactly(AuthoritiesConstants.CLIENT);
+        assertThat(identityService.findByLogin("unknown-login")).isEmpty();
+    }
+
+    @Test
+    void assertThatIdentityIsCachedUntilTheClientIsDeleted() {
+        identityService.findByLogin(DEFAULT_LOGIN).orElseThrow();
+        assertThat(cacheManager.getCache(IdentityService.IDENTITIES_BY_LOGIN_CACHE).get(DEFAULT_LOGIN)).isNotNull();
+
+        clientService.delete(client.getId());
+
+        assertThat(cacheManager.getCache(IdentityService.IDENTITIES_BY_LOGIN_CACHE).get(DEFAULT_LOGIN)).isNull();
+        assertThat(identityService.findByLogin(DEFAULT_LOGIN).orElseThrow().isClient()).isFalse();
+    }
+
+    @Test
+    void assertThatIdentityIsEvictedWhenTheUserIsDeleted() {
+        clientRepository.delete(client);
+        identityService.findByLogin(DEFAULT_LOGIN).orElseThrow();
+
+        userService.deleteUser(DEFAULT_LOGIN);
+
+        assertThat(cacheManager.getCache(IdentityService.IDENTITIES_BY_LOGIN_CACHE).get(DEFAULT_LOGIN)).isNull();
+    }
+}
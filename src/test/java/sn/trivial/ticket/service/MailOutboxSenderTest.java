@@ -0,0 +1,146 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.domain.MailOutbox;
+import sn.trivial.ticket.repository.MailOutboxRepository;
+import tech.jhipster.config.JHipsterProperties;
+
+class MailOutboxSenderTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailOutboxRepository mailOutboxRepository;
+
+    private JavaMailSenderImpl javaMailSender;
+
+    private ApplicationProperties applicationProperties;
+
+    private MailOutboxSender mailOutboxSender;
+
+    @BeforeEach
+    public void setup() {
+        mailOutboxRepository = mock(MailOutboxRepository.class);
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(ServerSetupTest.SMTP.getPort());
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("tickets_management@localhost.com");
+        applicationProperties = new ApplicationProperties();
+        mailOutboxSender =
+            new MailOutboxSender(
+                mailOutboxRepository,
+                javaMailSender,
+                jHipsterProperties,
+                applicationProperties,
+                mock(PlatformTransactionManager.class)
+            );
+    }
+
+    @Test
+    void testBatchIsSentAndDeleted() throws Exception {
+        MailOutbox plain = mail(1L, false, false, 0);
+        MailOutbox multipartHtml = mail(2L, true, true, 0);
+        when(mailOutboxRepository.findDueForUpdateSkipLocked(any(), any())).thenReturn(List.of(plain, multipartHtml));
+
+        assertThat(mailOutboxSender.deliver()).isEqualTo(2);
+
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertThat(messages).hasSize(2);
+        // the SMTP server may receive the messages in any order
+        MimeMessage plainMessage = messages[0].getContent() instanceof String ? messages[0] : messages[1];
+        MimeMessage multipartMessage = plainMessage == messages[0] ? messages[1] : messages[0];
+        assertThat(plainMessage.getSubject()).isEqualTo("testSubject");
+        assertThat(plainMessage.getAllRecipients()[0]).hasToString("john.doe@example.com");
+        assertThat(plainMessage.getFrom()[0]).hasToString("tickets_management@localhost.com");
+        assertThat(plainMessage.getContent()).hasToString("testContent");
+        assertThat(plainMessage.getDataHandler().getContentType()).isEqualTo("text/plain; charset=UTF-8");
+        MimeMultipart mp = (MimeMultipart) multipartMessage.getContent();
+        MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
+        assertThat(part.getContent()).hasToString("testContent");
+        assertThat(part.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+
+        assertThat(plain.getAttempts()).isEqualTo(1);
+        verify(mailOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void testScheduledDeliveryIsDisabled() {
+        applicationProperties.getMail().setEnabled(false);
+
+        mailOutboxSender.scheduledDeliver();
+
+        verify(mailOutboxRepository, never()).findDueForUpdateSkipLocked(any(), any());
+    }
+
+    @Test
+    void testFailedDeliveryIsRetriedWithBackoff() {
+        greenMail.stop();
+        MailOutbox firstAttempt = mail(1L, false, false, 0);
+        MailOutbox lastAttempt = mail(2L, false, false, applicationProperties.getMail().getMaxAttempts() - 1);
+        when(mailOutboxRepository.findDueForUpdateSkipLocked(any(), any())).thenReturn(List.of(firstAttempt, lastAttempt));
+        when(mailOutboxRepository.findAllById(any())).thenReturn(List.of(firstAttempt, lastAttempt));
+
+        Instant before = Instant.now();
+        assertThat(mailOutboxSender.deliver()).isEqualTo(2);
+
+        verify(mailOutboxRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(firstAttempt.getAttempts()).isEqualTo(1);
+        assertThat(firstAttempt.getLastError()).isNotEmpty();
+        assertThat(firstAttempt.getNextAttemptAt())
+            .isAfterOrEqualTo(before.plusSeconds(applicationProperties.getMail().getInitialBackoffSeconds()))
+            .isBefore(before.plusSeconds(applicationProperties.getMail().getLeaseSeconds()));
+        assertThat(lastAttempt.getLastError()).isNotEmpty();
+        assertThat(lastAttempt.getNextAttemptAt()).isNull();
+    }
+
+    @Test
+    void testBackoffDoublesUpToTheMaximum() {
+        applicationProperties.getMail().setInitialBackoffSeconds(30);
+        applicationProperties.getMail().setMaxBackoffSeconds(100);
+
+        assertThat(mailOutboxSender.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(mailOutboxSender.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(mailOutboxSender.backoff(3)).isEqualTo(Duration.ofSeconds(100));
+        assertThat(mailOutboxSender.backoff(64)).isEqualTo(Duration.ofSeconds(100));
+    }
+
+    @Test
+    void testNothingDue() {
+        assertThat(mailOutboxSender.deliver()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    private static MailOutbox mail(Long id, boolean multipart, boolean html, int attempts) {
+        return new MailOutbox()
+            .id(id)
+            .recipient("john.doe@example.com")
+            .subject("testSubject")
+            .content("testContent")
+            .multipart(multipart)
+            .html(html)
+            .createdAt(Instant.now())
+            .attempts(attempts)
+            .nextAttemptAt(Instant.now());
+    }
+}
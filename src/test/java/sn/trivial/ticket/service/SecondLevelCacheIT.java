@@ -0,0 +1,148 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.Client;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.ClientRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.service.dto.ClientDTO;
+import sn.trivial.ticket.service.dto.TicketDTO;
+import sn.trivial.ticket.web.rest.vm.TicketSelectionVM;
+
+/**
+ * Integration tests of the service-level writes with the second-level cache enabled, as in production: the next read of a
+ * written entity must see the write, whichever path made it.
+ * <p>
+ * Not transactional: every write and read runs in its own transaction, so that the reads go through the cache.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+    }
+)
+class SecondLevelCacheIT {
+
+    private static final Instant ISSUED_AT = Instant.parse("2023-05-10T08:00:00Z");
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketBulkService ticketBulkService;
+
+    @Autowired
+    private TicketArchiveService ticketArchiveService;
+
+    @Autowired
+    private TicketCountService ticketCountService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private Client client;
+
+    private Ticket ticket;
+
+    @BeforeEach
+    public void init() {
+        client = clientRepository.saveAndFlush(new Client().firstName("cached").lastName("cached").email("cached-client@localhost"));
+        ticket =
+            ticketRepository.saveAndFlush(
+                new Ticket()
+                    .code("T-" + RandomStringUtils.randomAlphanumeric(10))
+                    .status(TicketStatus.RECEIVED)
+                    .issueDescription("issue")
+                    .issuedAt(ISSUED_AT)
+                    .issuedBy(client)
+            );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("id", ticket.getId());
+        jdbcTemplate.update("delete from ticket_archive where id = :id", parameters);
+        jdbcTemplate.update("delete from ticket where id = :id", parameters);
+        clientRepository.deleteById(client.getId());
+        // the tickets deleted above were not seen by the counters
+        ticketCountService.reconcile();
+    }
+
+    @Test
+    void assertThatClientUpdatesAreSeenThroughTheCache() {
+        assertThat(clientService.findOne(client.getId()).map(ClientDTO::getFirstName)).contains("cached");
+        assertThat(entityManagerFactory.getCache().contains(Client.class, client.getId())).isTrue();
+
+        ClientDTO update = new ClientDTO();
+        update.setId(client.getId());
+        update.setFirstName("updated");
+        clientService.partialUpdate(update);
+
+        assertThat(clientService.findOne(client.getId()).map(ClientDTO::getFirstName)).contains("updated");
+    }
+
+    @Test
+    void assertThatTicketUpdatesAreSeenThroughTheCache() {
+        assertThat(ticketService.findOne(ticket.getId()).map(TicketDTO::getStatus)).contains(TicketStatus.RECEIVED);
+        assertThat(entityManagerFactory.getCache().contains(Ticket.class, ticket.getId())).isTrue();
+
+        TicketDTO update = new TicketDTO();
+        update.setId(ticket.getId());
+        update.setIssueDescription("updated");
+        ticketService.partialUpdate(update);
+
+        assertThat(ticketService.findOne(ticket.getId()).map(TicketDTO::getIssueDescription)).contains("updated");
+    }
+
+    @Test
+    void assertThatBulkUpdatesAreSeenByTheNextRead() {
+        assertThat(ticketService.findOne(ticket.getId()).map(TicketDTO::getStatus)).contains(TicketStatus.RECEIVED);
+
+        TicketSelectionVM selection = new TicketSelectionVM();
+        selection.setTicketIds(List.of(ticket.getId()));
+        ticketBulkService.close(selection);
+
+        assertThat(ticketService.findOne(ticket.getId()).map(TicketDTO::getStatus)).contains(TicketStatus.CLOSED);
+    }
+
+    @Test
+    void assertThatArchivedTicketsAreEvictedFromTheCache() {
+        ticketRepository.saveAndFlush(ticket.status(TicketStatus.CLOSED).issueDescription("archived"));
+        assertThat(ticketService.findOne(ticket.getId()).map(TicketDTO::getIssueDescription)).contains("archived");
+        assertThat(entityManagerFactory.getCache().contains(Ticket.class, ticket.getId())).isTrue();
+
+        ticketArchiveService.archive(Instant.now().minus(30, ChronoUnit.DAYS));
+
+        assertThat(entityManagerFactory.getCache().contains(Ticket.class, ticket.getId())).isFalse();
+        assertThat(ticketRepository.existsById(ticket.getId())).isFalse();
+        assertThat(ticketService.findOne(ticket.getId()).map(TicketDTO::getIssueDescription)).contains("archived");
+    }
+}
@@ -0,0 +1,130 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.Message;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.MessageRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.service.dto.MessageDTO;
+import sn.trivial.ticket.service.dto.TicketDTO;
+
+/**
+ * Integration tests for {@link TicketArchiveService}.
+ * <p>
+ * Not transactional: the tickets are archived by batches, each in its own transaction, which must see the test data.
+ */
+@IntegrationTest
+class TicketArchiveServiceIT {
+
+    private static final Set<TicketStatus> CLOSED = EnumSet.of(TicketStatus.CLOSED);
+
+    private static final Instant ISSUED_AT = Instant.parse("2023-05-10T08:00:00Z");
+
+    @Autowired
+    private TicketArchiveService ticketArchiveService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageQueryService messageQueryService;
+
+    @Autowired
+    private TicketCountService ticketCountService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final List<Ticket> tickets = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        List<Long> ids = tickets.stream().map(Ticket::getId).collect(Collectors.toList());
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids);
+        jdbcTemplate.update("delete from message_archive where ticket_id in (:ids)", parameters);
+        jdbcTemplate.update("delete from ticket_archive where id in (:ids)", parameters);
+        jdbcTemplate.update("delete from message where ticket_id in (:ids)", parameters);
+        jdbcTemplate.update("delete from ticket where id in (:ids)", parameters);
+        // the tickets deleted above were not seen by the counters
+        ticketCountService.reconcile();
+    }
+
+    @Test
+    void assertThatOnlyTheOldClosedTicketsAreArchived() {
+        Ticket oldClosed = createTicket(TicketStatus.CLOSED, ISSUED_AT);
+        Message first = createMessage(oldClosed, "first", ISSUED_AT);
+        Message second = createMessage(oldClosed, "second", ISSUED_AT.plus(1, ChronoUnit.HOURS));
+        Ticket recentClosed = createTicket(TicketStatus.CLOSED, Instant.now());
+        Ticket oldReceived = createTicket(TicketStatus.RECEIVED, ISSUED_AT);
+        long closed = ticketCountService.count(CLOSED);
+
+        long archivedCount = ticketArchiveService.archive(Instant.now().minus(30, ChronoUnit.DAYS));
+
+        assertThat(ticketRepository.existsById(oldClosed.getId())).isFalse();
+        assertThat(messageRepository.existsById(first.getId())).isFalse();
+        assertThat(ticketRepository.existsById(recentClosed.getId())).isTrue();
+        assertThat(ticketRepository.existsById(oldReceived.getId())).isTrue();
+
+        // the counters, and the totals of the pages read from them, count the tickets left in the working table
+        assertThat(archivedCount).isPositive();
+        assertThat(ticketCountService.count(CLOSED)).isEqualTo(closed - archivedCount);
+
+        // the read endpoints fall back to the archive
+        TicketDTO archived = ticketService.findOne(oldClosed.getId()).orElseThrow();
+        assertThat(archived.getCode()).isEqualTo(oldClosed.getCode());
+        assertThat(archived.getStatus()).isEqualTo(TicketStatus.CLOSED);
+        assertThat(archived.getIssuedAt()).isEqualTo(ISSUED_AT);
+        assertThat(messageService.findOne(second.getId()).map(MessageDTO::getContent)).contains("second");
+
+        assertThat(messageQueryService.findByCriteriaAndTicketId(oldClosed.getId(), null, null, null))
+            .extracting(MessageDTO::getId)
+            .containsExactly(first.getId(), second.getId());
+        assertThat(messageQueryService.findByCriteriaAndTicketId(oldClosed.getId(), second.getId(), null, null))
+            .extracting(MessageDTO::getId)
+            .containsExactly(first.getId());
+        assertThat(messageQueryService.findByCriteriaAndTicketId(oldClosed.getId(), null, first.getId(), null))
+            .extracting(MessageDTO::getId)
+            .containsExactly(second.getId());
+    }
+
+    private Ticket createTicket(TicketStatus status, Instant issuedAt) {
+        Ticket ticket = ticketRepository.saveAndFlush(
+            new Ticket()
+                .code("T-" + RandomStringUtils.randomAlphanumeric(10))
+                .status(status)
+                .issueDescription("issue")
+                .issuedAt(issuedAt)
+        );
+        tickets.add(ticket);
+        return ticket;
+    }
+
+    private Message createMessage(Ticket ticket, String content, Instant sentAt) {
+        return messageRepository.saveAndFlush(new Message().content(content).sentAt(sentAt).ticket(ticket));
+    }
+}
@@ -0,0 +1,164 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.AgentRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.service.criteria.TicketCriteria;
+import sn.trivial.ticket.service.dto.TicketBulkResultDTO;
+import sn.trivial.ticket.service.dto.TicketBulkResultDTO.Outcome;
+import sn.trivial.ticket.web.rest.errors.BadRequestAlertException;
+import sn.trivial.ticket.web.rest.vm.TicketSelectionVM;
+
+/**
+ * Integration tests for {@link TicketBulkService}.
+ * <p>
+ * Not transactional: every chunk of tickets is updated in its own transaction, which must see the test data.
+ */
+@IntegrationTest
+class TicketBulkServiceIT {
+
+    private static final long UNKNOWN_TICKET_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private TicketBulkService ticketBulkService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private final List<Ticket> tickets = new ArrayList<>();
+
+    private Agent agent;
+
+    private int chunkSize;
+
+    @BeforeEach
+    public void init() {
+        agent = agentRepository.saveAndFlush(new Agent().firstName("bulk").lastName("bulk").email("bulk-agent@localhost"));
+        // several chunks, even with a few tickets
+        chunkSize = applicationProperties.getBulk().getChunkSize();
+        applicationProperties.getBulk().setChunkSize(2);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getBulk().setChunkSize(chunkSize);
+        ticketRepository.deleteAll(tickets);
+        agentRepository.delete(agent);
+    }
+
+    @Test
+    void assertThatTicketsAreAssignedByIds() {
+        Ticket received = createTicket(TicketStatus.RECEIVED);
+        Ticket pending = createTicket(TicketStatus.PENDING);
+        Ticket closed = createTicket(TicketStatus.CLOSED);
+
+        TicketBulkResultDTO result = ticketBulkService.assignToAgent(
+            selectionOf(List.of(closed.getId(), UNKNOWN_TICKET_ID, pending.getId(), received.getId())),
+            agent.getId()
+        );
+
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getNotFound()).isEqualTo(1);
+        assertThat(result.getTickets())
+            .extracting(TicketBulkResultDTO.TicketResult::getTicketId, TicketBulkResultDTO.TicketResult::getOutcome)
+            .containsExactly(
+                tuple(received.getId(), Outcome.UPDATED),
+                tuple(pending.getId(), Outcome.UPDATED),
+                tuple(closed.getId(), Outcome.REJECTED),
+                tuple(UNKNOWN_TICKET_ID, Outcome.NOT_FOUND)
+            );
+
+        Ticket assignedReceived = ticketRepository.findById(received.getId()).orElseThrow();
+        assertThat(assignedReceived.getStatus()).isEqualTo(TicketStatus.BEING_TREATED);
+        assertThat(assignedReceived.getAssignedTo().getId()).isEqualTo(agent.getId());
+        Ticket assignedPending = ticketRepository.findById(pending.getId()).orElseThrow();
+        assertThat(assignedPending.getStatus()).isEqualTo(TicketStatus.PENDING);
+        assertThat(assignedPending.getAssignedTo().getId()).isEqualTo(agent.getId());
+        assertThat(ticketRepository.findById(closed.getId()).orElseThrow().getAssignedTo()).isNull();
+    }
+
+    @Test
+    void assertThatTicketsAreClosedByCriteria() {
+        Ticket received = createTicket(TicketStatus.RECEIVED);
+        Ticket treated = createTicket(TicketStatus.TREATED);
+        Ticket closed = createTicket(TicketStatus.CLOSED);
+        TicketCriteria criteria = new TicketCriteria();
+        criteria.id().setIn(List.of(received.getId(), treated.getId(), closed.getId()));
+        TicketSelectionVM selection = new TicketSelectionVM();
+        selection.setCriteria(criteria);
+
+        TicketBulkResultDTO result = ticketBulkService.close(selection);
+
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(ticketRepository.findById(received.getId()).orElseThrow().getStatus()).isEqualTo(TicketStatus.CLOSED);
+        assertThat(ticketRepository.findById(treated.getId()).orElseThrow().getStatus()).isEqualTo(TicketStatus.CLOSED);
+    }
+
+    @Test
+    void assertThatTransitionsNotAllowedToAdminsAreRejected() {
+        Ticket received = createTicket(TicketStatus.RECEIVED);
+        Ticket closed = createTicket(TicketStatus.CLOSED);
+
+        TicketBulkResultDTO result = ticketBulkService.changeStatus(
+            selectionOf(List.of(received.getId(), closed.getId())),
+            TicketStatus.BEING_TREATED
+        );
+
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getTickets())
+            .extracting(TicketBulkResultDTO.TicketResult::getReason)
+            .containsExactly("agentrequired", "transitionnotallowed");
+        assertThat(ticketRepository.findById(received.getId()).orElseThrow().getStatus()).isEqualTo(TicketStatus.RECEIVED);
+    }
+
+    @Test
+    void assertThatSelectionIsEitherIdsOrCriteria() {
+        TicketSelectionVM selection = selectionOf(List.of(1L));
+        selection.setCriteria(new TicketCriteria());
+
+        assertThatThrownBy(() -> ticketBulkService.close(selection)).isInstanceOf(BadRequestAlertException.class);
+        assertThatThrownBy(() -> ticketBulkService.close(new TicketSelectionVM())).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    private static TicketSelectionVM selectionOf(List<Long> ticketIds) {
+        TicketSelectionVM selection = new TicketSelectionVM();
+        selection.setTicketIds(ticketIds);
+        return selection;
+    }
+
+    private Ticket createTicket(TicketStatus status) {
+        Ticket ticket = ticketRepository.saveAndFlush(
+            new Ticket()
+                .code("T-" + RandomStringUtils.randomAlphanumeric(10))
+                .status(status)
+                .issueDescription("issue")
+                .issuedAt(Instant.now())
+        );
+        tickets.add(ticket);
+        return ticket;
+    }
+}
@@ -0,0 +1,156 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.User;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.AgentRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.repository.UserRepository;
+
+/**
+ * Integration tests for {@link TicketCountService} and {@link TicketCountTracker}.
+ * <p>
+ * Not transactional: the counters are only added when the transactions changing the tickets commit.
+ */
+@IntegrationTest
+class TicketCountServiceIT {
+
+    private static final Set<TicketStatus> BEING_TREATED = EnumSet.of(TicketStatus.BEING_TREATED);
+
+    private static final Set<TicketStatus> PENDING = EnumSet.of(TicketStatus.PENDING);
+
+    @Autowired
+    private TicketCountService ticketCountService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Ticket> tickets = new ArrayList<>();
+
+    private Agent agent;
+
+    @BeforeEach
+    public void init() {
+        agent = createAgent("counted-agent");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ticketRepository.deleteAll(tickets);
+        agentRepository.delete(agent);
+        userRepository.delete(agent.getUser());
+        ticketCountService.reconcile();
+    }
+
+    @Test
+    void assertThatCountersFollowTheChangesOfTheTickets() {
+        long beingTreated = ticketCountService.count(BEING_TREATED);
+        long pending = ticketCountService.count(PENDING);
+
+        Ticket ticket = createTicket(TicketStatus.BEING_TREATED);
+        assertThat(ticketCountService.count(BEING_TREATED)).isEqualTo(beingTreated + 1);
+        assertThat(ticketCountService.countAssignedToAgent(agent.getId(), BEING_TREATED)).isEqualTo(1);
+
+        ticket.setStatus(TicketStatus.PENDING);
+        ticketRepository.saveAndFlush(ticket);
+        assertThat(ticketCountService.count(BEING_TREATED)).isEqualTo(beingTreated);
+        assertThat(ticketCountService.count(PENDING)).isEqualTo(pending + 1);
+        assertThat(ticketCountService.countAssignedToAgent(agent.getId(), BEING_TREATED)).isZero();
+        assertThat(ticketCountService.countAssignedToAgent(agent.getId(), PENDING)).isEqualTo(1);
+        assertThat(ticketCountService.countByStatus()).containsEntry(TicketStatus.PENDING, pending + 1);
+
+        ticketRepository.delete(ticket);
+        tickets.remove(ticket);
+        assertThat(ticketCountService.count(PENDING)).isEqualTo(pending);
+        assertThat(ticketCountService.countAssignedToAgent(agent.getId(), PENDING)).isZero();
+    }
+
+    @Test
+    void assertThatCountersIncludeTheChangesOfTheCurrentTransactionOnly() {
+        long beingTreated = ticketCountService.count(BEING_TREATED);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            ticketRepository.save(newTicket(TicketStatus.BEING_TREATED));
+            assertThat(ticketCountService.count(BEING_TREATED)).isEqualTo(beingTreated + 1);
+            assertThat(ticketCountService.countAssignedToAgent(agent.getId(), BEING_TREATED)).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(ticketCountService.count(BEING_TREATED)).isEqualTo(beingTreated);
+        assertThat(ticketCountService.countAssignedToAgent(agent.getId(), BEING_TREATED)).isZero();
+    }
+
+    @Test
+    void assertThatReconciliationCorrectsTheDriftedCounters() {
+        ticketCountService.reconcile();
+        long pending = ticketCountService.count(PENDING);
+        Ticket ticket = createTicket(TicketStatus.BEING_TREATED);
+
+        // a bulk update, not seen by the tracker
+        jdbcTemplate.update("update ticket set status = ? where id = ?", TicketStatus.PENDING.name(), ticket.getId());
+        assertThat(ticketCountService.count(PENDING)).isEqualTo(pending);
+        assertThat(ticketCountService.countAssignedToAgent(agent.getId(), BEING_TREATED)).isEqualTo(1);
+
+        assertThat(ticketCountService.reconcile()).isEqualTo(4);
+        assertThat(ticketCountService.count(PENDING)).isEqualTo(pending + 1);
+        assertThat(ticketCountService.countAssignedToAgent(agent.getId(), BEING_TREATED)).isZero();
+        assertThat(ticketCountService.countAssignedToAgent(agent.getId(), PENDING)).isEqualTo(1);
+
+        assertThat(ticketCountService.reconcile()).isZero();
+    }
+
+    private Agent createAgent(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail(login + "@localhost");
+        user = userRepository.saveAndFlush(user);
+        return agentRepository.saveAndFlush(new Agent().firstName(login).lastName(login).email(login + "@localhost").user(user));
+    }
+
+    private Ticket newTicket(TicketStatus status) {
+        return new Ticket()
+            .code("T-" + RandomStringUtils.randomAlphanumeric(10))
+            .status(status)
+            .issueDescription("issue")
+            .issuedAt(Instant.now())
+            .assignedTo(agent);
+    }
+
+    private Ticket createTicket(TicketStatus status) {
+        Ticket ticket = ticketRepository.saveAndFlush(newTicket(status));
+        tickets.add(ticket);
+        return ticket;
+    }
+}
@@ -0,0 +1,101 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.User;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.AgentRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.repository.UserRepository;
+
+/**
+ * Integration tests for {@link TicketDispatcher}.
+ * <p>
+ * Not transactional: the dispatcher assigns every ticket in its own transaction, which must see the test data.
+ */
+@IntegrationTest
+class TicketDispatcherIT {
+
+    @Autowired
+    private TicketDispatcher ticketDispatcher;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Ticket> tickets = new ArrayList<>();
+
+    private Agent busyAgent;
+
+    private Agent idleAgent;
+
+    @BeforeEach
+    public void init() {
+        busyAgent = createAgent("busy-agent");
+        idleAgent = createAgent("idle-agent");
+        createTicket(TicketStatus.BEING_TREATED, busyAgent, Instant.now().minusSeconds(60));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ticketRepository.deleteAll(tickets);
+        agentRepository.deleteAll(List.of(busyAgent, idleAgent));
+        userRepository.deleteAll(List.of(busyAgent.getUser(), idleAgent.getUser()));
+    }
+
+    @Test
+    void assertThatReceivedTicketsAreAssignedToTheLeastLoadedAgents() {
+        Ticket oldest = createTicket(TicketStatus.RECEIVED, null, Instant.now().minusSeconds(30));
+        Ticket newest = createTicket(TicketStatus.RECEIVED, null, Instant.now());
+
+        assertThat(ticketDispatcher.dispatch()).isEqualTo(2);
+
+        Ticket dispatchedOldest = ticketRepository.findById(oldest.getId()).orElseThrow();
+        assertThat(dispatchedOldest.getStatus()).isEqualTo(TicketStatus.BEING_TREATED);
+        assertThat(dispatchedOldest.getAssignedTo().getId()).isEqualTo(idleAgent.getId());
+        Ticket dispatchedNewest = ticketRepository.findById(newest.getId()).orElseThrow();
+        assertThat(dispatchedNewest.getStatus()).isEqualTo(TicketStatus.BEING_TREATED);
+        assertThat(dispatchedNewest.getAssignedTo().getId()).isEqualTo(busyAgent.getId());
+
+        assertThat(ticketDispatcher.dispatch()).isZero();
+    }
+
+    private Agent createAgent(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail(login + "@localhost");
+        user = userRepository.saveAndFlush(user);
+        return agentRepository.saveAndFlush(new Agent().firstName(login).lastName(login).email(login + "@localhost").user(user));
+    }
+
+    private Ticket createTicket(TicketStatus status, Agent agent, Instant issuedAt) {
+        Ticket ticket = ticketRepository.saveAndFlush(
+            new Ticket()
+                .code("T-" + RandomStringUtils.randomAlphanumeric(10))
+                .status(status)
+                .issueDescription("issue")
+                .issuedAt(issuedAt)
+                .assignedTo(agent)
+        );
+        tickets.add(ticket);
+        return ticket;
+    }
+}
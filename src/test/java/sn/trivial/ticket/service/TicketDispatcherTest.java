@@ -0,0 +1,79 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.config.ApplicationProperties.Dispatcher.Policy;
+import sn.trivial.ticket.repository.AgentRepository;
+import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.service.dto.AgentLoadDTO;
+
+class TicketDispatcherTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private TicketDispatcher ticketDispatcher;
+
+    private List<AgentLoadDTO> agentLoads;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        ticketDispatcher =
+            new TicketDispatcher(
+                mock(TicketRepository.class),
+                mock(AgentRepository.class),
+                mock(TicketStatusMachine.class),
+                applicationProperties,
+                mock(PlatformTransactionManager.class),
+                mock(ApplicationEventPublisher.class)
+            );
+        agentLoads = List.of(new AgentLoadDTO(1L, "first", 3), new AgentLoadDTO(2L, "second", 1), new AgentLoadDTO(3L, "third", 2));
+    }
+
+    @Test
+    void testLeastLoadedPolicy() {
+        applicationProperties.getDispatcher().setPolicy(Policy.LEAST_LOADED);
+
+        assertThat(ticketDispatcher.selectAgent(agentLoads).getAgentId()).isEqualTo(2L);
+        agentLoads.get(1).incrementOpenTickets();
+        agentLoads.get(1).incrementOpenTickets();
+        assertThat(ticketDispatcher.selectAgent(agentLoads).getAgentId()).isEqualTo(3L);
+    }
+
+    @Test
+    void testRoundRobinPolicy() {
+        applicationProperties.getDispatcher().setPolicy(Policy.ROUND_ROBIN);
+
+        assertThat(ticketDispatcher.selectAgent(agentLoads).getAgentId()).isEqualTo(1L);
+        assertThat(ticketDispatcher.selectAgent(agentLoads).getAgentId()).isEqualTo(2L);
+        assertThat(ticketDispatcher.selectAgent(agentLoads).getAgentId()).isEqualTo(3L);
+        assertThat(ticketDispatcher.selectAgent(agentLoads).getAgentId()).isEqualTo(1L);
+    }
+
+    @Test
+    void testWeightedPolicy() {
+        applicationProperties.getDispatcher().setPolicy(Policy.WEIGHTED);
+        applicationProperties.getDispatcher().getWeights().put("first", 4);
+
+        assertThat(ticketDispatcher.selectAgent(agentLoads).getAgentId()).isEqualTo(1L);
+
+        applicationProperties.getDispatcher().getWeights().put("first", 0);
+        assertThat(ticketDispatcher.selectAgent(agentLoads).getAgentId()).isEqualTo(2L);
+    }
+
+    @Test
+    void testMaxOpenTicketsPerAgent() {
+        applicationProperties.getDispatcher().setMaxOpenTicketsPerAgent(2);
+
+        assertThat(ticketDispatcher.selectAgent(agentLoads).getAgentId()).isEqualTo(2L);
+        agentLoads.get(1).incrementOpenTickets();
+        assertThat(ticketDispatcher.selectAgent(agentLoads)).isNull();
+    }
+}
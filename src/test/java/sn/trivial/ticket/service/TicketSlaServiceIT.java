@@ -0,0 +1,105 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.Agent;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.TicketTransition;
+import sn.trivial.ticket.domain.enumeration.TicketSlaMetric;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.repository.TicketTransitionRepository;
+import sn.trivial.ticket.service.TicketStatusMachine.Role;
+import sn.trivial.ticket.service.dto.TicketSlaDTO;
+
+/**
+ * Integration tests for {@link TicketTransitionRecorder} and {@link TicketSlaService}.
+ */
+@IntegrationTest
+@Transactional
+class TicketSlaServiceIT {
+
+    private static final Duration WAITING = Duration.ofMinutes(10);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TicketStatusMachine ticketStatusMachine;
+
+    @Autowired
+    private TicketTransitionRepository ticketTransitionRepository;
+
+    @Autowired
+    private TicketSlaService ticketSlaService;
+
+    @Test
+    void assertThatTransitionsAreLoggedAndRolledUpPerAgent() {
+        Agent agent = new Agent().firstName("sla").lastName("sla").email("sla-agent@localhost");
+        em.persist(agent);
+        Ticket ticket = new Ticket()
+            .code("T-" + RandomStringUtils.randomAlphanumeric(10))
+            .status(TicketStatus.CLOSED)
+            .issueDescription("issue")
+            .issuedAt(Instant.now().minus(WAITING))
+            .assignedTo(agent);
+        em.persist(ticket);
+
+        ticketStatusMachine.onTransition(ticket.getId(), Role.AGENT, TicketStatus.RECEIVED, TicketStatus.PENDING);
+        ticketStatusMachine.onTransition(ticket.getId(), Role.CLIENT, TicketStatus.PENDING, TicketStatus.CLOSED);
+        em.flush();
+
+        List<TicketTransition> transitions = ticketTransitionRepository
+            .findAll()
+            .stream()
+            .filter(transition -> transition.getTicketId().equals(ticket.getId()))
+            .sorted(Comparator.comparing(TicketTransition::getId))
+            .collect(Collectors.toList());
+        assertThat(transitions).hasSize(2);
+        TicketTransition claim = transitions.get(0);
+        assertThat(claim.getActorRole()).isEqualTo(Role.AGENT.name());
+        assertThat(claim.getAgentId()).isEqualTo(agent.getId());
+        assertThat(claim.getDurationMs()).isGreaterThanOrEqualTo(WAITING.toMillis());
+        assertThat(claim.getFirstResponse()).isTrue();
+        TicketTransition close = transitions.get(1);
+        assertThat(close.getFromStatus()).isEqualTo(TicketStatus.PENDING);
+        assertThat(close.getToStatus()).isEqualTo(TicketStatus.CLOSED);
+        assertThat(close.getDurationMs()).isLessThan(WAITING.toMillis());
+        assertThat(close.getSinceIssuedMs()).isGreaterThanOrEqualTo(WAITING.toMillis());
+        assertThat(close.getResponded()).isTrue();
+        assertThat(close.getFirstResponse()).isFalse();
+
+        assertThat(ticketSlaService.rollup()).isPositive();
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<TicketSlaDTO> sla = ticketSlaService.findDaily(today, today, agent.getId());
+        assertThat(sla)
+            .extracting(TicketSlaDTO::getMetric)
+            .containsExactlyInAnyOrder(
+                TicketSlaMetric.FIRST_RESPONSE,
+                TicketSlaMetric.TIME_TO_CLOSE,
+                TicketSlaMetric.TIME_IN_RECEIVED,
+                TicketSlaMetric.TIME_IN_PENDING
+            );
+        TicketSlaDTO firstResponse = sla
+            .stream()
+            .filter(dto -> dto.getMetric() == TicketSlaMetric.FIRST_RESPONSE)
+            .findFirst()
+            .orElseThrow();
+        assertThat(firstResponse.getAgentId()).isEqualTo(agent.getId());
+        assertThat(firstResponse.getCount()).isEqualTo(1);
+        assertThat(firstResponse.getP50Ms()).isBetween(WAITING.toMillis(), (long) (WAITING.toMillis() * 1.2));
+    }
+}
@@ -0,0 +1,103 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sn.trivial.ticket.domain.enumeration.TicketSlaMetric;
+import sn.trivial.ticket.repository.TicketSlaRollupRepository;
+import sn.trivial.ticket.repository.TicketSlaRollupRepository.DailyBucket;
+import sn.trivial.ticket.service.dto.TicketSlaDTO;
+
+class TicketSlaServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 3, 25);
+
+    private TicketSlaRollupRepository ticketSlaRollupRepository;
+
+    private TicketSlaService ticketSlaService;
+
+    @BeforeEach
+    public void setup() {
+        ticketSlaRollupRepository = mock(TicketSlaRollupRepository.class);
+        ticketSlaService = new TicketSlaService(ticketSlaRollupRepository);
+    }
+
+    @Test
+    void testRollupStartsAnHourBeforeTheLastHourRolledUp() {
+        when(ticketSlaRollupRepository.findLastHourStart()).thenReturn(Optional.of(Instant.parse("2023-03-25T10:00:00Z")));
+        when(ticketSlaRollupRepository.rollup(any())).thenReturn(3);
+
+        assertThat(ticketSlaService.rollup()).isEqualTo(3);
+        verify(ticketSlaRollupRepository).rollup(Instant.parse("2023-03-25T09:00:00Z"));
+    }
+
+    @Test
+    void testFirstRollupStartsAtTheHourOfTheFirstTransition() {
+        when(ticketSlaRollupRepository.findLastHourStart()).thenReturn(Optional.empty());
+        when(ticketSlaRollupRepository.findFirstTransitionAt()).thenReturn(Optional.of(Instant.parse("2023-03-25T10:42:13Z")));
+
+        ticketSlaService.rollup();
+        verify(ticketSlaRollupRepository).rollup(Instant.parse("2023-03-25T10:00:00Z"));
+    }
+
+    @Test
+    void testNoRollupWithoutTransitions() {
+        when(ticketSlaRollupRepository.findLastHourStart()).thenReturn(Optional.empty());
+        when(ticketSlaRollupRepository.findFirstTransitionAt()).thenReturn(Optional.empty());
+
+        assertThat(ticketSlaService.rollup()).isZero();
+        verify(ticketSlaRollupRepository, never()).rollup(any());
+    }
+
+    @Test
+    void testPercentilesPerDayAgentAndMetric() {
+        when(ticketSlaRollupRepository.findDaily(DAY, DAY, null))
+            .thenReturn(
+                List.of(
+                    new DailyBucket(DAY, 0L, TicketSlaMetric.TIME_IN_RECEIVED, 50, 1),
+                    new DailyBucket(DAY, 7L, TicketSlaMetric.FIRST_RESPONSE, 10, 50),
+                    new DailyBucket(DAY, 7L, TicketSlaMetric.FIRST_RESPONSE, 20, 40),
+                    new DailyBucket(DAY, 7L, TicketSlaMetric.FIRST_RESPONSE, 30, 9),
+                    new DailyBucket(DAY, 7L, TicketSlaMetric.FIRST_RESPONSE, 40, 1),
+                    new DailyBucket(DAY, 7L, TicketSlaMetric.TIME_TO_CLOSE, 60, 2)
+                )
+            );
+
+        List<TicketSlaDTO> sla = ticketSlaService.findDaily(DAY, DAY, null);
+
+        assertThat(sla).hasSize(3);
+        assertThat(sla.get(0).getAgentId()).isNull();
+        assertThat(sla.get(0).getMetric()).isEqualTo(TicketSlaMetric.TIME_IN_RECEIVED);
+        assertThat(sla.get(0).getCount()).isEqualTo(1);
+
+        TicketSlaDTO firstResponse = sla.get(1);
+        assertThat(firstResponse.getDay()).isEqualTo(DAY);
+        assertThat(firstResponse.getAgentId()).isEqualTo(7L);
+        assertThat(firstResponse.getCount()).isEqualTo(100);
+        assertThat(firstResponse.getP50Ms()).isEqualTo(TicketSlaRollupRepository.upperBoundMs(10));
+        assertThat(firstResponse.getP90Ms()).isEqualTo(TicketSlaRollupRepository.upperBoundMs(20));
+        assertThat(firstResponse.getP99Ms()).isEqualTo(TicketSlaRollupRepository.upperBoundMs(30));
+        assertThat(firstResponse.getMaxMs()).isEqualTo(TicketSlaRollupRepository.upperBoundMs(40));
+
+        assertThat(sla.get(2).getMetric()).isEqualTo(TicketSlaMetric.TIME_TO_CLOSE);
+        assertThat(sla.get(2).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testBucketsBoundTheDurationsWithinTenPercent() {
+        for (long durationMs : new long[] { 1_000, 60_000, 3_600_000, 86_400_000 }) {
+            int bucket = (int) Math.floor(Math.log(durationMs) / Math.log(TicketSlaRollupRepository.BUCKET_GROWTH));
+            assertThat(TicketSlaRollupRepository.upperBoundMs(bucket)).isBetween(durationMs, (long) Math.ceil(durationMs * 1.1) + 1);
+        }
+    }
+}
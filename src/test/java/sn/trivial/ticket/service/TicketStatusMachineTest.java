@@ -0,0 +1,117 @@
+package sn.trivial.ticket.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.service.TicketStatusMachine.Role;
+
+class TicketStatusMachineTest {
+
+    private MeterRegistry meterRegistry;
+
+    private List<String> notifiedTransitions;
+
+    private TicketStatusMachine ticketStatusMachine;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        notifiedTransitions = new ArrayList<>();
+        ticketStatusMachine =
+            new TicketStatusMachine(
+                meterRegistry,
+                List.of((ticketId, role, from, to) -> notifiedTransitions.add(ticketId + ":" + role + ":" + from + "->" + to))
+            );
+    }
+
+    @Test
+    void testClientTransitions() {
+        assertThat(ticketStatusMachine.canTransition(Role.CLIENT, TicketStatus.RECEIVED, TicketStatus.CLOSED)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.CLIENT, TicketStatus.DO_NOT_TREAT, TicketStatus.CLOSED)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.CLIENT, TicketStatus.TREATED, TicketStatus.CLOSED)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.CLIENT, TicketStatus.TREATED, TicketStatus.BEING_TREATED)).isTrue();
+
+        assertThat(ticketStatusMachine.canTransition(Role.CLIENT, TicketStatus.BEING_TREATED, TicketStatus.CLOSED)).isFalse();
+        assertThat(ticketStatusMachine.canTransition(Role.CLIENT, TicketStatus.RECEIVED, TicketStatus.TREATED)).isFalse();
+        assertThat(ticketStatusMachine.canTransition(Role.CLIENT, TicketStatus.CLOSED, TicketStatus.RECEIVED)).isFalse();
+    }
+
+    @Test
+    void testAgentTransitions() {
+        assertThat(ticketStatusMachine.canTransition(Role.AGENT, TicketStatus.BEING_TREATED, TicketStatus.PENDING)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.AGENT, TicketStatus.BEING_TREATED, TicketStatus.DO_NOT_TREAT)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.AGENT, TicketStatus.PENDING, TicketStatus.CLOSED)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.AGENT, TicketStatus.DO_NOT_TREAT, TicketStatus.CLOSED)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.AGENT, TicketStatus.TREATED, TicketStatus.CLOSED)).isTrue();
+
+        assertThat(ticketStatusMachine.canTransition(Role.AGENT, TicketStatus.BEING_TREATED, TicketStatus.CLOSED)).isFalse();
+        assertThat(ticketStatusMachine.canTransition(Role.AGENT, TicketStatus.RECEIVED, TicketStatus.CLOSED)).isFalse();
+        assertThat(ticketStatusMachine.canTransition(Role.AGENT, TicketStatus.BEING_TREATED, null)).isFalse();
+    }
+
+    @Test
+    void testAdminTransitions() {
+        assertThat(ticketStatusMachine.canTransition(Role.ADMIN, TicketStatus.RECEIVED, TicketStatus.BEING_TREATED)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.ADMIN, TicketStatus.RECEIVED, TicketStatus.CLOSED)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.ADMIN, TicketStatus.BEING_TREATED, TicketStatus.CLOSED)).isTrue();
+        assertThat(ticketStatusMachine.canTransition(Role.ADMIN, TicketStatus.PENDING, TicketStatus.CLOSED)).isTrue();
+
+        assertThat(ticketStatusMachine.canTransition(Role.ADMIN, TicketStatus.CLOSED, TicketStatus.CLOSED)).isFalse();
+        assertThat(ticketStatusMachine.canTransition(Role.ADMIN, TicketStatus.CLOSED, TicketStatus.RECEIVED)).isFalse();
+        assertThat(ticketStatusMachine.canTransition(Role.ADMIN, TicketStatus.PENDING, TicketStatus.TREATED)).isFalse();
+    }
+
+    @Test
+    void testClientReplies() {
+        assertThat(ticketStatusMachine.canReply(Role.CLIENT, TicketStatus.TREATED, TicketStatus.BEING_TREATED)).isTrue();
+        assertThat(ticketStatusMachine.canReply(Role.CLIENT, TicketStatus.PENDING, TicketStatus.BEING_TREATED)).isTrue();
+
+        assertThat(ticketStatusMachine.canReply(Role.CLIENT, TicketStatus.BEING_TREATED, TicketStatus.BEING_TREATED)).isFalse();
+        assertThat(ticketStatusMachine.canReply(Role.CLIENT, TicketStatus.RECEIVED, TicketStatus.BEING_TREATED)).isFalse();
+        assertThat(ticketStatusMachine.canReply(Role.CLIENT, TicketStatus.CLOSED, TicketStatus.BEING_TREATED)).isFalse();
+        assertThat(ticketStatusMachine.canReply(Role.AGENT, TicketStatus.PENDING, TicketStatus.BEING_TREATED)).isFalse();
+        // a reply is not a status change
+        assertThat(ticketStatusMachine.canTransition(Role.CLIENT, TicketStatus.PENDING, TicketStatus.BEING_TREATED)).isFalse();
+    }
+
+    @Test
+    void testWhoseTurn() {
+        assertThat(ticketStatusMachine.whoseTurn(TicketStatus.TREATED)).isEqualTo(Role.CLIENT);
+        assertThat(ticketStatusMachine.whoseTurn(TicketStatus.PENDING)).isEqualTo(Role.CLIENT);
+        assertThat(ticketStatusMachine.whoseTurn(TicketStatus.RECEIVED)).isEqualTo(Role.AGENT);
+        assertThat(ticketStatusMachine.whoseTurn(TicketStatus.BEING_TREATED)).isEqualTo(Role.AGENT);
+        assertThat(ticketStatusMachine.whoseTurn(TicketStatus.DO_NOT_TREAT)).isEqualTo(Role.AGENT);
+    }
+
+    @Test
+    void testTransitionsAreCountedAndNotified() {
+        ticketStatusMachine.onTransition(1L, Role.AGENT, TicketStatus.BEING_TREATED, TicketStatus.PENDING);
+        ticketStatusMachine.onTransition(2L, Role.AGENT, TicketStatus.BEING_TREATED, TicketStatus.PENDING);
+        ticketStatusMachine.onTransition(1L, Role.CLIENT, TicketStatus.PENDING, TicketStatus.BEING_TREATED);
+
+        assertThat(
+            meterRegistry
+                .get(TicketStatusMachine.TRANSITIONS_METER_NAME)
+                .tags("role", "AGENT", "from", "BEING_TREATED", "to", "PENDING")
+                .counter()
+                .count()
+        )
+            .isEqualTo(2);
+        assertThat(
+            meterRegistry
+                .get(TicketStatusMachine.TRANSITIONS_METER_NAME)
+                .tags("role", "CLIENT", "from", "PENDING", "to", "BEING_TREATED")
+                .counter()
+                .count()
+        )
+            .isEqualTo(1);
+        assertThat(notifiedTransitions)
+            .containsExactly("1:AGENT:BEING_TREATED->PENDING", "2:AGENT:BEING_TREATED->PENDING", "1:CLIENT:PENDING->BEING_TREATED");
+    }
+}
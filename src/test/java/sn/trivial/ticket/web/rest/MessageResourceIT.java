@@ -1,15 +1,19 @@
 package sn.trivial.ticket.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,10 +25,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Base64Utils;
 import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.Client;
 import sn.trivial.ticket.domain.Message;
 import sn.trivial.ticket.domain.Ticket;
 import sn.trivial.ticket.domain.User;
 import sn.trivial.ticket.repository.MessageRepository;
+import sn.trivial.ticket.security.AuthoritiesConstants;
 import sn.trivial.ticket.service.criteria.MessageCriteria;
 import sn.trivial.ticket.service.dto.MessageDTO;
 import sn.trivial.ticket.service.mapper.MessageMapper;
@@ -161,6 +167,90 @@ class MessageResourceIT {
             .andExpect(jsonPath("$.[*].sentAt").value(hasItem(DEFAULT_SENT_AT.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllMessagesLoadsNeitherTheTicketsNorTheSenders() throws Exception {
+        // Initialize the database with messages of distinct tickets and clients
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Client client = ClientResourceIT.createEntity(em).email("n1-client-" + i + "@localhost");
+            em.persist(client);
+            Ticket ticket = TicketResourceIT.createEntity(em).code("N1-" + i + "-" + UUID.randomUUID()).issuedBy(client);
+            em.persist(ticket);
+            Message message = createEntity(em).ticket(ticket);
+            em.persist(message);
+            ids.add(message.getId());
+        }
+        StatementCounter statements = new StatementCounter(em);
+        statements.start();
+
+        restMessageMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&id.in=" + ids.stream().map(String::valueOf).collect(Collectors.joining(","))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(ids.size()));
+
+        // the page of messages, whatever the number of tickets
+        statements.assertAtMost(1);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void getDiscussionOfOneTicketIssuesAConstantNumberOfStatements() throws Exception {
+        Ticket ticket = TicketResourceIT.createEntity(em);
+        em.persist(ticket);
+        for (int i = 0; i < 5; i++) {
+            em.persist(createEntity(em).ticket(ticket).sentAt(DEFAULT_SENT_AT.plusSeconds(i)));
+        }
+        StatementCounter statements = new StatementCounter(em);
+        statements.start();
+
+        restMessageMockMvc
+            .perform(get(ENTITY_API_URL + "/tickets/" + ticket.getId() + "/admin"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(5));
+
+        // the ticket, then its messages
+        statements.assertAtMost(2);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void getDiscussionOfOneTicketByCursor() throws Exception {
+        // Initialize the database with a discussion of three messages
+        Ticket ticket = TicketResourceIT.createEntity(em);
+        em.persist(ticket);
+        Message first = createEntity(em).ticket(ticket).sentAt(DEFAULT_SENT_AT);
+        Message second = createEntity(em).ticket(ticket).sentAt(DEFAULT_SENT_AT.plusSeconds(1));
+        Message third = createEntity(em).ticket(ticket).sentAt(DEFAULT_SENT_AT.plusSeconds(2));
+        messageRepository.saveAllAndFlush(List.of(third, first, second));
+        String discussionUrl = ENTITY_API_URL + "/tickets/" + ticket.getId() + "/admin";
+
+        // Without cursor, the latest messages are returned in chronological order
+        restMessageMockMvc
+            .perform(get(discussionUrl + "?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(second.getId().intValue(), third.getId().intValue())));
+
+        // Polling after the first message only returns the newer ones
+        restMessageMockMvc
+            .perform(get(discussionUrl + "?after=" + first.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(second.getId().intValue(), third.getId().intValue())));
+
+        // Scrolling back before the last message
+        restMessageMockMvc
+            .perform(get(discussionUrl + "?size=1&before=" + third.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(second.getId().intValue())));
+
+        // Both cursors at once are rejected
+        restMessageMockMvc
+            .perform(get(discussionUrl + "?before=" + third.getId() + "&after=" + first.getId()))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getMessage() throws Exception {
@@ -0,0 +1,104 @@
+package sn.trivial.ticket.web.rest;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import javax.persistence.EntityManager;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.Client;
+import sn.trivial.ticket.domain.Message;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.User;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.security.AuthoritiesConstants;
+
+/**
+ * Integration tests for the {@link SearchResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@Transactional
+class SearchResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/search";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restSearchMockMvc;
+
+    private Ticket ownedTicket;
+
+    private Message ownedMessage;
+
+    @BeforeEach
+    public void initTest() {
+        User owner = UserResourceIT.createEntity(em);
+        owner.setLogin("searching-client");
+        em.persist(owner);
+        Client client = ClientResourceIT.createEntity(em);
+        client.setUser(owner);
+        em.persist(client);
+
+        ownedTicket = createTicket("The zanzibar printer jams <again>").issuedBy(client);
+        em.persist(ownedTicket);
+        ownedMessage = new Message().content("Still jammed, the zanzibar printer is unusable").sentAt(Instant.now()).ticket(ownedTicket);
+        em.persist(ownedMessage);
+        em.persist(createTicket("Another zanzibar printer is out of toner"));
+        em.flush();
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void searchEverything() throws Exception {
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q=zanzibar printer"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    @WithMockUser(username = "searching-client", authorities = AuthoritiesConstants.CLIENT)
+    void searchOnlyTheTicketsOfTheConnectedClient() throws Exception {
+        restSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?q=zanzibar -toner"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[*].ticketId").value(everyItem(is(ownedTicket.getId().intValue()))))
+            .andExpect(jsonPath("$[?(@.type == 'TICKET')].highlight").value(hasItem(containsString("<mark>zanzibar</mark>"))))
+            .andExpect(jsonPath("$[?(@.type == 'TICKET')].highlight").value(hasItem(containsString("&lt;again&gt;"))))
+            .andExpect(jsonPath("$[?(@.type == 'MESSAGE')].messageId").value(ownedMessage.getId().intValue()));
+
+        restSearchMockMvc.perform(get(ENTITY_API_URL + "?q=toner")).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void searchBlankText() throws Exception {
+        restSearchMockMvc.perform(get(ENTITY_API_URL + "?q= ")).andExpect(status().isBadRequest());
+    }
+
+    private static Ticket createTicket(String issueDescription) {
+        return new Ticket()
+            .code("T-" + RandomStringUtils.randomAlphanumeric(10))
+            .status(TicketStatus.BEING_TREATED)
+            .issueDescription(issueDescription)
+            .issuedAt(Instant.now());
+    }
+}
@@ -0,0 +1,52 @@
+package sn.trivial.ticket.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts the SQL statements prepared by Hibernate while serving a request, so that a test can bound them and fail on the
+ * N+1 selects of an endpoint loading the associations of every row of a page.
+ * <p>
+ * The statistics are those of the whole session factory: the counted requests must be the only ones running.
+ */
+public final class StatementCounter {
+
+    private final EntityManager em;
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManager em) {
+        this.em = em;
+        this.statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Flush and clear the persistence context, so that the entities of the test are loaded again by the counted statements,
+     * then start counting.
+     */
+    public void start() {
+        em.flush();
+        em.clear();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    /**
+     * @return the number of statements prepared since {@link #start()}.
+     */
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Assert that at most some statements were prepared since {@link #start()}.
+     *
+     * @param expected the maximum number of statements.
+     */
+    public void assertAtMost(long expected) {
+        assertThat(count()).as("SQL statements prepared by Hibernate").isLessThanOrEqualTo(expected);
+    }
+}
@@ -0,0 +1,125 @@
+package sn.trivial.ticket.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+import javax.persistence.EntityManager;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import sn.trivial.ticket.IntegrationTest;
+import sn.trivial.ticket.domain.Message;
+import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.security.AuthoritiesConstants;
+
+/**
+ * Integration tests for the {@link TicketExportResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@Transactional
+class TicketExportResourceIT {
+
+    private static final String ISSUE_DESCRIPTION = "printer \"on fire\", again";
+
+    private static final Instant ISSUED_AT = Instant.parse("2023-03-20T10:15:30Z");
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restTicketExportMockMvc;
+
+    private Ticket ticket;
+
+    @BeforeEach
+    public void initTest() {
+        ticket =
+            new Ticket()
+                .code("T-" + RandomStringUtils.randomAlphanumeric(10))
+                .status(TicketStatus.TREATED)
+                .issueDescription(ISSUE_DESCRIPTION)
+                .issuedAt(ISSUED_AT);
+        em.persist(ticket);
+        em.persist(new Message().content("first line\nsecond line").sentAt(ISSUED_AT).ticket(ticket));
+        em.flush();
+    }
+
+    @Test
+    void exportTicketsAsCsv() throws Exception {
+        String csv = restTicketExportMockMvc
+            .perform(get("/api/tickets/export?id.equals=" + ticket.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets.csv\""))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(csv)
+            .isEqualTo(
+                "id,code,status,issueDescription,issuedAt,issuedById,assignedToId\r\n" +
+                ticket.getId() +
+                "," +
+                ticket.getCode() +
+                ",TREATED,\"printer \"\"on fire\"\", again\",2023-03-20T10:15:30Z,,\r\n"
+            );
+    }
+
+    @Test
+    void exportMessagesAsNdjson() throws Exception {
+        String ndjson = restTicketExportMockMvc
+            .perform(get("/api/tickets/export/messages?format=NDJSON&status.equals=TREATED&id.equals=" + ticket.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(ndjson.split("\n")).hasSize(1);
+        assertThat(ndjson)
+            .contains("\"ticketId\":" + ticket.getId())
+            .contains("\"sentBy\":null")
+            .contains("\"content\":\"first line\\nsecond line\"")
+            .endsWith("}\n");
+    }
+
+    @Test
+    void exportTicketsGzipped() throws Exception {
+        byte[] gzipped = restTicketExportMockMvc
+            .perform(get("/api/tickets/export?format=NDJSON&id.equals=" + ticket.getId()).header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        assertThat(gunzip(gzipped)).startsWith("{\"id\":" + ticket.getId() + ",").contains("\"issuedById\":null");
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.AGENT)
+    void exportTicketsIsForbiddenToAgents() throws Exception {
+        restTicketExportMockMvc.perform(get("/api/tickets/export")).andExpect(status().isForbidden());
+    }
+
+    private static String gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package sn.trivial.ticket.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,10 +29,13 @@ import sn.trivial.ticket.IntegrationTest;
 import sn.trivial.ticket.domain.Agent;
 import sn.trivial.ticket.domain.Client;
 import sn.trivial.ticket.domain.Ticket;
+import sn.trivial.ticket.domain.User;
 import sn.trivial.ticket.domain.enumeration.TicketStatus;
 import sn.trivial.ticket.repository.TicketRepository;
+import sn.trivial.ticket.security.AuthoritiesConstants;
 import sn.trivial.ticket.service.criteria.TicketCriteria;
 import sn.trivial.ticket.service.dto.TicketDTO;
+import sn.trivial.ticket.service.dto.TicketSummaryDTO;
 import sn.trivial.ticket.service.mapper.TicketMapper;
 
 /**
@@ -233,6 +242,302 @@ class TicketResourceIT {
             .andExpect(jsonPath("$.[*].issuedAt").value(hasItem(DEFAULT_ISSUED_AT.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllTicketsLoadsNeitherTheClientsNorTheAgents() throws Exception {
+        List<Long> ids = persistTicketsOfDistinctClientsAndAgents(5);
+        StatementCounter statements = new StatementCounter(em);
+        statements.start();
+
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&id.in=" + joinIds(ids)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(ids.size()));
+
+        // the page of tickets, whatever the number of clients and agents
+        statements.assertAtMost(1);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void getAllAssignedToAgentLoadsNeitherTheClientsNorTheAgents() throws Exception {
+        List<Long> ids = persistTicketsOfDistinctClientsAndAgents(5);
+        Long agentId = ticketRepository.findById(ids.get(0)).orElseThrow().getAssignedTo().getId();
+        ticketRepository.findAllById(ids).forEach(ticket -> ticket.setAssignedTo(em.getReference(Agent.class, agentId)));
+        StatementCounter statements = new StatementCounter(em);
+        statements.start();
+
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "/assigned/agents/" + agentId + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(ids.size()));
+
+        statements.assertAtMost(1);
+    }
+
+    private List<Long> persistTicketsOfDistinctClientsAndAgents(int size) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Client client = ClientResourceIT.createEntity(em).email("n1-client-" + i + "@localhost");
+            em.persist(client);
+            Agent agent = AgentResourceIT.createEntity(em).email("n1-agent-" + i + "@localhost");
+            em.persist(agent);
+            Ticket ticket = createEntity(em)
+                .code("N1-" + i + "-" + count.incrementAndGet())
+                .status(TicketStatus.BEING_TREATED)
+                .issuedBy(client)
+                .assignedTo(agent);
+            em.persist(ticket);
+            ids.add(ticket.getId());
+        }
+        return ids;
+    }
+
+    private static String joinIds(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    @Test
+    @Transactional
+    void getAllTicketSummaries() throws Exception {
+        // Initialize the database
+        ticket.setIssueDescription("B".repeat(TicketSummaryDTO.DESCRIPTION_LENGTH + 50));
+        ticketRepository.saveAndFlush(ticket);
+
+        // Get the summaries matching the criteria
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "?view=summary&sort=id,desc&id.equals=" + ticket.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[0].id").value(ticket.getId().intValue()))
+            .andExpect(jsonPath("$.[0].code").value(DEFAULT_CODE))
+            .andExpect(jsonPath("$.[0].status").value(DEFAULT_STATUS.toString()))
+            .andExpect(jsonPath("$.[0].issuedAt").value(DEFAULT_ISSUED_AT.toString()))
+            .andExpect(jsonPath("$.[0].issueDescription").value("B".repeat(TicketSummaryDTO.DESCRIPTION_LENGTH)))
+            .andExpect(jsonPath("$.[0].issuedBy").doesNotExist())
+            .andExpect(jsonPath("$.[0].assignedTo").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.AGENT)
+    void getAllUnassignedTicketSummaries() throws Exception {
+        // Initialize the database
+        ticketRepository.saveAndFlush(ticket);
+        Ticket assignedTicket = createUpdatedEntity(em);
+        ticketRepository.saveAndFlush(assignedTicket);
+
+        // Get the first page of the summaries of the unassigned tickets
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "/unassigned?view=summary&sort=id,desc&size=" + Integer.MAX_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(ticket.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(assignedTicket.getId().intValue()))))
+            .andExpect(jsonPath("$.[*].status").value(everyItem(is(TicketStatus.RECEIVED.toString()))))
+            .andExpect(jsonPath("$.[*].assignedTo").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.AGENT)
+    void getAllUnassignedTickets() throws Exception {
+        // Initialize the database
+        ticketRepository.saveAndFlush(ticket);
+        Ticket assignedTicket = createUpdatedEntity(em);
+        ticketRepository.saveAndFlush(assignedTicket);
+
+        // Get the first page of the unassigned tickets
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "/unassigned?sort=id,desc&size=" + Integer.MAX_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(ticket.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(assignedTicket.getId().intValue()))))
+            .andExpect(jsonPath("$.[*].status").value(everyItem(is(TicketStatus.RECEIVED.toString()))));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void getAllAssignedTickets() throws Exception {
+        // Initialize the database
+        ticketRepository.saveAndFlush(ticket);
+        Ticket assignedTicket = createUpdatedEntity(em);
+        ticketRepository.saveAndFlush(assignedTicket);
+        long assignedCount = ticketRepository
+            .findAll()
+            .stream()
+            .filter(t -> t.getStatus() != TicketStatus.RECEIVED && t.getStatus() != TicketStatus.CLOSED)
+            .count();
+
+        // Get the first page of the assigned tickets
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "/assigned/any-agent?sort=id,desc&size=" + Integer.MAX_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", String.valueOf(assignedCount)))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(assignedTicket.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(ticket.getId().intValue()))));
+
+        // Check, that the count call agrees with the page total
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "/assigned/count"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(assignedCount)));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void getAllAssignedToAgent() throws Exception {
+        // Initialize the database
+        Agent agent = AgentResourceIT.createEntity(em);
+        em.persist(agent);
+        em.flush();
+        Ticket assignedTicket = createUpdatedEntity(em);
+        assignedTicket.setAssignedTo(agent);
+        ticketRepository.saveAndFlush(assignedTicket);
+        ticket.setAssignedTo(agent);
+        ticketRepository.saveAndFlush(ticket);
+
+        // Only the assigned and not closed ticket of the agent is returned
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "/assigned/agents/{id}?sort=id,desc", agent.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(assignedTicket.getId().intValue())));
+
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "/assigned/agents/{id}/count", agent.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void countTicketsByStatusAndIssuedByClient() throws Exception {
+        // Initialize the database
+        Client issuedBy = ClientResourceIT.createEntity(em);
+        em.persist(issuedBy);
+        em.flush();
+        ticket.setIssuedBy(issuedBy);
+        ticketRepository.saveAndFlush(ticket);
+        Ticket closedTicket = createUpdatedEntity(em);
+        closedTicket.setStatus(TicketStatus.CLOSED);
+        closedTicket.setIssuedBy(issuedBy);
+        ticketRepository.saveAndFlush(closedTicket);
+        long receivedCount = ticketRepository.findAll().stream().filter(t -> t.getStatus() == TicketStatus.RECEIVED).count();
+
+        // Only the not closed ticket of the client is counted
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "/issued/clients/{id}/count", issuedBy.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL + "/count/by-status"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.RECEIVED").value((int) receivedCount));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.AGENT)
+    void countTicketsByStatusIsForbiddenToAgents() throws Exception {
+        restTicketMockMvc.perform(get(ENTITY_API_URL + "/count/by-status")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "ticket-owner", authorities = AuthoritiesConstants.CLIENT)
+    void getOneTicketOfConnectedClient() throws Exception {
+        // Initialize the database
+        User owner = UserResourceIT.createEntity(em);
+        owner.setLogin("ticket-owner");
+        em.persist(owner);
+        Client issuedBy = ClientResourceIT.createEntity(em);
+        issuedBy.setUser(owner);
+        em.persist(issuedBy);
+        em.flush();
+        ticket.setIssuedBy(issuedBy);
+        ticketRepository.saveAndFlush(ticket);
+        Ticket notOwnedTicket = createUpdatedEntity(em);
+        ticketRepository.saveAndFlush(notOwnedTicket);
+
+        // Get the ticket issued by the connected client
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/clients", ticket.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(ticket.getId().intValue()));
+
+        // A ticket issued by someone else is not found
+        restTicketMockMvc.perform(get(ENTITY_API_URL_ID + "/clients", notOwnedTicket.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "self-assigning-agent", authorities = AuthoritiesConstants.AGENT)
+    void selfAssignTicket() throws Exception {
+        // Initialize the database
+        Agent agent = createAgent("self-assigning-agent");
+        ticketRepository.saveAndFlush(ticket);
+
+        // Claim the received ticket
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/self-assign", ticket.getId()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.status").value(TicketStatus.PENDING.toString()))
+            .andExpect(jsonPath("$.assignedTo.id").value(agent.getId().intValue()));
+
+        // A ticket cannot be claimed twice
+        restTicketMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/self-assign", ticket.getId()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.ticketalreadyclaimed"));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "claiming-agent", authorities = AuthoritiesConstants.AGENT)
+    void claimNextTickets() throws Exception {
+        // Initialize the database
+        Agent agent = createAgent("claiming-agent");
+        Ticket oldest = ticketRepository.saveAndFlush(createEntity(em).code("CLAIM-1").issuedAt(DEFAULT_ISSUED_AT.minusSeconds(120)));
+        Ticket older = ticketRepository.saveAndFlush(createEntity(em).code("CLAIM-2").issuedAt(DEFAULT_ISSUED_AT.minusSeconds(60)));
+        Ticket newest = ticketRepository.saveAndFlush(createEntity(em).code("CLAIM-3").issuedAt(DEFAULT_ISSUED_AT));
+
+        // Claim the two oldest received tickets
+        restTicketMockMvc
+            .perform(post(ENTITY_API_URL + "/claim-next?count=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(oldest.getId().intValue(), older.getId().intValue())))
+            .andExpect(jsonPath("$.[*].status").value(everyItem(is(TicketStatus.PENDING.toString()))))
+            .andExpect(jsonPath("$.[*].assignedTo.id").value(everyItem(is(agent.getId().intValue()))));
+
+        assertThat(ticketRepository.findById(newest.getId()).orElseThrow().getStatus()).isEqualTo(TicketStatus.RECEIVED);
+
+        // An invalid count is rejected
+        restTicketMockMvc.perform(post(ENTITY_API_URL + "/claim-next?count=0")).andExpect(status().isBadRequest());
+    }
+
+    private Agent createAgent(String login) {
+        User user = UserResourceIT.createEntity(em);
+        user.setLogin(login);
+        em.persist(user);
+        Agent agent = AgentResourceIT.createEntity(em);
+        agent.setUser(user);
+        em.persist(agent);
+        em.flush();
+        return agent;
+    }
+
     @Test
     @Transactional
     void getTicket() throws Exception {
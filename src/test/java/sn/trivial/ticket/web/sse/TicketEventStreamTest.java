@@ -0,0 +1,134 @@
+package sn.trivial.ticket.web.sse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import sn.trivial.ticket.config.ApplicationProperties;
+import sn.trivial.ticket.domain.enumeration.TicketStatus;
+import sn.trivial.ticket.security.AuthoritiesConstants;
+import sn.trivial.ticket.service.dto.IdentityDTO;
+import sn.trivial.ticket.service.dto.TicketEventDTO;
+
+class TicketEventStreamTest {
+
+    private ApplicationProperties.Events properties;
+
+    private MeterRegistry meterRegistry;
+
+    private List<Runnable> pendingSends;
+
+    private TicketEventStream ticketEventStream;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties().getEvents();
+        meterRegistry = new SimpleMeterRegistry();
+        pendingSends = new ArrayList<>();
+        ticketEventStream = new TicketEventStream(properties, pendingSends::add, meterRegistry);
+    }
+
+    @Test
+    void testEventsAreRoutedToTheUsersOfTheTicket() {
+        RecordingEmitter client = subscribe(new IdentityDTO(1L, "client", 10L, null, Set.of(AuthoritiesConstants.CLIENT)));
+        RecordingEmitter otherClient = subscribe(new IdentityDTO(2L, "other-client", 11L, null, Set.of(AuthoritiesConstants.CLIENT)));
+        RecordingEmitter agent = subscribe(new IdentityDTO(3L, "agent", null, 20L, Set.of(AuthoritiesConstants.AGENT)));
+        RecordingEmitter otherAgent = subscribe(new IdentityDTO(4L, "other-agent", null, 21L, Set.of(AuthoritiesConstants.AGENT)));
+        RecordingEmitter admin = subscribe(new IdentityDTO(5L, "admin", null, null, Set.of(AuthoritiesConstants.ADMIN)));
+
+        ticketEventStream.onTicketEvent(event(TicketEventDTO.Type.ASSIGNED, TicketStatus.PENDING));
+        ticketEventStream.onTicketEvent(event(TicketEventDTO.Type.MESSAGE_SENT, TicketStatus.PENDING));
+        sendPending();
+
+        assertThat(client.events).containsExactly("ASSIGNED", "MESSAGE_SENT");
+        assertThat(agent.events).containsExactly("ASSIGNED", "MESSAGE_SENT");
+        assertThat(admin.events).containsExactly("ASSIGNED", "MESSAGE_SENT");
+        assertThat(otherAgent.events).containsExactly("ASSIGNED");
+        assertThat(otherClient.events).isEmpty();
+    }
+
+    @Test
+    void testStreamFallingBehindIsResynced() {
+        properties.setBufferSize(2);
+        RecordingEmitter client = subscribe(new IdentityDTO(1L, "client", 10L, null, Set.of(AuthoritiesConstants.CLIENT)));
+
+        for (int i = 0; i < 3; i++) {
+            ticketEventStream.onTicketEvent(event(TicketEventDTO.Type.MESSAGE_SENT, TicketStatus.BEING_TREATED));
+        }
+        sendPending();
+        ticketEventStream.onTicketEvent(event(TicketEventDTO.Type.STATUS_CHANGED, TicketStatus.TREATED));
+        sendPending();
+
+        assertThat(client.events).containsExactly(TicketEventStream.RESYNC_EVENT, "STATUS_CHANGED");
+        assertThat(meterRegistry.get(TicketEventStream.OVERFLOWS_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testHeartbeatIsOnlySentOnIdleStreams() {
+        RecordingEmitter client = subscribe(new IdentityDTO(1L, "client", 10L, null, Set.of(AuthoritiesConstants.CLIENT)));
+
+        ticketEventStream.onTicketEvent(event(TicketEventDTO.Type.STATUS_CHANGED, TicketStatus.CLOSED));
+        ticketEventStream.heartbeat();
+        sendPending();
+        ticketEventStream.heartbeat();
+        sendPending();
+
+        assertThat(client.events).containsExactly("STATUS_CHANGED", "heartbeat");
+    }
+
+    @Test
+    void testClosedStreamIsUnregistered() {
+        RecordingEmitter client = subscribe(new IdentityDTO(1L, "client", 10L, null, Set.of(AuthoritiesConstants.CLIENT)));
+        assertThat(meterRegistry.get(TicketEventStream.CONNECTIONS_METER_NAME).gauge().value()).isEqualTo(1);
+
+        client.closed = true;
+        ticketEventStream.onTicketEvent(event(TicketEventDTO.Type.STATUS_CHANGED, TicketStatus.CLOSED));
+        sendPending();
+
+        assertThat(meterRegistry.get(TicketEventStream.CONNECTIONS_METER_NAME).gauge().value()).isZero();
+    }
+
+    private RecordingEmitter subscribe(IdentityDTO identity) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ticketEventStream.register(identity, emitter);
+        return emitter;
+    }
+
+    private void sendPending() {
+        List<Runnable> sends = new ArrayList<>(pendingSends);
+        pendingSends.clear();
+        sends.forEach(Runnable::run);
+    }
+
+    private static TicketEventDTO event(TicketEventDTO.Type type, TicketStatus status) {
+        return new TicketEventDTO(type, 100L, status, null, 10L, 20L);
+    }
+
+    /**
+     * Records the names of the events sent, or the comments of the events without a name.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+
+        private boolean closed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (closed) {
+                throw new IOException("Broken pipe");
+            }
+            String text = builder.build().stream().map(data -> String.valueOf(data.getData())).collect(Collectors.joining());
+            String prefix = text.startsWith("event:") ? "event:" : ":";
+            events.add(text.substring(prefix.length(), text.indexOf('\n')));
+        }
+    }
+}